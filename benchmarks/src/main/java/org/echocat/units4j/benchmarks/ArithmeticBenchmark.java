@@ -0,0 +1,62 @@
+package org.echocat.units4j.benchmarks;
+
+import org.echocat.units4j.bytes.ByteCount;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArithmeticBenchmark {
+
+    private final ByteCount left = ByteCount.valueOf("66MiB 12KiB");
+    private final ByteCount right = ByteCount.valueOf("3MiB 5B");
+    private final ByteCount sameAsLeft = ByteCount.valueOf("66MiB 12KiB");
+
+    public long longValue = 4096L;
+
+    @Benchmark
+    public ByteCount addByteCount() {
+        return left.add(right);
+    }
+
+    @Benchmark
+    public ByteCount addLong() {
+        return left.add(longValue);
+    }
+
+    @Benchmark
+    public ByteCount subtractByteCount() {
+        return left.subtract(right);
+    }
+
+    @Benchmark
+    public ByteCount multiplyLong() {
+        return left.multiply(longValue);
+    }
+
+    @Benchmark
+    public ByteCount divideLong() {
+        return left.divide(longValue);
+    }
+
+    @Benchmark
+    public int compareTo() {
+        return left.compareTo(right);
+    }
+
+    @Benchmark
+    public boolean equalsOfByteCount() {
+        return left.equals(sameAsLeft);
+    }
+
+    @Benchmark
+    public int hashCodeOfByteCount() {
+        return left.hashCode();
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.echocat.units4j.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Runs all benchmarks (or the ones selected by the regular JMH command line options) with the
+ * {@link GCProfiler} to report allocation rates. If no thread count is given with <code>-t</code> every benchmark
+ * is executed single-threaded and with as many threads as processors are available. All results are written as
+ * one JSON document to <code>target/jmh-result-&lt;units4j version&gt;.json</code> (or the file given with
+ * <code>-rff</code>) which could be compared with the one of another version.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final List<RunResult> results = new ArrayList<>();
+        for (final int threads : threadCountsFor(commandLine)) {
+            final Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .threads(threads)
+                .build();
+            results.addAll(new Runner(options).run());
+        }
+        write(results, new File(commandLine.getResult().orElse("target/jmh-result-" + units4jVersion() + ".json")));
+    }
+
+    static int[] threadCountsFor(CommandLineOptions commandLine) {
+        if (commandLine.getThreads().hasValue()) {
+            return new int[]{commandLine.getThreads().get()};
+        }
+        final int processors = Runtime.getRuntime().availableProcessors();
+        return processors > 1 ? new int[]{1, processors} : new int[]{1};
+    }
+
+    static void write(Collection<RunResult> results, File to) throws IOException {
+        final File directory = to.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create directory " + directory + ".");
+        }
+        try (final PrintStream out = new PrintStream(to, "UTF-8")) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, out).writeOut(results);
+        }
+        System.out.println("Results written to " + to.getAbsolutePath());
+    }
+
+    static String units4jVersion() throws IOException {
+        final Properties properties = new Properties();
+        try (final InputStream is = BenchmarkRunner.class.getResourceAsStream("benchmarks.properties")) {
+            if (is != null) {
+                properties.load(is);
+            }
+        }
+        return properties.getProperty("units4j.version", "unknown");
+    }
+
+}
@@ -0,0 +1,40 @@
+package org.echocat.units4j.benchmarks;
+
+import org.echocat.units4j.bytes.ByteCount;
+import org.echocat.units4j.bytes.ByteUnit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.echocat.units4j.bytes.ByteUnit.Kind.binary;
+import static org.echocat.units4j.bytes.ByteUnit.Kind.metric;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BestFittingUnitBenchmark {
+
+    @Param({"1b", "1536b", "123456789b", "5EiB 100MiB"})
+    public String input;
+
+    private ByteCount value;
+
+    @Setup
+    public void setUp() {
+        value = ByteCount.valueOf(input);
+    }
+
+    @Benchmark
+    public ByteUnit binary() {
+        return value.bestFittingUnitOf(binary);
+    }
+
+    @Benchmark
+    public ByteUnit metric() {
+        return value.bestFittingUnitOf(metric);
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.echocat.units4j.benchmarks;
+
+import org.echocat.units4j.bytes.ByteBufferPool;
+import org.echocat.units4j.bytes.ByteCount;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.echocat.units4j.bytes.ByteBufferPool.BufferType.direct;
+import static org.echocat.units4j.bytes.ByteBufferPool.byteBufferPool;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BufferPoolBenchmark {
+
+    @Param({"4KiB", "1MiB"})
+    public String input;
+
+    private ByteCount size;
+    private ByteBufferPool pool;
+
+    @Setup
+    public void setUp() {
+        size = ByteCount.valueOf(input);
+        pool = byteBufferPool().withType(direct).build();
+    }
+
+    @Benchmark
+    public ByteBuffer allocateDirectBuffer() {
+        return size.allocateDirectBuffer();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int acquireAndReleasePooledBuffer() {
+        final ByteBuffer buffer = size.allocateBuffer(pool);
+        final int result = buffer.capacity();
+        pool.release(buffer);
+        return result;
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.echocat.units4j.benchmarks;
+
+import org.echocat.units4j.bytes.ByteCount;
+import org.echocat.units4j.bytes.ByteCountSummaryStatistics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.echocat.units4j.bytes.ByteCountCollectors.summarizing;
+import static org.echocat.units4j.bytes.ByteCountCollectors.summing;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectorsBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    private ByteCount[] values;
+
+    @Setup
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(666);
+        values = new ByteCount[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = ByteCount.valueOf(random.nextLong(1L << 40));
+        }
+    }
+
+    @Benchmark
+    public ByteCount reduce() {
+        return Arrays.stream(values).reduce(ByteCount.valueOf(0), ByteCount::add);
+    }
+
+    @Benchmark
+    public ByteCount summingSequential() {
+        return Arrays.stream(values).collect(summing());
+    }
+
+    @Benchmark
+    public ByteCount summingParallel() {
+        return Arrays.stream(values).parallel().collect(summing());
+    }
+
+    @Benchmark
+    public ByteCountSummaryStatistics summarizingParallel() {
+        return Arrays.stream(values).parallel().collect(summarizing());
+    }
+
+}
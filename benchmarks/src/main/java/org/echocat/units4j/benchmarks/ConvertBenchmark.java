@@ -0,0 +1,108 @@
+package org.echocat.units4j.benchmarks;
+
+import org.echocat.units4j.bytes.ByteUnit;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertBenchmark {
+
+    @Param({"B", "MiB", "GB"})
+    public ByteUnit sourceUnit;
+
+    @Param({"KiB", "kB"})
+    public ByteUnit targetUnit;
+
+    public long longValue = 123456L;
+    public double doubleValue = 123456.789d;
+    public BigInteger bigIntegerValue = BigInteger.valueOf(123456L);
+    public BigDecimal bigDecimalValue = BigDecimal.valueOf(123456.789d);
+
+    public long[] longValues;
+    public long[] longResults;
+    public double[] doubleValues;
+    public double[] doubleResults;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(666);
+        longValues = new long[4096];
+        longResults = new long[longValues.length];
+        doubleValues = new double[longValues.length];
+        doubleResults = new double[longValues.length];
+        for (int i = 0; i < longValues.length; i++) {
+            longValues[i] = random.nextInt(Integer.MAX_VALUE);
+            doubleValues[i] = random.nextDouble() * Integer.MAX_VALUE;
+        }
+    }
+
+    @Benchmark
+    public long fromLong() {
+        return targetUnit.from(longValue, sourceUnit);
+    }
+
+    @Benchmark
+    public long toLong() {
+        return sourceUnit.to(longValue, targetUnit);
+    }
+
+    @Benchmark
+    public double fromDouble() {
+        return targetUnit.from(doubleValue, sourceUnit);
+    }
+
+    @Benchmark
+    public double toDouble() {
+        return sourceUnit.to(doubleValue, targetUnit);
+    }
+
+    @Benchmark
+    public BigInteger fromBigInteger() {
+        return targetUnit.from(bigIntegerValue, sourceUnit);
+    }
+
+    @Benchmark
+    public BigInteger toBigInteger() {
+        return sourceUnit.to(bigIntegerValue, targetUnit);
+    }
+
+    @Benchmark
+    public BigDecimal fromBigDecimal() {
+        return targetUnit.from(bigDecimalValue, sourceUnit);
+    }
+
+    @Benchmark
+    public BigDecimal toBigDecimal() {
+        return sourceUnit.to(bigDecimalValue, targetUnit);
+    }
+
+    @Benchmark
+    public long[] convertLongArray() {
+        targetUnit.convert(longValues, 0, longResults, 0, longValues.length, sourceUnit);
+        return longResults;
+    }
+
+    @Benchmark
+    public long[] convertLongArrayOneByOne() {
+        for (int i = 0; i < longValues.length; i++) {
+            longResults[i] = targetUnit.from(longValues[i], sourceUnit);
+        }
+        return longResults;
+    }
+
+    @Benchmark
+    public double[] convertDoubleArray() {
+        targetUnit.convert(doubleValues, 0, doubleResults, 0, doubleValues.length, sourceUnit);
+        return doubleResults;
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.echocat.units4j.benchmarks;
+
+import org.echocat.units4j.bytes.ByteCount;
+import org.echocat.units4j.bytes.ByteCountFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.echocat.units4j.bytes.ByteCountFormat.byteCountFormat;
+import static org.echocat.units4j.bytes.ByteUnit.Kind.binary;
+import static org.echocat.units4j.bytes.ByteUnit.MiB;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+
+    @Param({"1b", "1536b", "123456789b", "5EiB 100MiB"})
+    public String input;
+
+    private ByteCount value;
+    private long longValue;
+    private final StringBuilder buffer = new StringBuilder(64);
+    private ByteCountFormat fixedUnitFormat;
+    private ByteCountFormat bestFittingUnitFormat;
+    private ByteCountFormat withoutUnitFormat;
+
+    @Setup
+    public void setUp() {
+        value = ByteCount.valueOf(input);
+        longValue = value.longValue();
+        fixedUnitFormat = byteCountFormat()
+            .withLocale(Locale.US)
+            .ofByteUnit(MiB)
+            .withMaximumFractionDigits(2)
+            .build();
+        bestFittingUnitFormat = byteCountFormat()
+            .withLocale(Locale.US)
+            .ofByteUnitKind(binary)
+            .withMaximumFractionDigits(2)
+            .build();
+        withoutUnitFormat = byteCountFormat()
+            .withLocale(Locale.US)
+            .ofByteUnitKind(binary)
+            .build();
+    }
+
+    @Benchmark
+    public String toStringOfByteCount() {
+        return value.toString();
+    }
+
+    @Benchmark
+    public String formatWithFixedUnit() {
+        return fixedUnitFormat.format(value);
+    }
+
+    @Benchmark
+    public String formatWithBestFittingUnit() {
+        return bestFittingUnitFormat.format(value);
+    }
+
+    @Benchmark
+    public String formatWithoutUnit() {
+        return withoutUnitFormat.format(value);
+    }
+
+    @Benchmark
+    public StringBuilder formatToWithBestFittingUnit() {
+        buffer.setLength(0);
+        return bestFittingUnitFormat.formatTo(longValue, buffer);
+    }
+
+    @Benchmark
+    public StringBuilder formatToWithoutUnit() {
+        buffer.setLength(0);
+        return withoutUnitFormat.formatTo(longValue, buffer);
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.echocat.units4j.benchmarks;
+
+import org.echocat.units4j.bytes.ByteCount;
+import org.echocat.units4j.bytes.ByteCountFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.echocat.units4j.bytes.ByteCountFormat.byteCountFormat;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"0", "5MiB", "7 kilobyte", "66mib 1024kib 2097152b"})
+    public String input;
+
+    private final ByteCountFormat format = byteCountFormat()
+        .withLocale(Locale.US)
+        .build();
+
+    @Benchmark
+    public ByteCount valueOf() {
+        return ByteCount.valueOf(input);
+    }
+
+    @Benchmark
+    public ByteCount parseWithFormat() {
+        return format.parse(input);
+    }
+
+    @Benchmark
+    public ByteCount parseFractionWithFormat() {
+        return format.parse("1,234.5678GiB");
+    }
+
+}
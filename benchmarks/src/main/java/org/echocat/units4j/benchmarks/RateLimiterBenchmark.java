@@ -0,0 +1,38 @@
+package org.echocat.units4j.benchmarks;
+
+import org.echocat.units4j.bytes.ByteCount;
+import org.echocat.units4j.bytes.ByteRate;
+import org.echocat.units4j.bytes.ByteRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.echocat.units4j.bytes.ByteRateLimiter.byteRateLimiter;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"64KiB"})
+    public String input;
+
+    private long batch;
+    private ByteRateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        batch = ByteCount.valueOf(input).longValue();
+        limiter = byteRateLimiter(ByteRate.valueOf("1PiB/s")).build();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean tryAcquire() {
+        return limiter.tryAcquire(batch);
+    }
+
+}
@@ -0,0 +1,257 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Limits how many bytes could be reserved at the same time, for example for admission control of request buffers.
+ *
+ * <p>Reservations and releases are a CAS on a plain <code>long</code> of this budget and of all its parents. A
+ * {@link #newSubBudget(ByteCount) sub budget} (like one per tenant) has its own capacity but every reservation also
+ * counts against all its parents, so the sum of all sub budgets could exceed the capacity of their parent. Only
+ * {@link #reserve(long, long, TimeUnit) waiting reservations} block - on a lock which is shared by the whole tree and
+ * only touched by releases if somebody is waiting.</p>
+ */
+@ThreadSafe
+public class ByteBudget {
+
+    private static final AtomicLongFieldUpdater<ByteBudget> USED = AtomicLongFieldUpdater.newUpdater(ByteBudget.class, "used");
+    private static final AtomicLongFieldUpdater<ByteBudget> HIGH_WATERMARK = AtomicLongFieldUpdater.newUpdater(ByteBudget.class, "highWatermark");
+
+    @Nonnull
+    public static ByteBudget byteBudget(@Nonnull ByteCount capacity) throws IllegalArgumentException {
+        return new ByteBudget(null, capacity);
+    }
+
+    @Nullable
+    private final ByteBudget parent;
+    @Nonnull
+    private final ByteBudget root;
+    @Nonnegative
+    private final long capacity;
+
+    private volatile long used;
+    private volatile long highWatermark;
+
+    /**
+     * Only present for the root of a tree.
+     */
+    @Nullable
+    private final ReentrantLock lock;
+    @Nullable
+    private final Condition released;
+    @Nullable
+    private final AtomicInteger waiters;
+
+    protected ByteBudget(@Nullable ByteBudget parent, @Nonnull ByteCount capacity) throws IllegalArgumentException {
+        if (!capacity.isLongValue() || capacity.longValue() < 0) {
+            throw new IllegalArgumentException("Given capacity value is negative or too big: " + capacity);
+        }
+        this.parent = parent;
+        this.root = parent != null ? parent.root : this;
+        this.capacity = capacity.longValue();
+        this.lock = parent != null ? null : new ReentrantLock();
+        this.released = lock != null ? lock.newCondition() : null;
+        this.waiters = parent != null ? null : new AtomicInteger();
+    }
+
+    /**
+     * @return a new budget whose reservations also count against this one.
+     */
+    @Nonnull
+    public ByteBudget newSubBudget(@Nonnull ByteCount capacity) throws IllegalArgumentException {
+        return new ByteBudget(this, capacity);
+    }
+
+    /**
+     * @return <code>true</code> if <code>bytes</code> were reserved in this budget and all its parents.
+     */
+    public boolean tryReserve(@Nonnegative long bytes) throws IllegalArgumentException {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Given bytes value is negative: " + bytes);
+        }
+        if (!tryReserveHere(bytes)) {
+            return false;
+        }
+        if (parent != null && !parent.tryReserve(bytes)) {
+            releaseHere(bytes);
+            return false;
+        }
+        return true;
+    }
+
+    public boolean tryReserve(@Nonnull ByteCount bytes) throws IllegalArgumentException {
+        return tryReserve(bytesOf(bytes));
+    }
+
+    /**
+     * Waits up to <code>timeout</code> until <code>bytes</code> could be reserved.
+     *
+     * @return <code>true</code> if <code>bytes</code> were reserved in this budget and all its parents.
+     * @throws IllegalArgumentException if <code>bytes</code> exceed the capacity of this budget or one of its parents.
+     */
+    public boolean reserve(@Nonnegative long bytes, long timeout, @Nonnull TimeUnit unit) throws IllegalArgumentException, InterruptedException {
+        if (tryReserve(bytes)) {
+            return true;
+        }
+        for (ByteBudget current = this; current != null; current = current.parent) {
+            if (bytes > current.capacity) {
+                throw new IllegalArgumentException("Given bytes value " + ByteCount.valueOf(bytes) + " exceeds the capacity of " + current.capacity() + ".");
+            }
+        }
+        long remainingNanos = unit.toNanos(timeout);
+        final ReentrantLock rootLock = root.lock;
+        rootLock.lockInterruptibly();
+        root.waiters.incrementAndGet();
+        try {
+            while (!tryReserve(bytes)) {
+                if (remainingNanos <= 0L) {
+                    return false;
+                }
+                remainingNanos = root.released.awaitNanos(remainingNanos);
+            }
+            return true;
+        } finally {
+            root.waiters.decrementAndGet();
+            rootLock.unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #reserve(long, long, TimeUnit)}.
+     */
+    public boolean reserve(@Nonnull ByteCount bytes, @Nonnull Duration timeout) throws IllegalArgumentException, InterruptedException {
+        return reserve(bytesOf(bytes), timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gives reserved bytes back to this budget and all its parents.
+     *
+     * @throws IllegalStateException if more bytes are released than reserved.
+     */
+    public void release(@Nonnegative long bytes) throws IllegalArgumentException, IllegalStateException {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Given bytes value is negative: " + bytes);
+        }
+        for (ByteBudget current = this; current != null; current = current.parent) {
+            current.releaseHere(bytes);
+        }
+        if (root.waiters.get() > 0) {
+            root.lock.lock();
+            try {
+                root.released.signalAll();
+            } finally {
+                root.lock.unlock();
+            }
+        }
+    }
+
+    public void release(@Nonnull ByteCount bytes) throws IllegalArgumentException, IllegalStateException {
+        release(bytesOf(bytes));
+    }
+
+    @Nonnull
+    public ByteCount capacity() {
+        return ByteCount.valueOf(capacity);
+    }
+
+    @Nonnull
+    public ByteCount used() {
+        return ByteCount.valueOf(used);
+    }
+
+    @Nonnull
+    public ByteCount available() {
+        return ByteCount.valueOf(Math.max(capacity - used, 0L));
+    }
+
+    /**
+     * @return the maximum of {@link #used()} since creation or the last {@link #resetHighWatermark()}.
+     */
+    @Nonnull
+    public ByteCount highWatermark() {
+        return ByteCount.valueOf(highWatermark);
+    }
+
+    /**
+     * Sets the {@link #highWatermark()} to the currently used bytes.
+     *
+     * @return the former high watermark.
+     */
+    @Nonnull
+    public ByteCount resetHighWatermark() {
+        return ByteCount.valueOf(HIGH_WATERMARK.getAndSet(this, used));
+    }
+
+    @Nonnull
+    public Optional<ByteBudget> parent() {
+        return ofNullable(parent);
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBudget{used=" + used() + ", capacity=" + capacity() + ", highWatermark=" + highWatermark() + '}';
+    }
+
+    boolean tryReserveHere(@Nonnegative long bytes) {
+        while (true) {
+            final long current = used;
+            if (bytes > capacity - current) {
+                return false;
+            }
+            final long next = current + bytes;
+            if (USED.compareAndSet(this, current, next)) {
+                updateHighWatermark(next);
+                return true;
+            }
+        }
+    }
+
+    void releaseHere(@Nonnegative long bytes) throws IllegalStateException {
+        while (true) {
+            final long current = used;
+            if (bytes > current) {
+                throw new IllegalStateException("Could not release " + ByteCount.valueOf(bytes) + " because only " + ByteCount.valueOf(current) + " are reserved.");
+            }
+            if (USED.compareAndSet(this, current, current - bytes)) {
+                return;
+            }
+        }
+    }
+
+    void updateHighWatermark(@Nonnegative long candidate) {
+        long current = highWatermark;
+        while (candidate > current && !HIGH_WATERMARK.compareAndSet(this, current, candidate)) {
+            current = highWatermark;
+        }
+    }
+
+    /**
+     * Values which do not fit into a <code>long</code> could never be reserved, so they are handled as
+     * {@link Long#MAX_VALUE}.
+     */
+    @Nonnegative
+    static long bytesOf(@Nonnull ByteCount bytes) {
+        requireNonNull(bytes);
+        if (!bytes.isLongValue()) {
+            if (bytes.compareTo(ByteCount.ZERO) < 0) {
+                throw new IllegalArgumentException("Given bytes value is negative: " + bytes);
+            }
+            return Long.MAX_VALUE;
+        }
+        return bytes.longValue();
+    }
+
+}
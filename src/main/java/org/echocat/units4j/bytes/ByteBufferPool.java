@@ -0,0 +1,628 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.ofNullable;
+import static org.echocat.units4j.bytes.ByteUnit.MiB;
+
+/**
+ * Pools {@link ByteBuffer}s to take the allocation churn away from I/O paths - especially of direct buffers, whose
+ * memory is only freed after the garbage collector found them.
+ *
+ * <p>Requested sizes are rounded up to size classes: <code>1KiB</code> and then four steps per power of two
+ * (<code>1.25KiB</code>, <code>1.5KiB</code>, <code>1.75KiB</code>, <code>2KiB</code>, <code>2.5KiB</code>, ...), so
+ * every {@link ByteUnit} boundary is a size class and at most 25% of a buffer is wasted. Every acquired buffer has a
+ * {@link ByteBuffer#capacity() capacity} of its size class and its {@link ByteBuffer#limit() limit} set to the requested
+ * size and its {@link ByteBuffer#order() order} is big endian. Its content is not cleared. Sizes above the {@link Builder#withMaximumBufferSize(ByteCount) maximum buffer size}
+ * are not pooled at all.</p>
+ *
+ * <p>Every thread holds up to two magazines of buffers per size class, so most operations touch no shared state. Full
+ * magazines are exchanged with a lock-free depot per size class. All buffers held by the pool - also the ones in the
+ * magazines of threads - count against its {@link Builder#withCapacity(ByteCount) capacity}; released buffers which
+ * exceed it are dropped. Magazines of terminated threads are moved to the depot.</p>
+ *
+ * <p>If {@link Builder#withLeakDetection(Consumer) leak detection} is enabled every acquired buffer is tracked until it
+ * is released, which is expensive and meant for debugging only.</p>
+ */
+@ThreadSafe
+public class ByteBufferPool {
+
+    public enum BufferType {
+        heap,
+        direct
+    }
+
+    static final int MINIMUM_CLASS_SHIFT = 10;
+    static final int MINIMUM_CLASS_SIZE = 1 << MINIMUM_CLASS_SHIFT;
+    static final int MAXIMUM_CLASS_SIZE = 1 << 30;
+
+    @Nonnull
+    public static Builder byteBufferPool() {
+        return new Builder();
+    }
+
+    @Nonnull
+    private final BufferType type;
+    @Nonnegative
+    private final long capacity;
+    @Nonnegative
+    private final int maximumBufferSize;
+    @Nonnegative
+    private final int magazineSize;
+    @Nullable
+    private final LeakDetector leakDetector;
+
+    @Nonnull
+    private final SizeClass[] sizeClasses;
+    private final AtomicLong retained = new AtomicLong();
+    private final ConcurrentLinkedQueue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::newThreadCache);
+
+    protected ByteBufferPool(
+        @Nonnull BufferType type,
+        @Nonnull ByteCount capacity,
+        @Nonnull ByteCount maximumBufferSize,
+        @Nonnegative int magazineSize,
+        @Nullable Consumer<? super IllegalStateException> leakListener
+    ) {
+        this.type = requireNonNull(type);
+        this.capacity = capacity.longValue();
+        this.maximumBufferSize = sizeOf(indexOf(maximumBufferSize.toAllocatableByteCount()));
+        this.magazineSize = magazineSize;
+        this.leakDetector = leakListener != null ? new LeakDetector(leakListener) : null;
+        this.sizeClasses = new SizeClass[indexOf(this.maximumBufferSize) + 1];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new SizeClass(sizeOf(i));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if <code>size</code> exceeds {@link Integer#MAX_VALUE}.
+     */
+    @Nonnull
+    public ByteBuffer acquire(@Nonnull ByteCount size) throws IllegalArgumentException {
+        return acquire(size.toAllocatableByteCount());
+    }
+
+    @Nonnull
+    public ByteBuffer acquire(@Nonnegative int size) throws IllegalArgumentException {
+        final ByteBuffer result = take(size);
+        if (leakDetector != null && size <= maximumBufferSize) {
+            leakDetector.acquired(result, size);
+        }
+        return result;
+    }
+
+    /**
+     * @return an array which is at least <code>size</code> long.
+     * @throws IllegalStateException if this pool does not hold {@link BufferType#heap heap} buffers.
+     */
+    @Nonnull
+    public byte[] acquireBytes(@Nonnull ByteCount size) throws IllegalArgumentException, IllegalStateException {
+        return acquireBytes(size.toAllocatableByteCount());
+    }
+
+    /**
+     * @return an array which is at least <code>size</code> long.
+     * @throws IllegalStateException if this pool does not hold {@link BufferType#heap heap} buffers.
+     */
+    @Nonnull
+    public byte[] acquireBytes(@Nonnegative int size) throws IllegalArgumentException, IllegalStateException {
+        if (type != BufferType.heap) {
+            throw new IllegalStateException("Only pools of heap buffers could provide byte arrays.");
+        }
+        final byte[] result = take(size).array();
+        if (leakDetector != null && size <= maximumBufferSize) {
+            leakDetector.acquired(result, size);
+        }
+        return result;
+    }
+
+    /**
+     * Gives the buffer back to the pool. It must not be used afterwards. Buffers which do not fit into this pool are
+     * ignored.
+     *
+     * @throws IllegalArgumentException if leak detection is enabled and <code>buffer</code> was not acquired from this
+     *                                  pool or was already released.
+     */
+    public void release(@Nonnull ByteBuffer buffer) throws IllegalArgumentException {
+        final int index = poolableIndexOf(buffer);
+        if (index >= 0) {
+            if (leakDetector != null) {
+                leakDetector.released(buffer);
+            }
+            offer(index, buffer);
+        }
+    }
+
+    /**
+     * Same as {@link #release(ByteBuffer)} but for arrays acquired by {@link #acquireBytes(int)}.
+     */
+    public void release(@Nonnull byte[] bytes) throws IllegalArgumentException {
+        final int index = type == BufferType.heap ? classIndexOf(bytes.length) : -1;
+        if (index >= 0) {
+            if (leakDetector != null) {
+                leakDetector.released(bytes);
+            }
+            offer(index, ByteBuffer.wrap(bytes));
+        }
+    }
+
+    /**
+     * Drops all buffers of the depot. Magazines of running threads are not affected.
+     */
+    public void clear() {
+        reclaimCachesOfTerminatedThreads();
+        for (final SizeClass sizeClass : sizeClasses) {
+            Magazine magazine;
+            while ((magazine = sizeClass.depot.poll()) != null) {
+                retained.addAndGet(-(long) magazine.size * sizeClass.size);
+            }
+        }
+    }
+
+    @Nonnull
+    public BufferType type() {
+        return type;
+    }
+
+    @Nonnull
+    public ByteCount capacity() {
+        return ByteCount.valueOf(capacity);
+    }
+
+    @Nonnull
+    public ByteCount maximumBufferSize() {
+        return ByteCount.valueOf(maximumBufferSize);
+    }
+
+    /**
+     * @return the sum of the capacities of all buffers currently held by this pool.
+     */
+    @Nonnull
+    public ByteCount retained() {
+        return ByteCount.valueOf(retained.get());
+    }
+
+    /**
+     * @return how many acquired buffers were garbage collected without being released. Always <code>0</code> if leak
+     * detection is disabled.
+     */
+    @Nonnegative
+    public long leaks() {
+        return leakDetector != null ? leakDetector.leaks() : 0L;
+    }
+
+    @Nonnull
+    ByteBuffer take(@Nonnegative int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Given size value is negative: " + size);
+        }
+        if (size > maximumBufferSize) {
+            return allocate(size);
+        }
+        final int index = indexOf(size);
+        final int classSize = sizeClasses[index].size;
+        ByteBuffer result = threadCache.get().pop(index);
+        if (result != null) {
+            retained.addAndGet(-classSize);
+            ((Buffer) result).clear();
+            result.order(ByteOrder.BIG_ENDIAN);
+        } else {
+            result = allocate(classSize);
+        }
+        // Called on Buffer because ByteBuffer overrides limit(int) only since Java 9.
+        ((Buffer) result).limit(size);
+        return result;
+    }
+
+    void offer(@Nonnegative int index, @Nonnull ByteBuffer buffer) {
+        if (reserve(sizeClasses[index].size)) {
+            threadCache.get().push(index, buffer);
+        }
+    }
+
+    @Nonnull
+    ByteBuffer allocate(@Nonnegative int size) {
+        return type == BufferType.direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+
+    boolean reserve(@Nonnegative int size) {
+        while (true) {
+            final long current = retained.get();
+            if (current + size > capacity) {
+                return false;
+            }
+            if (retained.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    int poolableIndexOf(@Nonnull ByteBuffer buffer) {
+        if (buffer.isReadOnly() || buffer.isDirect() != (type == BufferType.direct)) {
+            return -1;
+        }
+        // Slices of heap buffers must not be pooled because they do not own the whole array.
+        if (!buffer.isDirect() && (buffer.arrayOffset() != 0 || buffer.array().length != buffer.capacity())) {
+            return -1;
+        }
+        return classIndexOf(buffer.capacity());
+    }
+
+    /**
+     * @return the index of the size class which is exactly <code>capacity</code> or <code>-1</code>.
+     */
+    int classIndexOf(@Nonnegative int capacity) {
+        if (capacity < MINIMUM_CLASS_SIZE || capacity > maximumBufferSize) {
+            return -1;
+        }
+        final int index = indexOf(capacity);
+        return index < sizeClasses.length && sizeOf(index) == capacity ? index : -1;
+    }
+
+    /**
+     * @return the index of the smallest size class which could hold <code>size</code>.
+     */
+    @Nonnegative
+    static int indexOf(@Nonnegative int size) {
+        if (size <= MINIMUM_CLASS_SIZE) {
+            return 0;
+        }
+        final int highest = size - 1;
+        final int highestBit = 31 - Integer.numberOfLeadingZeros(highest);
+        return ((highestBit - MINIMUM_CLASS_SHIFT) << 2) + ((highest >>> (highestBit - 2)) & 3) + 1;
+    }
+
+    @Nonnegative
+    static int sizeOf(@Nonnegative int index) {
+        if (index == 0) {
+            return MINIMUM_CLASS_SIZE;
+        }
+        final int step = index - 1;
+        final int highestBit = MINIMUM_CLASS_SHIFT + (step >>> 2);
+        return (5 + (step & 3)) << (highestBit - 2);
+    }
+
+    @Nonnull
+    ThreadCache newThreadCache() {
+        reclaimCachesOfTerminatedThreads();
+        final ThreadCache result = new ThreadCache(Thread.currentThread(), sizeClasses, magazineSize);
+        threadCaches.add(result);
+        return result;
+    }
+
+    void reclaimCachesOfTerminatedThreads() {
+        final Iterator<ThreadCache> i = threadCaches.iterator();
+        while (i.hasNext()) {
+            final ThreadCache candidate = i.next();
+            final Thread owner = candidate.owner.get();
+            if ((owner == null || !owner.isAlive()) && threadCaches.remove(candidate)) {
+                candidate.moveToDepot();
+            }
+        }
+    }
+
+    static final class SizeClass {
+
+        @Nonnegative
+        final int size;
+        final ConcurrentLinkedQueue<Magazine> depot = new ConcurrentLinkedQueue<>();
+
+        SizeClass(@Nonnegative int size) {
+            this.size = size;
+        }
+
+    }
+
+    static final class Magazine {
+
+        @Nonnull
+        final ByteBuffer[] buffers;
+        @Nonnegative
+        int size;
+
+        Magazine(@Nonnegative int capacity) {
+            this.buffers = new ByteBuffer[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean isFull() {
+            return size == buffers.length;
+        }
+
+        @Nonnull
+        ByteBuffer pop() {
+            final ByteBuffer result = buffers[--size];
+            buffers[size] = null;
+            return result;
+        }
+
+        void push(@Nonnull ByteBuffer buffer) {
+            buffers[size++] = buffer;
+        }
+
+    }
+
+    /**
+     * Only accessed by its owner - or after its owner terminated. It must not reference the pool, otherwise the value
+     * of {@link #threadCache} would keep the pool alive for as long as its thread runs.
+     */
+    static final class ThreadCache {
+
+        @Nonnull
+        final WeakReference<Thread> owner;
+        @Nonnull
+        final SizeClass[] sizeClasses;
+        @Nonnegative
+        final int magazineSize;
+        @Nonnull
+        final Magazine[] loaded;
+        @Nonnull
+        final Magazine[] previous;
+
+        ThreadCache(@Nonnull Thread owner, @Nonnull SizeClass[] sizeClasses, @Nonnegative int magazineSize) {
+            this.owner = new WeakReference<>(owner);
+            this.sizeClasses = sizeClasses;
+            this.magazineSize = magazineSize;
+            this.loaded = new Magazine[sizeClasses.length];
+            this.previous = new Magazine[sizeClasses.length];
+        }
+
+        @Nullable
+        ByteBuffer pop(@Nonnegative int index) {
+            final Magazine currentLoaded = loaded[index];
+            if (currentLoaded != null && !currentLoaded.isEmpty()) {
+                return currentLoaded.pop();
+            }
+            final Magazine currentPrevious = previous[index];
+            if (currentPrevious != null && !currentPrevious.isEmpty()) {
+                previous[index] = currentLoaded;
+                loaded[index] = currentPrevious;
+                return currentPrevious.pop();
+            }
+            final Magazine full = sizeClasses[index].depot.poll();
+            if (full != null) {
+                loaded[index] = full;
+                return full.pop();
+            }
+            return null;
+        }
+
+        void push(@Nonnegative int index, @Nonnull ByteBuffer buffer) {
+            Magazine currentLoaded = loaded[index];
+            if (currentLoaded == null) {
+                currentLoaded = loaded[index] = new Magazine(magazineSize);
+            }
+            if (!currentLoaded.isFull()) {
+                currentLoaded.push(buffer);
+                return;
+            }
+            Magazine currentPrevious = previous[index];
+            if (currentPrevious == null || currentPrevious.isFull()) {
+                if (currentPrevious != null) {
+                    sizeClasses[index].depot.offer(currentPrevious);
+                }
+                currentPrevious = new Magazine(magazineSize);
+            }
+            previous[index] = currentLoaded;
+            loaded[index] = currentPrevious;
+            currentPrevious.push(buffer);
+        }
+
+        void moveToDepot() {
+            for (int i = 0; i < sizeClasses.length; i++) {
+                moveToDepot(i, loaded[i]);
+                moveToDepot(i, previous[i]);
+            }
+        }
+
+        private void moveToDepot(@Nonnegative int index, @Nullable Magazine magazine) {
+            if (magazine != null && !magazine.isEmpty()) {
+                sizeClasses[index].depot.offer(magazine);
+            }
+        }
+
+    }
+
+    static final class LeakDetector {
+
+        @Nonnull
+        private final Consumer<? super IllegalStateException> listener;
+        private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+        /**
+         * Outstanding records by the identity hash code of their buffer. Guarded by itself.
+         */
+        private final Map<Integer, List<LeakRecord>> outstanding = new HashMap<>();
+        private final AtomicLong leaks = new AtomicLong();
+
+        LeakDetector(@Nonnull Consumer<? super IllegalStateException> listener) {
+            this.listener = listener;
+        }
+
+        void acquired(@Nonnull Object buffer, @Nonnegative int size) {
+            expunge();
+            final LeakRecord record = new LeakRecord(buffer, size, queue);
+            synchronized (outstanding) {
+                outstanding.computeIfAbsent(record.identity, key -> new ArrayList<>(1)).add(record);
+            }
+        }
+
+        void released(@Nonnull Object buffer) throws IllegalArgumentException {
+            expunge();
+            final int identity = System.identityHashCode(buffer);
+            synchronized (outstanding) {
+                final List<LeakRecord> candidates = outstanding.get(identity);
+                if (candidates != null) {
+                    for (final Iterator<LeakRecord> i = candidates.iterator(); i.hasNext(); ) {
+                        final LeakRecord candidate = i.next();
+                        if (candidate.get() == buffer) {
+                            candidate.clear();
+                            i.remove();
+                            if (candidates.isEmpty()) {
+                                outstanding.remove(identity);
+                            }
+                            return;
+                        }
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Given buffer was not acquired from this pool or was already released.");
+        }
+
+        @Nonnegative
+        long leaks() {
+            expunge();
+            return leaks.get();
+        }
+
+        void expunge() {
+            Reference<?> reference;
+            while ((reference = queue.poll()) != null) {
+                final LeakRecord record = (LeakRecord) reference;
+                if (remove(record)) {
+                    leaks.incrementAndGet();
+                    listener.accept(record.acquisition);
+                }
+            }
+        }
+
+        private boolean remove(@Nonnull LeakRecord record) {
+            synchronized (outstanding) {
+                final List<LeakRecord> candidates = outstanding.get(record.identity);
+                if (candidates == null || !candidates.remove(record)) {
+                    return false;
+                }
+                if (candidates.isEmpty()) {
+                    outstanding.remove(record.identity);
+                }
+                return true;
+            }
+        }
+
+    }
+
+    static final class LeakRecord extends WeakReference<Object> {
+
+        final int identity;
+        /**
+         * Created while acquisition to capture where the leaked buffer came from.
+         */
+        @Nonnull
+        final IllegalStateException acquisition;
+
+        LeakRecord(@Nonnull Object buffer, @Nonnegative int size, @Nonnull ReferenceQueue<Object> queue) {
+            super(buffer, queue);
+            this.identity = System.identityHashCode(buffer);
+            this.acquisition = new IllegalStateException("Buffer of " + ByteCount.valueOf(size) + " was garbage collected without being released to its pool. It was acquired at:");
+        }
+
+    }
+
+    public static class Builder {
+
+        @Nonnull
+        private Optional<BufferType> type = empty();
+        @Nonnull
+        private Optional<ByteCount> capacity = empty();
+        @Nonnull
+        private Optional<ByteCount> maximumBufferSize = empty();
+        @Nonnull
+        private Optional<Integer> magazineSize = empty();
+        @Nonnull
+        private Optional<Consumer<? super IllegalStateException>> leakListener = empty();
+
+        @Nonnull
+        public Builder withType(@Nullable BufferType type) {
+            this.type = ofNullable(type);
+            return this;
+        }
+
+        /**
+         * The maximum sum of capacities of all buffers held by the pool. Default is <code>128MiB</code>.
+         */
+        @Nonnull
+        public Builder withCapacity(@Nullable ByteCount capacity) {
+            if (capacity != null && (!capacity.isLongValue() || capacity.longValue() < 0)) {
+                throw new IllegalArgumentException("Given capacity value is negative or too big: " + capacity);
+            }
+            this.capacity = ofNullable(capacity);
+            return this;
+        }
+
+        /**
+         * Bigger buffers are not pooled. It is rounded up to its size class. Default is <code>8MiB</code>, maximum is
+         * <code>1GiB</code>.
+         */
+        @Nonnull
+        public Builder withMaximumBufferSize(@Nullable ByteCount maximumBufferSize) {
+            if (maximumBufferSize != null && (maximumBufferSize.compareTo(ByteCount.ZERO) < 0 || maximumBufferSize.compareTo(ByteCount.valueOf(MAXIMUM_CLASS_SIZE)) > 0)) {
+                throw new IllegalArgumentException("Given maximumBufferSize value is not between 0B and 1GiB: " + maximumBufferSize);
+            }
+            this.maximumBufferSize = ofNullable(maximumBufferSize);
+            return this;
+        }
+
+        /**
+         * Number of buffers per magazine. Default is <code>8</code>.
+         */
+        @Nonnull
+        public Builder withMagazineSize(@Nullable @Nonnegative Integer magazineSize) {
+            if (magazineSize != null && magazineSize < 1) {
+                throw new IllegalArgumentException("Given magazineSize value is not positive: " + magazineSize);
+            }
+            this.magazineSize = ofNullable(magazineSize);
+            return this;
+        }
+
+        /**
+         * Enables leak detection if <code>listener</code> is not <code>null</code>. The listener is called with an
+         * exception carrying the stack trace of the acquisition of every buffer which was garbage collected without
+         * being released.
+         */
+        @Nonnull
+        public Builder withLeakDetection(@Nullable Consumer<? super IllegalStateException> listener) {
+            this.leakListener = ofNullable(listener);
+            return this;
+        }
+
+        protected Builder() {
+        }
+
+        @Nonnull
+        public ByteBufferPool build() {
+            return new ByteBufferPool(
+                type.orElse(BufferType.heap),
+                capacity.orElse(ByteCount.valueOf(128, MiB)),
+                maximumBufferSize.orElse(ByteCount.valueOf(8, MiB)),
+                magazineSize.orElse(8),
+                leakListener.orElse(null)
+            );
+        }
+
+    }
+
+}
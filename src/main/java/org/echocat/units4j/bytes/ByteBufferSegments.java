@@ -0,0 +1,266 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Storage of more bytes than a single {@link ByteBuffer} could hold, split into segments of the same power of two
+ * size - only the last one could be smaller. As {@link java.util.List} it provides a view of every segment, but all
+ * bytes could also be accessed by their absolute <code>long</code> index.
+ *
+ * <p>All absolute operations do not change the state of the segments, so they could be used concurrently as long as
+ * the accessed ranges do not overlap with writes. Multi byte values are big endian like the default of
+ * {@link ByteBuffer}.</p>
+ *
+ * @see ByteCount#allocateSegmented(ByteCount)
+ * @see ByteCount#map(Path, MapMode)
+ */
+@ThreadSafe
+public class ByteBufferSegments extends AbstractList<ByteBuffer> implements RandomAccess {
+
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    @Nonnull
+    static ByteBufferSegments allocate(@Nonnegative long length, @Nonnegative int segmentSize, @Nonnull ByteBufferPool.BufferType type) {
+        requireNonNull(type);
+        final ByteBuffer[] segments = new ByteBuffer[numberOfSegmentsFor(length, segmentSize)];
+        for (int i = 0; i < segments.length; i++) {
+            final int size = sizeOfSegment(i, length, segmentSize);
+            segments[i] = type == ByteBufferPool.BufferType.direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        }
+        return new ByteBufferSegments(segments, length, segmentSize);
+    }
+
+    /**
+     * The file is closed afterwards; the mapped segments stay valid until they are garbage collected.
+     */
+    @Nonnull
+    static ByteBufferSegments map(@Nonnull Path file, @Nonnull MapMode mode, @Nonnegative long length, @Nonnegative int segmentSize) throws IOException {
+        final ByteBuffer[] segments = new ByteBuffer[numberOfSegmentsFor(length, segmentSize)];
+        try (final FileChannel channel = FileChannel.open(file, openOptionsFor(mode))) {
+            // Only a read write mapping should extend the file.
+            if (mode != MapMode.READ_WRITE && channel.size() < length) {
+                throw new IOException("File " + file + " contains only " + ByteCount.valueOf(channel.size()) + " but " + ByteCount.valueOf(length) + " should be mapped.");
+            }
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = channel.map(mode, (long) i * segmentSize, sizeOfSegment(i, length, segmentSize));
+            }
+        }
+        return new ByteBufferSegments(segments, length, segmentSize);
+    }
+
+    @Nonnull
+    private final ByteBuffer[] segments;
+    @Nonnegative
+    private final long length;
+    @Nonnegative
+    private final int segmentShift;
+    private final long segmentMask;
+
+    protected ByteBufferSegments(@Nonnull ByteBuffer[] segments, @Nonnegative long length, @Nonnegative int segmentSize) {
+        this.segments = segments;
+        this.length = length;
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        this.segmentMask = segmentSize - 1;
+    }
+
+    /**
+     * @return a new view of the segment with its own position, limit and byte order.
+     */
+    @Override
+    public ByteBuffer get(int index) {
+        return segments[index].duplicate();
+    }
+
+    /**
+     * @return the number of segments.
+     */
+    @Override
+    public int size() {
+        return segments.length;
+    }
+
+    @Nonnull
+    public ByteCount byteCount() {
+        return ByteCount.valueOf(length);
+    }
+
+    @Nonnegative
+    public long length() {
+        return length;
+    }
+
+    @Nonnull
+    public ByteCount segmentSize() {
+        return ByteCount.valueOf(1L << segmentShift);
+    }
+
+    public byte getByte(@Nonnegative long index) throws IndexOutOfBoundsException {
+        checkRange(index, 1);
+        return segments[segmentOf(index)].get(offsetOf(index));
+    }
+
+    public void putByte(@Nonnegative long index, byte value) throws IndexOutOfBoundsException {
+        checkRange(index, 1);
+        segments[segmentOf(index)].put(offsetOf(index), value);
+    }
+
+    public long getLong(@Nonnegative long index) throws IndexOutOfBoundsException {
+        checkRange(index, Long.BYTES);
+        final ByteBuffer segment = segments[segmentOf(index)];
+        final int offset = offsetOf(index);
+        if (offset + Long.BYTES <= segment.capacity()) {
+            return segment.getLong(offset);
+        }
+        long result = 0L;
+        for (int i = 0; i < Long.BYTES; i++) {
+            result = (result << 8) | (getByte(index + i) & 0xFFL);
+        }
+        return result;
+    }
+
+    public void putLong(@Nonnegative long index, long value) throws IndexOutOfBoundsException {
+        checkRange(index, Long.BYTES);
+        final ByteBuffer segment = segments[segmentOf(index)];
+        final int offset = offsetOf(index);
+        if (offset + Long.BYTES <= segment.capacity()) {
+            segment.putLong(offset, value);
+            return;
+        }
+        for (int i = 0; i < Long.BYTES; i++) {
+            putByte(index + i, (byte) (value >>> (8 * (Long.BYTES - 1 - i))));
+        }
+    }
+
+    /**
+     * Copies <code>length</code> bytes starting at <code>index</code> into <code>target</code>.
+     */
+    public void getBytes(@Nonnegative long index, @Nonnull byte[] target, @Nonnegative int offset, @Nonnegative int length) throws IndexOutOfBoundsException {
+        checkArrayRange(target, offset, length);
+        checkRange(index, length);
+        long position = index;
+        int done = 0;
+        while (done < length) {
+            final ByteBuffer segment = segments[segmentOf(position)].duplicate();
+            final int segmentOffset = offsetOf(position);
+            final int chunk = Math.min(length - done, segment.capacity() - segmentOffset);
+            ((Buffer) segment).position(segmentOffset);
+            segment.get(target, offset + done, chunk);
+            done += chunk;
+            position += chunk;
+        }
+    }
+
+    /**
+     * Copies <code>length</code> bytes of <code>source</code> to <code>index</code>.
+     */
+    public void putBytes(@Nonnegative long index, @Nonnull byte[] source, @Nonnegative int offset, @Nonnegative int length) throws IndexOutOfBoundsException {
+        checkArrayRange(source, offset, length);
+        checkRange(index, length);
+        long position = index;
+        int done = 0;
+        while (done < length) {
+            final ByteBuffer segment = segments[segmentOf(position)].duplicate();
+            final int segmentOffset = offsetOf(position);
+            final int chunk = Math.min(length - done, segment.capacity() - segmentOffset);
+            ((Buffer) segment).position(segmentOffset);
+            segment.put(source, offset + done, chunk);
+            done += chunk;
+            position += chunk;
+        }
+    }
+
+    /**
+     * Writes all changes of memory mapped segments to the storage device. Does nothing for allocated segments.
+     */
+    public void force() {
+        for (final ByteBuffer segment : segments) {
+            if (segment instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferSegments{byteCount=" + byteCount() + ", segmentSize=" + segmentSize() + ", segments=" + segments.length + '}';
+    }
+
+    @Nonnegative
+    int segmentOf(@Nonnegative long index) {
+        return (int) (index >>> segmentShift);
+    }
+
+    @Nonnegative
+    int offsetOf(@Nonnegative long index) {
+        return (int) (index & segmentMask);
+    }
+
+    void checkRange(long index, @Nonnegative int length) {
+        if (index < 0 || index > this.length - length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + ", byteCount: " + this.length);
+        }
+    }
+
+    static void checkArrayRange(@Nonnull byte[] array, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > array.length - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + array.length);
+        }
+    }
+
+    @Nonnegative
+    static int numberOfSegmentsFor(@Nonnegative long length, @Nonnegative int segmentSize) {
+        if (segmentSize <= 0 || Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("Given segmentSize value is not a power of two: " + segmentSize);
+        }
+        final long result = (length + segmentSize - 1) / segmentSize;
+        if (result > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Given segmentSize value " + ByteCount.valueOf(segmentSize) + " is too small for " + ByteCount.valueOf(length) + ".");
+        }
+        return (int) result;
+    }
+
+    @Nonnegative
+    static int sizeOfSegment(@Nonnegative int index, @Nonnegative long length, @Nonnegative int segmentSize) {
+        return (int) Math.min(segmentSize, length - (long) index * segmentSize);
+    }
+
+    @Nonnull
+    static OpenOption[] openOptionsFor(@Nonnull MapMode mode) {
+        if (mode == MapMode.READ_ONLY) {
+            return new OpenOption[]{READ};
+        }
+        if (mode == MapMode.READ_WRITE) {
+            return new OpenOption[]{READ, WRITE, CREATE};
+        }
+        // A private mapping requires a writable channel, but the file itself is never changed.
+        return new OpenOption[]{READ, WRITE};
+    }
+
+}
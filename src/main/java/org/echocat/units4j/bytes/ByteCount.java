@@ -4,18 +4,21 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static java.util.Locale.US;
-import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
-import static java.util.regex.Pattern.CASE_INSENSITIVE;
-import static java.util.regex.Pattern.compile;
 import static org.echocat.units4j.bytes.ByteCountFormat.byteCountFormat;
 import static org.echocat.units4j.bytes.ByteUnit.B;
 import static org.echocat.units4j.bytes.ByteUnit.ROUNDING_MODE;
@@ -25,10 +28,16 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     private static final long serialVersionUID = 1L;
 
-    public static final ByteCount ZERO = new ByteCount(BigInteger.ZERO);
+    /**
+     * Instances of this class are serialized as {@link Ser} since the compact encoding of {@link ByteCountCodec} was
+     * introduced. The former form which stored the plain {@link BigInteger} is still used for subclasses and could
+     * still be read.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("byteCount", BigInteger.class)
+    };
 
-    private static final String ZERO_STRING = "0";
-    private static final Pattern SPLIT_PATTERN = createSplitPattern();
+    public static final ByteCount ZERO = new ByteCount(0L);
 
     private static final ByteCountFormat DEFAULT_FORMAT = byteCountFormat()
         .withLocale(US)
@@ -36,12 +45,12 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nullable
     public static ByteCount valueOf(@Nullable String byteCount) {
-        return byteCount != null ? new ByteCount(byteCount) : null;
+        return byteCount != null ? ByteCountParser.parse(byteCount) : null;
     }
 
     @Nonnull
     public static ByteCount valueOf(@Nonnegative BigInteger byteCount) {
-        return new ByteCount(byteCount);
+        return fitsIntoLong(byteCount) ? valueOf(byteCount.longValue()) : new ByteCount(byteCount);
     }
 
     @Nonnull
@@ -59,24 +68,70 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
         return valueOf(byteCount.toBigInteger(), unit);
     }
 
+    /**
+     * Returns cached instances for small values and small multiples of every {@link ByteUnit} like
+     * <code>4KiB</code> or <code>100MB</code>.
+     */
     @Nonnull
     public static ByteCount valueOf(@Nonnegative long byteCount) {
-        return valueOf(BigInteger.valueOf(byteCount));
+        final ByteCount cached = Cache.lookup(byteCount);
+        return cached != null ? cached : new ByteCount(byteCount);
     }
 
     @Nonnull
     public static ByteCount valueOf(@Nonnegative long byteCount, @Nonnull ByteUnit unit) {
-        return valueOf(BigInteger.valueOf(byteCount), unit);
+        requireNonNull(unit);
+        try {
+            return valueOf(Math.multiplyExact(byteCount, unit.longBase()));
+        } catch (final ArithmeticException ignored) {
+            return valueOf(BigInteger.valueOf(byteCount), unit);
+        }
+    }
+
+    /**
+     * @return the size of the file or the sum of the sizes of all files below the directory.
+     * @see ByteCounts#measureTree(Path, TreeMeasureOptions)
+     */
+    @Nonnull
+    public static ByteCount sizeOf(@Nonnull Path path) throws IOException {
+        return ByteCounts.measureTree(path).total();
     }
 
-    private final BigInteger byteCount;
+    /**
+     * Holds the value as long as it fits into a <code>long</code>. Only valid if {@link #bigIntegerValue} is <code>null</code>.
+     */
+    private final transient long longValue;
+    /**
+     * Only present if the value does not fit into a <code>long</code>.
+     */
+    @Nullable
+    private final transient BigInteger bigIntegerValue;
+    /**
+     * Only set while an instance of the former serialized form is read, see {@link #readResolve()}.
+     */
+    @Nullable
+    private transient BigInteger deserializedByteCount;
+
+    public ByteCount(@Nonnegative long byteCount) {
+        this.longValue = byteCount;
+        this.bigIntegerValue = null;
+    }
 
     public ByteCount(@Nonnegative BigInteger byteCount) {
-        this.byteCount = byteCount;
+        requireNonNull(byteCount);
+        if (fitsIntoLong(byteCount)) {
+            this.longValue = byteCount.longValue();
+            this.bigIntegerValue = null;
+        } else {
+            this.longValue = 0L;
+            this.bigIntegerValue = byteCount;
+        }
     }
 
     public ByteCount(@Nonnull String formattedByteCount) throws IllegalArgumentException {
-        byteCount = parseByteCount(formattedByteCount);
+        final ByteCount parsed = ByteCountParser.parse(formattedByteCount);
+        this.longValue = parsed.longValue;
+        this.bigIntegerValue = parsed.bigIntegerValue;
     }
 
     /**
@@ -95,19 +150,109 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
         return ByteBuffer.allocate(toAllocatableByteCount());
     }
 
+    /**
+     * @throws IllegalArgumentException if this byteCount exceeds {@link Integer#MAX_VALUE}.
+     */
+    @Nonnull
+    public ByteBuffer allocateDirectBuffer() throws IllegalArgumentException {
+        return ByteBuffer.allocateDirect(toAllocatableByteCount());
+    }
+
+    /**
+     * @return an array of at least this byteCount which should be {@link ByteBufferPool#release(byte[]) released} to
+     * <code>pool</code> after usage.
+     * @throws IllegalArgumentException if this byteCount exceeds {@link Integer#MAX_VALUE}.
+     */
+    @Nonnull
+    public byte[] allocateBytes(@Nonnull ByteBufferPool pool) throws IllegalArgumentException {
+        return pool.acquireBytes(toAllocatableByteCount());
+    }
+
+    /**
+     * @return a buffer with a limit of this byteCount which should be {@link ByteBufferPool#release(ByteBuffer) released}
+     * to <code>pool</code> after usage.
+     * @throws IllegalArgumentException if this byteCount exceeds {@link Integer#MAX_VALUE}.
+     */
+    @Nonnull
+    public ByteBuffer allocateBuffer(@Nonnull ByteBufferPool pool) throws IllegalArgumentException {
+        return pool.acquire(toAllocatableByteCount());
+    }
+
     /**
      * @throws IllegalArgumentException if this byteCount exceeds {@link Integer#MAX_VALUE}.
      */
     @Nonnegative
     public int toAllocatableByteCount() throws IllegalArgumentException {
-        if (bigIntegerValue().compareTo(BigInteger.valueOf(Integer.MAX_VALUE)) > 0) {
+        if (!isLongValue() || longValue > Integer.MAX_VALUE) {
             throw new IllegalArgumentException("This byteCount exceeds " + valueOf(Integer.MAX_VALUE) + " and could not be allocated.");
         }
-        return bigIntegerValue().intValue();
+        return (int) longValue;
+    }
+
+    /**
+     * Allocates this byteCount as heap buffers of <code>segmentSize</code> each - except the last one which could be
+     * smaller.
+     *
+     * @param segmentSize a power of two which does not exceed <code>1GiB</code>.
+     * @throws IllegalArgumentException if this byteCount is negative or does not fit into a <code>long</code> or if
+     *                                  <code>segmentSize</code> is invalid.
+     */
+    @Nonnull
+    public ByteBufferSegments allocateSegmented(@Nonnull ByteCount segmentSize) throws IllegalArgumentException {
+        return allocateSegmented(segmentSize, ByteBufferPool.BufferType.heap);
+    }
+
+    /**
+     * Same as {@link #allocateSegmented(ByteCount)} but with buffers of the given <code>type</code>.
+     */
+    @Nonnull
+    public ByteBufferSegments allocateSegmented(@Nonnull ByteCount segmentSize, @Nonnull ByteBufferPool.BufferType type) throws IllegalArgumentException {
+        return ByteBufferSegments.allocate(toSegmentableByteCount(), toSegmentSize(segmentSize), type);
+    }
+
+    /**
+     * Maps this byteCount of <code>file</code> into memory, split into segments of <code>1GiB</code>.
+     *
+     * @param mode {@link MapMode#READ_WRITE} creates the file or extends it to this byteCount if required. For the
+     *             other modes the file has to be at least this byteCount.
+     * @throws IllegalArgumentException if this byteCount is negative or does not fit into a <code>long</code>.
+     */
+    @Nonnull
+    public ByteBufferSegments map(@Nonnull Path file, @Nonnull MapMode mode) throws IOException, IllegalArgumentException {
+        return ByteBufferSegments.map(file, mode, toSegmentableByteCount(), ByteBufferSegments.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Same as {@link #map(Path, MapMode)} but with segments of <code>segmentSize</code>.
+     *
+     * @param segmentSize a power of two which does not exceed <code>1GiB</code>.
+     */
+    @Nonnull
+    public ByteBufferSegments map(@Nonnull Path file, @Nonnull MapMode mode, @Nonnull ByteCount segmentSize) throws IOException, IllegalArgumentException {
+        return ByteBufferSegments.map(file, mode, toSegmentableByteCount(), toSegmentSize(segmentSize));
+    }
+
+    @Nonnegative
+    private long toSegmentableByteCount() throws IllegalArgumentException {
+        if (!isLongValue() || longValue < 0) {
+            throw new IllegalArgumentException("This byteCount is negative or exceeds " + valueOf(Long.MAX_VALUE) + " and could not be allocated.");
+        }
+        return longValue;
+    }
+
+    @Nonnegative
+    private static int toSegmentSize(@Nonnull ByteCount segmentSize) throws IllegalArgumentException {
+        if (!segmentSize.isLongValue() || segmentSize.longValue() > ByteBufferSegments.DEFAULT_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Given segmentSize value exceeds 1GiB: " + segmentSize);
+        }
+        return (int) segmentSize.longValue();
     }
 
     @Nonnull
     public BigInteger to(@Nonnull ByteUnit byteUnit) {
+        if (isLongValue()) {
+            return BigInteger.valueOf(longValue / byteUnit.longBase());
+        }
         return byteUnit.from(bigIntegerValue(), B);
     }
 
@@ -118,17 +263,12 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteUnit bestFittingUnitOf(@Nullable ByteUnit.Kind kind) {
-        ByteUnit result = B;
-        final List<ByteUnit> candidates = ByteUnit.valuesOf(kind);
-        final int size = candidates.size();
-        for (int i = size - 1; i >= 0; i--) {
-            final ByteUnit unit = candidates.get(i);
-            if (unit.from(bigIntegerValue(), B).compareTo(BigInteger.ZERO) > 0) {
-                result = unit;
-                break;
-            }
+        if (isLongValue()) {
+            return ByteUnit.bestFittingUnitOf(longValue, kind);
         }
-        return result;
+        final List<ByteUnit> candidates = ByteUnit.valuesOf(kind);
+        // Everything beyond long is bigger than the biggest unit.
+        return bigIntegerValue.signum() > 0 ? candidates.get(candidates.size() - 1) : B;
     }
 
     @Nonnull
@@ -142,7 +282,13 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount add(@Nullable BigInteger value) {
-        return value != null ? valueOf(bigIntegerValue().add(value)) : this;
+        if (value == null) {
+            return this;
+        }
+        if (fitsIntoLong(value)) {
+            return add(value.longValue());
+        }
+        return valueOf(bigIntegerValue().add(value));
     }
 
     @Nonnull
@@ -152,7 +298,14 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount add(long value) {
-        return add(BigInteger.valueOf(value));
+        if (isLongValue()) {
+            try {
+                return valueOf(Math.addExact(longValue, value));
+            } catch (final ArithmeticException ignored) {
+                // Continue with BigInteger...
+            }
+        }
+        return valueOf(bigIntegerValue().add(BigInteger.valueOf(value)));
     }
 
     @Nonnull
@@ -162,7 +315,13 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount add(@Nullable ByteCount value) {
-        return value != null ? add(value.bigIntegerValue()) : this;
+        if (value == null) {
+            return this;
+        }
+        if (value.isLongValue()) {
+            return add(value.longValue);
+        }
+        return add(value.bigIntegerValue());
     }
 
     @Nonnull
@@ -177,7 +336,13 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount subtract(@Nullable BigInteger value) {
-        return value != null ? valueOf(bigIntegerValue().subtract(value)) : this;
+        if (value == null) {
+            return this;
+        }
+        if (fitsIntoLong(value)) {
+            return subtract(value.longValue());
+        }
+        return valueOf(bigIntegerValue().subtract(value));
     }
 
     @Nonnull
@@ -187,7 +352,14 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount subtract(long value) {
-        return subtract(BigInteger.valueOf(value));
+        if (isLongValue()) {
+            try {
+                return valueOf(Math.subtractExact(longValue, value));
+            } catch (final ArithmeticException ignored) {
+                // Continue with BigInteger...
+            }
+        }
+        return valueOf(bigIntegerValue().subtract(BigInteger.valueOf(value)));
     }
 
     @Nonnull
@@ -197,7 +369,13 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount subtract(@Nullable ByteCount value) {
-        return value != null ? subtract(value.bigIntegerValue()) : this;
+        if (value == null) {
+            return this;
+        }
+        if (value.isLongValue()) {
+            return subtract(value.longValue);
+        }
+        return subtract(value.bigIntegerValue());
     }
 
     @Nonnull
@@ -212,6 +390,9 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount multiply(@Nonnull BigInteger what) {
+        if (fitsIntoLong(what)) {
+            return multiply(what.longValue());
+        }
         return valueOf(bigIntegerValue().multiply(what));
     }
 
@@ -222,6 +403,13 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount multiply(long what) {
+        if (isLongValue()) {
+            try {
+                return valueOf(Math.multiplyExact(longValue, what));
+            } catch (final ArithmeticException ignored) {
+                // Continue with BigInteger...
+            }
+        }
         return valueOf(bigIntegerValue().multiply(BigInteger.valueOf(what)));
     }
 
@@ -233,6 +421,9 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount divide(@Nonnull BigInteger what) {
+        if (isLongValue() && fitsIntoLong(what)) {
+            return divide(what.longValue());
+        }
         return valueOf(bigIntegerValue().divide(what));
     }
 
@@ -243,6 +434,9 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Nonnull
     public ByteCount divide(long what) {
+        if (isLongValue() && !(longValue == Long.MIN_VALUE && what == -1L)) {
+            return valueOf(longValue / what);
+        }
         return valueOf(bigIntegerValue().divide(BigInteger.valueOf(what)));
     }
 
@@ -258,12 +452,25 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
 
     @Override
     public int compareTo(@Nonnull ByteCount other) {
+        if (isLongValue() && other.isLongValue()) {
+            return Long.compare(longValue, other.longValue);
+        }
         return bigIntegerValue().compareTo(other.bigIntegerValue());
     }
 
+    /**
+     * Results in the same value as <code>Objects.hash(bigIntegerValue())</code> but without creating a {@link BigInteger}.
+     */
     @Override
     public int hashCode() {
-        return hash(bigIntegerValue());
+        if (!isLongValue()) {
+            return 31 + bigIntegerValue.hashCode();
+        }
+        final long magnitude = longValue < 0 ? -longValue : longValue;
+        final int high = (int) (magnitude >>> 32);
+        final int low = (int) magnitude;
+        final int hashOfMagnitude = high != 0 ? 31 * high + low : low;
+        return 31 + (longValue < 0 ? -hashOfMagnitude : hashOfMagnitude);
     }
 
     @Override
@@ -275,6 +482,9 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
             return false;
         }
         final ByteCount other = (ByteCount) o;
+        if (isLongValue() && other.isLongValue()) {
+            return longValue == other.longValue;
+        }
         return bigIntegerValue().equals(other.bigIntegerValue());
     }
 
@@ -283,90 +493,164 @@ public class ByteCount extends Number implements Comparable<ByteCount> {
         return DEFAULT_FORMAT.format(this);
     }
 
-    @Nonnull
-    private static Pattern createSplitPattern() {
-        final StringBuilder sb = new StringBuilder();
-        sb.append("\\s*(?:");
-        boolean first = true;
-        for (final ByteUnit byteUnit : ByteUnit.values()) {
-            if (first) {
-                first = false;
-            } else {
-                sb.append("|");
-            }
-            sb.append("(\\d+)\\s*(?:").append(byteUnit.fullName()).append('|').append(byteUnit.name()).append(')');
-        }
-        sb.append(")\\s*");
-        return compile(sb.toString(), CASE_INSENSITIVE);
-    }
-
     @Nonnull
     public BigInteger bigIntegerValue() {
-        return byteCount;
+        final BigInteger result = bigIntegerValue;
+        return result != null ? result : BigInteger.valueOf(longValue);
     }
 
     @Nonnull
     public BigDecimal bigDecimalValue() {
-        return new BigDecimal(bigIntegerValue());
+        final BigInteger result = bigIntegerValue;
+        return result != null ? new BigDecimal(result) : BigDecimal.valueOf(longValue);
+    }
+
+    /**
+     * @return <code>true</code> if this byteCount fits into a <code>long</code> and {@link #longValue()} is exact.
+     */
+    public boolean isLongValue() {
+        return bigIntegerValue == null;
     }
 
     @Override
     public int intValue() {
-        return bigIntegerValue().intValue();
+        return isLongValue() ? (int) longValue : bigIntegerValue.intValue();
     }
 
     @Override
     public long longValue() {
-        return bigIntegerValue().longValue();
+        return isLongValue() ? longValue : bigIntegerValue.longValue();
     }
 
     @Override
     public float floatValue() {
-        return bigIntegerValue().floatValue();
+        return isLongValue() ? (float) longValue : bigIntegerValue.floatValue();
     }
 
     @Override
     public double doubleValue() {
-        return bigIntegerValue().doubleValue();
+        return isLongValue() ? (double) longValue : bigIntegerValue.doubleValue();
+    }
+
+    protected static boolean fitsIntoLong(@Nonnull BigInteger value) {
+        return value.bitLength() < Long.SIZE;
+    }
+
+    @Nonnull
+    private Object writeReplace() {
+        return new Ser(this);
+    }
+
+    private void writeObject(@Nonnull ObjectOutputStream out) throws IOException {
+        final ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("byteCount", bigIntegerValue());
+        out.writeFields();
+    }
+
+    private void readObject(@Nonnull ObjectInputStream in) throws IOException, ClassNotFoundException {
+        final ObjectInputStream.GetField fields = in.readFields();
+        final BigInteger byteCount = (BigInteger) fields.get("byteCount", null);
+        if (byteCount == null) {
+            throw new InvalidObjectException("Missing byteCount.");
+        }
+        if (getClass() == ByteCount.class) {
+            deserializedByteCount = byteCount;
+        } else {
+            // Subclasses are not replaced by readResolve(), so their final fields are set like default serialization does.
+            setFinal("longValue", fitsIntoLong(byteCount) ? byteCount.longValue() : 0L);
+            setFinal("bigIntegerValue", fitsIntoLong(byteCount) ? null : byteCount);
+        }
+    }
+
+    @Nonnull
+    private Object readResolve() {
+        return deserializedByteCount != null ? valueOf(deserializedByteCount) : this;
+    }
+
+    private void setFinal(@Nonnull String fieldName, @Nullable Object value) throws InvalidObjectException {
+        try {
+            final Field field = ByteCount.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(this, value);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            final InvalidObjectException exception = new InvalidObjectException("Could not set " + fieldName + ".");
+            exception.initCause(e);
+            throw exception;
+        }
     }
 
     @Nonnegative
     protected static BigInteger parseByteCount(@Nonnull String plain) throws IllegalArgumentException {
-        requireNonNull(plain);
-        BigInteger result = BigInteger.ZERO;
-        if (!plain.trim().equals(ZERO_STRING)) {
-            final Matcher matcher = SPLIT_PATTERN.matcher(plain);
-            int lastEnd = 0;
-            while (matcher.find()) {
-                if (matcher.start() != lastEnd) {
-                    throw new IllegalArgumentException("Could not parse: " + plain);
-                }
-                lastEnd = matcher.end();
-                result = result.add(parsePartValueOf(matcher));
+        return ByteCountParser.parse(plain).bigIntegerValue();
+    }
+
+    /**
+     * Holds the canonical instances returned by {@link #valueOf(long)}. Initialized on first use like
+     * {@link Integer#valueOf(int)} does.
+     */
+    private static final class Cache {
+
+        private static final int SMALL_VALUES = 1024;
+        private static final int MULTIPLES = 128;
+        private static final int METRIC_BASE = 1000;
+        private static final int BINARY_SHIFT = 10;
+
+        private static final ByteCount[] SMALL = small();
+        private static final ByteCount[][] BINARY_MULTIPLES = multiplesOf(ByteUnit.binaryValues());
+        private static final ByteCount[][] METRIC_MULTIPLES = multiplesOf(ByteUnit.metricValues());
+
+        @Nullable
+        private static ByteCount lookup(long value) {
+            if (value >= 0 && value < SMALL_VALUES) {
+                return SMALL[(int) value];
+            }
+            if (value <= 0) {
+                return null;
+            }
+            final int binaryExponent = Math.min(Long.numberOfTrailingZeros(value) / BINARY_SHIFT, BINARY_MULTIPLES.length - 1);
+            final long binaryMultiple = value >>> (binaryExponent * BINARY_SHIFT);
+            if (binaryMultiple <= MULTIPLES) {
+                return BINARY_MULTIPLES[binaryExponent][(int) binaryMultiple - 1];
             }
-            if (lastEnd != plain.length()) {
-                throw new IllegalArgumentException("Could not parse: " + plain);
+            long metricMultiple = value;
+            int metricExponent = 0;
+            while (metricMultiple % METRIC_BASE == 0 && metricExponent < METRIC_MULTIPLES.length - 1) {
+                metricMultiple /= METRIC_BASE;
+                metricExponent++;
             }
+            if (metricExponent > 0 && metricMultiple <= MULTIPLES) {
+                return METRIC_MULTIPLES[metricExponent][(int) metricMultiple - 1];
+            }
+            return null;
         }
 
-        return result;
-    }
-
-    @Nonnegative
-    protected static BigInteger parsePartValueOf(@Nonnull Matcher matcher) {
-        requireNonNull(matcher);
-        BigInteger partValue = null;
-        final ByteUnit[] values = ByteUnit.values();
-        for (int i = 0; i < values.length; i++) {
-            final String group = matcher.group(i + 1);
-            if (group != null && !group.isEmpty()) {
-                partValue = values[i].to(new BigInteger(group), B);
+        @Nonnull
+        private static ByteCount[] small() {
+            final ByteCount[] result = new ByteCount[SMALL_VALUES];
+            result[0] = ZERO;
+            for (int i = 1; i < result.length; i++) {
+                result[i] = new ByteCount(i);
             }
+            return result;
         }
-        if (partValue == null || partValue.compareTo(BigInteger.ZERO) < 0) {
-            throw new IllegalArgumentException("Could not parse part: " + matcher.group());
+
+        /**
+         * Indexed by {@link ByteUnit#exponent()} and multiple minus one. Multiples which do not fit into a
+         * <code>long</code> are left empty; they could never be looked up.
+         */
+        @Nonnull
+        private static ByteCount[][] multiplesOf(@Nonnull List<ByteUnit> units) {
+            final ByteCount[][] result = new ByteCount[units.size()][MULTIPLES];
+            for (final ByteUnit unit : units) {
+                final long base = unit.longBase();
+                for (int multiple = 1; multiple <= MULTIPLES && base <= Long.MAX_VALUE / multiple; multiple++) {
+                    final long value = base * multiple;
+                    result[unit.exponent()][multiple - 1] = value < SMALL_VALUES ? SMALL[(int) value] : new ByteCount(value);
+                }
+            }
+            return result;
         }
-        return partValue;
+
     }
 
 }
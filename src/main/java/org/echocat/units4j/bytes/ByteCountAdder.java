@@ -0,0 +1,195 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.math.BigInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sums up byte counts which are reported concurrently by many threads. Like {@link java.util.concurrent.atomic.LongAdder}
+ * it starts with one base value and spreads the updates over several striped cells as soon as threads are contending.
+ * Every update is a plain CAS on a <code>long</code>; only if a cell would overflow its value is spilled into a
+ * {@link BigInteger} base, so the {@link #sum()} is always exact.
+ *
+ * <p>{@link #sum()} and {@link #sumThenReset()} are no atomic snapshots: updates that happen concurrently may or may
+ * not be included.</p>
+ */
+@ThreadSafe
+public class ByteCountAdder {
+
+    private static final int MAXIMUM_CELLS = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+    private static final AtomicLongFieldUpdater<Cell> CELL_VALUE = AtomicLongFieldUpdater.newUpdater(Cell.class, "value");
+
+    private final Cell base = new Cell();
+    private final AtomicReference<Cell[]> cells = new AtomicReference<>();
+    private final AtomicReference<BigInteger> bigIntegerBase = new AtomicReference<>(BigInteger.ZERO);
+
+    public void add(long bytes) {
+        final Cell[] currentCells = cells.get();
+        if (currentCells == null) {
+            final long current = base.value;
+            if (tryAdd(base, current, bytes)) {
+                return;
+            }
+            growCells(null);
+        }
+        addToCells(bytes);
+    }
+
+    public void add(long value, @Nonnull ByteUnit unit) {
+        requireNonNull(unit);
+        try {
+            add(Math.multiplyExact(value, unit.longBase()));
+        } catch (final ArithmeticException ignored) {
+            spill(BigInteger.valueOf(value).multiply(unit.bigIntegerBase()));
+        }
+    }
+
+    public void add(@Nullable ByteCount value) {
+        if (value == null) {
+            return;
+        }
+        if (value.isLongValue()) {
+            add(value.longValue());
+        } else {
+            spill(value.bigIntegerValue());
+        }
+    }
+
+    @Nonnull
+    public ByteCount sum() {
+        long sum = base.value;
+        BigInteger bigIntegerSum = bigIntegerBase.get();
+        final Cell[] currentCells = cells.get();
+        if (currentCells != null) {
+            for (final Cell cell : currentCells) {
+                final long value = cell.value;
+                final long next = sum + value;
+                if (overflows(sum, value, next)) {
+                    bigIntegerSum = bigIntegerSum.add(BigInteger.valueOf(sum));
+                    sum = value;
+                } else {
+                    sum = next;
+                }
+            }
+        }
+        return bigIntegerSum.signum() == 0 ? ByteCount.valueOf(sum) : ByteCount.valueOf(bigIntegerSum.add(BigInteger.valueOf(sum)));
+    }
+
+    @Nonnull
+    public ByteCount sumThenReset() {
+        long sum = CELL_VALUE.getAndSet(base, 0L);
+        BigInteger bigIntegerSum = bigIntegerBase.getAndSet(BigInteger.ZERO);
+        final Cell[] currentCells = cells.get();
+        if (currentCells != null) {
+            for (final Cell cell : currentCells) {
+                final long value = CELL_VALUE.getAndSet(cell, 0L);
+                final long next = sum + value;
+                if (overflows(sum, value, next)) {
+                    bigIntegerSum = bigIntegerSum.add(BigInteger.valueOf(sum));
+                    sum = value;
+                } else {
+                    sum = next;
+                }
+            }
+        }
+        return bigIntegerSum.signum() == 0 ? ByteCount.valueOf(sum) : ByteCount.valueOf(bigIntegerSum.add(BigInteger.valueOf(sum)));
+    }
+
+    public void reset() {
+        sumThenReset();
+    }
+
+    @Override
+    public String toString() {
+        return sum().toString();
+    }
+
+    void addToCells(long bytes) {
+        Cell[] currentCells = cells.get();
+        int index = indexFor(Thread.currentThread().getId(), currentCells.length);
+        int failures = 0;
+        while (true) {
+            final Cell cell = currentCells[index];
+            final long current = cell.value;
+            if (tryAdd(cell, current, bytes)) {
+                return;
+            }
+            if (++failures > 1 && currentCells.length < MAXIMUM_CELLS) {
+                growCells(currentCells);
+                currentCells = cells.get();
+                failures = 0;
+            }
+            index = ThreadLocalRandom.current().nextInt(currentCells.length);
+        }
+    }
+
+    /**
+     * @return <code>false</code> if the CAS failed because of contention.
+     */
+    boolean tryAdd(@Nonnull Cell cell, long current, long bytes) {
+        final long next = current + bytes;
+        if (!overflows(current, bytes, next)) {
+            return CELL_VALUE.compareAndSet(cell, current, next);
+        }
+        if (!CELL_VALUE.compareAndSet(cell, current, 0L)) {
+            return false;
+        }
+        spill(BigInteger.valueOf(current).add(BigInteger.valueOf(bytes)));
+        return true;
+    }
+
+    void spill(@Nonnull BigInteger value) {
+        BigInteger current;
+        do {
+            current = bigIntegerBase.get();
+        } while (!bigIntegerBase.compareAndSet(current, current.add(value)));
+    }
+
+    /**
+     * Existing cells are always taken over into the new array, so no update could get lost.
+     */
+    void growCells(@Nullable Cell[] expected) {
+        final int newLength = expected == null ? 2 : Math.min(expected.length << 1, MAXIMUM_CELLS);
+        final Cell[] newCells = new Cell[newLength];
+        final int existing = expected != null ? expected.length : 0;
+        if (expected != null) {
+            System.arraycopy(expected, 0, newCells, 0, existing);
+        }
+        for (int i = existing; i < newLength; i++) {
+            newCells[i] = new Cell();
+        }
+        cells.compareAndSet(expected, newCells);
+    }
+
+    static int indexFor(long threadId, int length) {
+        long hash = threadId * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) hash & (length - 1);
+    }
+
+    static boolean overflows(long left, long right, long result) {
+        return ((left ^ result) & (right ^ result)) < 0;
+    }
+
+    static int ceilingPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Padded to reduce false sharing between cells which are located next to each other.
+     */
+    @SuppressWarnings("unused")
+    static final class Cell {
+        long p0, p1, p2, p3, p4, p5, p6;
+        volatile long value;
+        long q0, q1, q2, q3, q4, q5, q6;
+    }
+
+}
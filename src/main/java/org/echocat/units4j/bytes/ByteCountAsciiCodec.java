@@ -0,0 +1,368 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.Locale.US;
+import static java.util.Objects.requireNonNull;
+import static org.echocat.units4j.bytes.ByteCountFormat.byteCountFormat;
+
+/**
+ * Decodes byte counts directly from <code>byte[]</code> and {@link ByteBuffer} ranges using the grammar of
+ * {@link ByteCountParser} and encodes them using a {@link ByteCountFormat} - without any {@link String} or
+ * <code>char[]</code> in between.
+ *
+ * <p>The parser grammar only consists of ASCII characters, so UTF-8 input could be decoded as is. The output is
+ * encoded as UTF-8 because some locales use non ASCII digits or separators.</p>
+ */
+@Immutable
+public class ByteCountAsciiCodec {
+
+    private static final ByteCountAsciiCodec DEFAULT = new ByteCountAsciiCodec(byteCountFormat().withLocale(US).build());
+
+    /**
+     * @return a codec which encodes like {@link ByteCount#toString()}.
+     */
+    @Nonnull
+    public static ByteCountAsciiCodec byteCountAsciiCodec() {
+        return DEFAULT;
+    }
+
+    @Nonnull
+    public static ByteCountAsciiCodec byteCountAsciiCodec(@Nonnull ByteCountFormat format) {
+        return new ByteCountAsciiCodec(format);
+    }
+
+    @Nonnull
+    private final ByteCountFormat format;
+
+    protected ByteCountAsciiCodec(@Nonnull ByteCountFormat format) {
+        this.format = requireNonNull(format);
+    }
+
+    @Nonnull
+    public ByteCount decode(@Nonnull byte[] source) throws IllegalArgumentException {
+        return decode(source, 0, source.length);
+    }
+
+    /**
+     * @throws IllegalArgumentException  if the range could not be parsed.
+     * @throws IndexOutOfBoundsException if the range is not within <code>source</code>.
+     */
+    @Nonnull
+    public ByteCount decode(@Nonnull byte[] source, @Nonnegative int offset, @Nonnegative int length) throws IllegalArgumentException {
+        return ByteCountParser.parse(new ArraySequence(source, 0, source.length), offset, length);
+    }
+
+    /**
+     * Decodes all {@link ByteBuffer#remaining() remaining} bytes of <code>source</code> and moves its position to
+     * its limit.
+     *
+     * @throws IllegalArgumentException if the remaining bytes could not be parsed. The position is not changed.
+     */
+    @Nonnull
+    public ByteCount decode(@Nonnull ByteBuffer source) throws IllegalArgumentException {
+        final ByteCount result = ByteCountParser.parse(sequenceOf(source), 0, source.remaining());
+        // Called on Buffer because ByteBuffer overrides position(int) only since Java 9.
+        ((Buffer) source).position(source.limit());
+        return result;
+    }
+
+    /**
+     * Decodes the byte count at the start of the {@link ByteBuffer#remaining() remaining} bytes of
+     * <code>source</code> and moves its position directly behind it. Everything behind is left untouched, like the
+     * next field of a protocol message.
+     *
+     * @throws IllegalArgumentException if there is no byte count at the current position. The position is not changed.
+     */
+    @Nonnull
+    public ByteCount decodeLeading(@Nonnull ByteBuffer source) throws IllegalArgumentException {
+        final ByteCountParser.Result result = ByteCountParser.scan(sequenceOf(source), 0, source.remaining());
+        ((Buffer) source).position(source.position() + result.end());
+        return result.value();
+    }
+
+    /**
+     * @return a new array with the encoded <code>value</code>.
+     */
+    @Nonnull
+    public byte[] encode(@Nonnull ByteCount value) {
+        final ArrayOutput output = new ArrayOutput(new byte[32], 0, true);
+        encodeTo(value, output);
+        final byte[] result = new byte[output.position];
+        System.arraycopy(output.target, 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * @return the number of written bytes.
+     * @throws IndexOutOfBoundsException if <code>target</code> has not enough space left.
+     */
+    @Nonnegative
+    public int encode(@Nonnull ByteCount value, @Nonnull byte[] target, @Nonnegative int offset) throws IndexOutOfBoundsException {
+        final ArrayOutput output = new ArrayOutput(target, offset, false);
+        encodeTo(value, output);
+        return output.position - offset;
+    }
+
+    /**
+     * @return the number of written bytes.
+     * @throws IndexOutOfBoundsException if <code>target</code> has not enough space left.
+     */
+    @Nonnegative
+    public int encode(long value, @Nonnull byte[] target, @Nonnegative int offset) throws IndexOutOfBoundsException {
+        final ArrayOutput output = new ArrayOutput(target, offset, false);
+        encodeTo(value, output);
+        return output.position - offset;
+    }
+
+    /**
+     * Writes at the current position of <code>target</code> and moves it behind the written bytes.
+     *
+     * @throws BufferOverflowException if <code>target</code> has not enough space left. The position is not changed.
+     */
+    public void encode(@Nonnull ByteCount value, @Nonnull ByteBuffer target) throws BufferOverflowException {
+        final BufferOutput output = new BufferOutput(target);
+        encodeTo(value, output);
+        ((Buffer) target).position(output.position);
+    }
+
+    /**
+     * Writes at the current position of <code>target</code> and moves it behind the written bytes.
+     *
+     * @throws BufferOverflowException if <code>target</code> has not enough space left. The position is not changed.
+     */
+    public void encode(long value, @Nonnull ByteBuffer target) throws BufferOverflowException {
+        final BufferOutput output = new BufferOutput(target);
+        encodeTo(value, output);
+        ((Buffer) target).position(output.position);
+    }
+
+    @Nonnull
+    public ByteCountFormat format() {
+        return format;
+    }
+
+    void encodeTo(@Nonnull ByteCount value, @Nonnull Utf8Output output) {
+        try {
+            if (value.isLongValue()) {
+                format.appendTo(output, value.longValue());
+            } else {
+                format.appendTo(output, value.bigIntegerValue());
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException("Outputs of this codec should never throw an IOException.", e);
+        }
+    }
+
+    void encodeTo(long value, @Nonnull Utf8Output output) {
+        try {
+            format.appendTo(output, value);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Outputs of this codec should never throw an IOException.", e);
+        }
+    }
+
+    @Nonnull
+    static CharSequence sequenceOf(@Nonnull ByteBuffer source) {
+        if (source.hasArray()) {
+            return new ArraySequence(source.array(), source.arrayOffset() + source.position(), source.remaining());
+        }
+        return new BufferSequence(source, source.position(), source.remaining());
+    }
+
+    /**
+     * Every byte is one character like ISO-8859-1 defines it.
+     */
+    abstract static class ByteSequence implements CharSequence {
+
+        @Nonnegative
+        final int offset;
+        @Nonnegative
+        final int length;
+
+        ByteSequence(@Nonnegative int offset, @Nonnegative int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        abstract byte byteAt(@Nonnegative int index);
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+            }
+            return (char) (byteAt(offset + index) & 0xFF);
+        }
+
+        @Override
+        public String toString() {
+            final byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = byteAt(offset + i);
+            }
+            return new String(bytes, ISO_8859_1);
+        }
+
+    }
+
+    static final class ArraySequence extends ByteSequence {
+
+        @Nonnull
+        private final byte[] source;
+
+        ArraySequence(@Nonnull byte[] source, @Nonnegative int offset, @Nonnegative int length) {
+            super(offset, length);
+            this.source = source;
+        }
+
+        @Override
+        byte byteAt(@Nonnegative int index) {
+            return source[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            ByteCountParser.checkRange(this, start, end - start);
+            return new ArraySequence(source, offset + start, end - start);
+        }
+
+    }
+
+    static final class BufferSequence extends ByteSequence {
+
+        @Nonnull
+        private final ByteBuffer source;
+
+        BufferSequence(@Nonnull ByteBuffer source, @Nonnegative int offset, @Nonnegative int length) {
+            super(offset, length);
+            this.source = source;
+        }
+
+        @Override
+        byte byteAt(@Nonnegative int index) {
+            return source.get(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            ByteCountParser.checkRange(this, start, end - start);
+            return new BufferSequence(source, offset + start, end - start);
+        }
+
+    }
+
+    /**
+     * Encodes all appended characters as UTF-8.
+     */
+    abstract static class Utf8Output implements Appendable {
+
+        @Nonnegative
+        int position;
+        private char pendingHighSurrogate;
+
+        Utf8Output(@Nonnegative int position) {
+            this.position = position;
+        }
+
+        abstract void write(int b);
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (c < 0x80) {
+                write(c);
+            } else if (c < 0x800) {
+                write(0xC0 | (c >> 6));
+                write(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                pendingHighSurrogate = c;
+            } else if (Character.isLowSurrogate(c) && pendingHighSurrogate != 0) {
+                final int codePoint = Character.toCodePoint(pendingHighSurrogate, c);
+                pendingHighSurrogate = 0;
+                write(0xF0 | (codePoint >> 18));
+                write(0x80 | ((codePoint >> 12) & 0x3F));
+                write(0x80 | ((codePoint >> 6) & 0x3F));
+                write(0x80 | (codePoint & 0x3F));
+            } else {
+                write(0xE0 | (c >> 12));
+                write(0x80 | ((c >> 6) & 0x3F));
+                write(0x80 | (c & 0x3F));
+            }
+            return this;
+        }
+
+    }
+
+    static final class ArrayOutput extends Utf8Output {
+
+        @Nonnull
+        private byte[] target;
+        private final boolean growing;
+
+        ArrayOutput(@Nonnull byte[] target, @Nonnegative int offset, boolean growing) {
+            super(offset);
+            this.target = target;
+            this.growing = growing;
+        }
+
+        @Override
+        void write(int b) {
+            if (growing && position == target.length) {
+                final byte[] newTarget = new byte[target.length << 1];
+                System.arraycopy(target, 0, newTarget, 0, position);
+                target = newTarget;
+            }
+            target[position++] = (byte) b;
+        }
+
+    }
+
+    /**
+     * Uses absolute writes, so the position of the buffer stays untouched until everything was written.
+     */
+    static final class BufferOutput extends Utf8Output {
+
+        @Nonnull
+        private final ByteBuffer target;
+
+        BufferOutput(@Nonnull ByteBuffer target) {
+            super(target.position());
+            this.target = target;
+        }
+
+        @Override
+        void write(int b) {
+            if (position >= target.limit()) {
+                throw new BufferOverflowException();
+            }
+            target.put(position++, (byte) b);
+        }
+
+    }
+
+}
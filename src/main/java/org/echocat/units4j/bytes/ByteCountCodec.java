@@ -0,0 +1,381 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compact binary form of {@link ByteCount}s which is also used for their Java serialization.
+ *
+ * <p>A value which fits into a <code>long</code> is written as zig-zag encoded varint: one byte for values between
+ * <code>-64</code> and <code>63</code>, two bytes up to <code>8KiB</code>, ... and at most ten bytes. Bigger values
+ * are escaped with <code>0x80 0x00</code> - which is never written for a <code>long</code> because it would be a
+ * non minimal encoding of <code>0</code> - followed by the varint length and the two's complement bytes of the
+ * {@link BigInteger}.</p>
+ *
+ * <p>Input is not trusted: lengths it claims are only allocated while the according bytes are actually read, so a
+ * few corrupt bytes could not cause huge allocations.</p>
+ */
+public class ByteCountCodec {
+
+    private static final int MAXIMUM_VARINT_LENGTH = 10;
+    private static final int CONTINUATION_BIT = 0x80;
+    private static final int PAYLOAD_BITS = 0x7F;
+    /**
+     * 1MiB of two's complement bytes - far more than any reasonable byte count.
+     */
+    static final int MAXIMUM_BIG_INTEGER_LENGTH = 1 << 20;
+    static final int INITIAL_READ_CAPACITY = 1024;
+
+    @Nonnegative
+    public static int encodedLengthOf(@Nonnull ByteCount value) {
+        if (value.isLongValue()) {
+            return varLongLengthOf(zigZag(value.longValue()));
+        }
+        final int length = (value.bigIntegerValue().bitLength() >> 3) + 1;
+        return 2 + varLongLengthOf(length) + length;
+    }
+
+    public static void write(@Nonnull ByteCount value, @Nonnull DataOutput out) throws IOException {
+        if (value.isLongValue()) {
+            writeVarLong(zigZag(value.longValue()), out);
+        } else {
+            final byte[] bytes = value.bigIntegerValue().toByteArray();
+            out.write(CONTINUATION_BIT);
+            out.write(0);
+            writeVarLong(bytes.length, out);
+            out.write(bytes);
+        }
+    }
+
+    public static void write(long value, @Nonnull DataOutput out) throws IOException {
+        writeVarLong(zigZag(value), out);
+    }
+
+    /**
+     * @throws StreamCorruptedException if the input does not contain a valid encoded byte count.
+     */
+    @Nonnull
+    public static ByteCount read(@Nonnull DataInput in) throws IOException {
+        final int first = in.readUnsignedByte();
+        if (first == CONTINUATION_BIT) {
+            final int second = in.readUnsignedByte();
+            if (second == 0) {
+                final long length = readVarLong(in);
+                if (length <= 0 || length > MAXIMUM_BIG_INTEGER_LENGTH) {
+                    throw new StreamCorruptedException("Illegal length of encoded byte count: " + length);
+                }
+                return ByteCount.valueOf(new BigInteger(readBytes(in, (int) length)));
+            }
+            return ByteCount.valueOf(unZigZag(readVarLong(first, second, in)));
+        }
+        return ByteCount.valueOf(unZigZag(readVarLong(first, in)));
+    }
+
+    /**
+     * @throws StreamCorruptedException if the input does not contain a valid encoded byte count or if it does not
+     *                                  fit into a <code>long</code>.
+     */
+    public static long readLong(@Nonnull DataInput in) throws IOException {
+        final int first = in.readUnsignedByte();
+        if (first == CONTINUATION_BIT) {
+            final int second = in.readUnsignedByte();
+            if (second == 0) {
+                throw new StreamCorruptedException("Encoded byte count does not fit into a long.");
+            }
+            return unZigZag(readVarLong(first, second, in));
+        }
+        return unZigZag(readVarLong(first, in));
+    }
+
+    /**
+     * Writes the number of values followed by all values.
+     */
+    public static void write(@Nonnull long[] values, @Nonnull DataOutput out) throws IOException {
+        writeVarLong(values.length, out);
+        for (final long value : values) {
+            writeVarLong(zigZag(value), out);
+        }
+    }
+
+    /**
+     * Writes the number of values followed by all values.
+     */
+    public static void write(@Nonnull ByteCount[] values, @Nonnull DataOutput out) throws IOException {
+        writeVarLong(values.length, out);
+        for (final ByteCount value : values) {
+            write(requireNonNull(value, "values contains null."), out);
+        }
+    }
+
+    @Nonnull
+    public static long[] readLongArray(@Nonnull DataInput in) throws IOException {
+        final int length = readArrayLength(in);
+        long[] result = new long[Math.min(length, INITIAL_READ_CAPACITY)];
+        for (int i = 0; i < length; i++) {
+            if (i == result.length) {
+                result = Arrays.copyOf(result, grownCapacityOf(i, length));
+            }
+            result[i] = readLong(in);
+        }
+        return result;
+    }
+
+    @Nonnull
+    public static ByteCount[] readArray(@Nonnull DataInput in) throws IOException {
+        final int length = readArrayLength(in);
+        ByteCount[] result = new ByteCount[Math.min(length, INITIAL_READ_CAPACITY)];
+        for (int i = 0; i < length; i++) {
+            if (i == result.length) {
+                result = Arrays.copyOf(result, grownCapacityOf(i, length));
+            }
+            result[i] = read(in);
+        }
+        return result;
+    }
+
+    /**
+     * Writes at the current position of <code>target</code> and moves it behind the written bytes.
+     *
+     * @throws java.nio.BufferOverflowException if <code>target</code> has not enough space left.
+     */
+    public static void write(@Nonnull ByteCount value, @Nonnull ByteBuffer target) {
+        if (value.isLongValue()) {
+            putVarLong(zigZag(value.longValue()), target);
+        } else {
+            final byte[] bytes = value.bigIntegerValue().toByteArray();
+            target.put((byte) CONTINUATION_BIT).put((byte) 0);
+            putVarLong(bytes.length, target);
+            target.put(bytes);
+        }
+    }
+
+    /**
+     * Writes at the current position of <code>target</code> and moves it behind the written bytes.
+     *
+     * @throws java.nio.BufferOverflowException if <code>target</code> has not enough space left.
+     */
+    public static void write(long value, @Nonnull ByteBuffer target) {
+        putVarLong(zigZag(value), target);
+    }
+
+    /**
+     * Writes the number of values followed by all values.
+     *
+     * @throws java.nio.BufferOverflowException if <code>target</code> has not enough space left.
+     */
+    public static void write(@Nonnull long[] values, @Nonnull ByteBuffer target) {
+        putVarLong(values.length, target);
+        for (final long value : values) {
+            putVarLong(zigZag(value), target);
+        }
+    }
+
+    /**
+     * Writes the number of values followed by all values.
+     *
+     * @throws java.nio.BufferOverflowException if <code>target</code> has not enough space left.
+     */
+    public static void write(@Nonnull ByteCount[] values, @Nonnull ByteBuffer target) {
+        putVarLong(values.length, target);
+        for (final ByteCount value : values) {
+            write(requireNonNull(value, "values contains null."), target);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException          if the buffer does not contain a valid encoded byte count.
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the encoded byte count.
+     */
+    @Nonnull
+    public static ByteCount read(@Nonnull ByteBuffer source) throws IllegalArgumentException {
+        final int first = source.get() & 0xFF;
+        if (first == CONTINUATION_BIT) {
+            final int second = source.get() & 0xFF;
+            if (second == 0) {
+                final long length = getVarLong(source);
+                if (length <= 0 || length > MAXIMUM_BIG_INTEGER_LENGTH || length > source.remaining()) {
+                    throw new IllegalArgumentException("Illegal length of encoded byte count: " + length);
+                }
+                final byte[] bytes = new byte[(int) length];
+                source.get(bytes);
+                return ByteCount.valueOf(new BigInteger(bytes));
+            }
+            return ByteCount.valueOf(unZigZag(getVarLong(first, second, source)));
+        }
+        return ByteCount.valueOf(unZigZag(getVarLong(first, source)));
+    }
+
+    /**
+     * @throws IllegalArgumentException          if the buffer does not contain a valid encoded byte count or if it
+     *                                           does not fit into a <code>long</code>.
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the encoded byte count.
+     */
+    public static long readLong(@Nonnull ByteBuffer source) throws IllegalArgumentException {
+        final int first = source.get() & 0xFF;
+        if (first == CONTINUATION_BIT) {
+            final int second = source.get() & 0xFF;
+            if (second == 0) {
+                throw new IllegalArgumentException("Encoded byte count does not fit into a long.");
+            }
+            return unZigZag(getVarLong(first, second, source));
+        }
+        return unZigZag(getVarLong(first, source));
+    }
+
+    @Nonnull
+    public static long[] readLongArray(@Nonnull ByteBuffer source) throws IllegalArgumentException {
+        final long[] result = new long[arrayLengthOf(getVarLong(source), source)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = readLong(source);
+        }
+        return result;
+    }
+
+    @Nonnull
+    public static ByteCount[] readArray(@Nonnull ByteBuffer source) throws IllegalArgumentException {
+        final ByteCount[] result = new ByteCount[arrayLengthOf(getVarLong(source), source)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = read(source);
+        }
+        return result;
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Nonnegative
+    static int varLongLengthOf(long unsignedValue) {
+        // Every byte holds 7 bits and at least one byte is always required.
+        return Math.max((Long.SIZE - Long.numberOfLeadingZeros(unsignedValue) + 6) / 7, 1);
+    }
+
+    static void writeVarLong(long unsignedValue, @Nonnull DataOutput out) throws IOException {
+        long rest = unsignedValue;
+        while ((rest & ~PAYLOAD_BITS) != 0) {
+            out.write((int) (rest & PAYLOAD_BITS) | CONTINUATION_BIT);
+            rest >>>= 7;
+        }
+        out.write((int) rest);
+    }
+
+    static void putVarLong(long unsignedValue, @Nonnull ByteBuffer target) {
+        long rest = unsignedValue;
+        while ((rest & ~PAYLOAD_BITS) != 0) {
+            target.put((byte) ((rest & PAYLOAD_BITS) | CONTINUATION_BIT));
+            rest >>>= 7;
+        }
+        target.put((byte) rest);
+    }
+
+    static long readVarLong(@Nonnull DataInput in) throws IOException {
+        return readVarLong(in.readUnsignedByte(), in);
+    }
+
+    static long readVarLong(int first, @Nonnull DataInput in) throws IOException {
+        if ((first & CONTINUATION_BIT) == 0) {
+            return first;
+        }
+        return readVarLong(first, in.readUnsignedByte(), in);
+    }
+
+    static long readVarLong(int first, int second, @Nonnull DataInput in) throws IOException {
+        long result = (first & PAYLOAD_BITS) | (long) (second & PAYLOAD_BITS) << 7;
+        int current = second;
+        for (int i = 2; (current & CONTINUATION_BIT) != 0; i++) {
+            if (i >= MAXIMUM_VARINT_LENGTH) {
+                throw new StreamCorruptedException("Encoded byte count is longer than " + MAXIMUM_VARINT_LENGTH + " bytes.");
+            }
+            current = in.readUnsignedByte();
+            result |= (long) (current & PAYLOAD_BITS) << (7 * i);
+        }
+        return result;
+    }
+
+    static long getVarLong(@Nonnull ByteBuffer source) {
+        return getVarLong(source.get() & 0xFF, source);
+    }
+
+    static long getVarLong(int first, @Nonnull ByteBuffer source) {
+        if ((first & CONTINUATION_BIT) == 0) {
+            return first;
+        }
+        return getVarLong(first, source.get() & 0xFF, source);
+    }
+
+    static long getVarLong(int first, int second, @Nonnull ByteBuffer source) {
+        long result = (first & PAYLOAD_BITS) | (long) (second & PAYLOAD_BITS) << 7;
+        int current = second;
+        for (int i = 2; (current & CONTINUATION_BIT) != 0; i++) {
+            if (i >= MAXIMUM_VARINT_LENGTH) {
+                throw new IllegalArgumentException("Encoded byte count is longer than " + MAXIMUM_VARINT_LENGTH + " bytes.");
+            }
+            current = source.get() & 0xFF;
+            result |= (long) (current & PAYLOAD_BITS) << (7 * i);
+        }
+        return result;
+    }
+
+    @Nonnegative
+    static int readArrayLength(@Nonnull DataInput in) throws IOException {
+        final long length = readVarLong(in);
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Illegal number of encoded byte counts: " + length);
+        }
+        return (int) length;
+    }
+
+    /**
+     * Reads <code>length</code> bytes but allocates only for the ones which were actually read.
+     */
+    @Nonnull
+    static byte[] readBytes(@Nonnull DataInput in, @Nonnegative int length) throws IOException {
+        byte[] result = new byte[Math.min(length, INITIAL_READ_CAPACITY)];
+        int read = 0;
+        while (true) {
+            in.readFully(result, read, result.length - read);
+            read = result.length;
+            if (read == length) {
+                return result;
+            }
+            result = Arrays.copyOf(result, grownCapacityOf(read, length));
+        }
+    }
+
+    /**
+     * Doubles the capacity - so at most twice the memory of what was actually read is allocated - but never beyond
+     * <code>length</code>.
+     */
+    @Nonnegative
+    static int grownCapacityOf(@Nonnegative int capacity, @Nonnegative int length) {
+        return (int) Math.min(capacity * 2L, length);
+    }
+
+    /**
+     * Every value requires at least one byte, so this prevents huge allocations for corrupt input.
+     */
+    @Nonnegative
+    static int arrayLengthOf(long length, @Nonnull ByteBuffer source) {
+        if (length < 0 || length > source.remaining()) {
+            throw new IllegalArgumentException("Illegal number of encoded byte counts: " + length);
+        }
+        return (int) length;
+    }
+
+    protected ByteCountCodec() {
+    }
+
+}
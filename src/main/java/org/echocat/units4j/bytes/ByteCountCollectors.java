@@ -0,0 +1,102 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnull;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collector.Characteristics.IDENTITY_FINISH;
+import static java.util.stream.Collector.Characteristics.UNORDERED;
+
+/**
+ * {@link Collector}s which sum up byte counts in a mutable {@link ByteCountSummaryStatistics} per thread instead of
+ * creating a new {@link ByteCount} for every element like <code>reduce(ByteCount.ZERO, ByteCount::add)</code> does.
+ * Partial results of parallel streams are merged with {@link ByteCountSummaryStatistics#combine(ByteCountSummaryStatistics)}.
+ *
+ * <p>All collectors are also usable as downstream of {@link java.util.stream.Collectors#groupingBy(Function, Collector)},
+ * like <code>groupingBy(File::owner, summingBytes(File::size))</code>. <code>null</code> byte counts are ignored.</p>
+ */
+public class ByteCountCollectors {
+
+    private static final Collector<ByteCount, ByteCountSummaryStatistics, ByteCount> SUMMING = Collector.of(
+        ByteCountSummaryStatistics::new,
+        ByteCountSummaryStatistics::accept,
+        ByteCountSummaryStatistics::combine,
+        ByteCountSummaryStatistics::sum,
+        UNORDERED
+    );
+
+    private static final Collector<ByteCount, ByteCountSummaryStatistics, ByteCountSummaryStatistics> SUMMARIZING = Collector.of(
+        ByteCountSummaryStatistics::new,
+        ByteCountSummaryStatistics::accept,
+        ByteCountSummaryStatistics::combine,
+        UNORDERED, IDENTITY_FINISH
+    );
+
+    @Nonnull
+    public static Collector<ByteCount, ?, ByteCount> summing() {
+        return SUMMING;
+    }
+
+    @Nonnull
+    public static <T> Collector<T, ?, ByteCount> summing(@Nonnull Function<? super T, ByteCount> mapper) {
+        requireNonNull(mapper);
+        return Collector.of(
+            ByteCountSummaryStatistics::new,
+            (statistics, element) -> statistics.accept(mapper.apply(element)),
+            ByteCountSummaryStatistics::combine,
+            ByteCountSummaryStatistics::sum,
+            UNORDERED
+        );
+    }
+
+    /**
+     * Like {@link #summing(Function)} but for elements which provide their size as plain number of bytes.
+     */
+    @Nonnull
+    public static <T> Collector<T, ?, ByteCount> summingBytes(@Nonnull ToLongFunction<? super T> mapper) {
+        requireNonNull(mapper);
+        return Collector.of(
+            ByteCountSummaryStatistics::new,
+            (statistics, element) -> statistics.accept(mapper.applyAsLong(element)),
+            ByteCountSummaryStatistics::combine,
+            ByteCountSummaryStatistics::sum,
+            UNORDERED
+        );
+    }
+
+    @Nonnull
+    public static Collector<ByteCount, ?, ByteCountSummaryStatistics> summarizing() {
+        return SUMMARIZING;
+    }
+
+    @Nonnull
+    public static <T> Collector<T, ?, ByteCountSummaryStatistics> summarizing(@Nonnull Function<? super T, ByteCount> mapper) {
+        requireNonNull(mapper);
+        return Collector.of(
+            ByteCountSummaryStatistics::new,
+            (statistics, element) -> statistics.accept(mapper.apply(element)),
+            ByteCountSummaryStatistics::combine,
+            UNORDERED, IDENTITY_FINISH
+        );
+    }
+
+    /**
+     * Like {@link #summarizing(Function)} but for elements which provide their size as plain number of bytes.
+     */
+    @Nonnull
+    public static <T> Collector<T, ?, ByteCountSummaryStatistics> summarizingBytes(@Nonnull ToLongFunction<? super T> mapper) {
+        requireNonNull(mapper);
+        return Collector.of(
+            ByteCountSummaryStatistics::new,
+            (statistics, element) -> statistics.accept(mapper.applyAsLong(element)),
+            ByteCountSummaryStatistics::combine,
+            UNORDERED, IDENTITY_FINISH
+        );
+    }
+
+    protected ByteCountCollectors() {
+    }
+
+}
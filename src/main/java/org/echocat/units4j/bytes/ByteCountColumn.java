@@ -0,0 +1,288 @@
+package org.echocat.units4j.bytes;
+
+import org.echocat.units4j.bytes.ByteUnit.OverflowMode;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.echocat.units4j.bytes.ByteUnit.B;
+
+/**
+ * Column of byte counts which are stored as plain <code>long</code>s of one {@link #unit() unit}. Instances of
+ * {@link ByteCount} are only created if requested.
+ */
+@NotThreadSafe
+public class ByteCountColumn {
+
+    private static final long[] EMPTY = new long[0];
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final long LOWER_32_BITS = 0xFFFFFFFFL;
+
+    @Nonnull
+    public static ByteCountColumn byteCountColumnOf(@Nonnull ByteUnit unit, @Nonnull long... values) {
+        final ByteCountColumn result = new ByteCountColumn(unit, values.length);
+        System.arraycopy(values, 0, result.values, 0, values.length);
+        result.size = values.length;
+        result.sorted = isAscending(values);
+        return result;
+    }
+
+    @Nonnull
+    private final ByteUnit unit;
+    @Nonnull
+    private long[] values;
+    @Nonnegative
+    private int size;
+    private boolean sorted = true;
+
+    public ByteCountColumn() {
+        this(B);
+    }
+
+    public ByteCountColumn(@Nonnull ByteUnit unit) {
+        this(unit, DEFAULT_CAPACITY);
+    }
+
+    public ByteCountColumn(@Nonnull ByteUnit unit, @Nonnegative int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Given initialCapacity value is negative: " + initialCapacity);
+        }
+        this.unit = requireNonNull(unit);
+        this.values = initialCapacity > 0 ? new long[initialCapacity] : EMPTY;
+    }
+
+    @Nonnull
+    public ByteCountColumn add(long value) {
+        ensureCapacity(size + 1);
+        if (sorted && size > 0 && values[size - 1] > value) {
+            sorted = false;
+        }
+        values[size++] = value;
+        return this;
+    }
+
+    /**
+     * The value is converted to {@link #unit()} and truncated towards zero.
+     *
+     * @throws ArithmeticException if the value could not be expressed as <code>long</code> in {@link #unit()}.
+     */
+    @Nonnull
+    public ByteCountColumn add(long value, @Nonnull ByteUnit valueUnit) throws ArithmeticException {
+        return add(unit.from(value, valueUnit));
+    }
+
+    /**
+     * The value is converted to {@link #unit()} and truncated towards zero.
+     *
+     * @throws ArithmeticException if the value could not be expressed as <code>long</code> in {@link #unit()}.
+     */
+    @Nonnull
+    public ByteCountColumn add(@Nonnull ByteCount value) throws ArithmeticException {
+        return add(longValueOf(value));
+    }
+
+    public void set(@Nonnegative int index, long value) {
+        checkIndex(index);
+        values[index] = value;
+        sorted = false;
+    }
+
+    public long getLong(@Nonnegative int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    @Nonnull
+    public ByteCount get(@Nonnegative int index) {
+        return ByteCount.valueOf(getLong(index), unit);
+    }
+
+    @Nonnull
+    public ByteUnit unit() {
+        return unit;
+    }
+
+    @Nonnegative
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    @Nonnull
+    public long[] toLongArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * @return the exact sum of all values - also if it does not fit into a <code>long</code>.
+     */
+    @Nonnull
+    public ByteCount sum() {
+        // Sum up the upper and lower 32 bits separately: no overflow is possible for less than 2^31 values and the
+        // loops are simple enough to be vectorized.
+        final long[] values = this.values;
+        final int size = this.size;
+        long high = 0L;
+        for (int i = 0; i < size; i++) {
+            high += values[i] >> 32;
+        }
+        long low = 0L;
+        for (int i = 0; i < size; i++) {
+            low += values[i] & LOWER_32_BITS;
+        }
+        try {
+            return ByteCount.valueOf(Math.addExact(Math.multiplyExact(high, 1L << 32), low), unit);
+        } catch (final ArithmeticException ignored) {
+            return ByteCount.valueOf(BigInteger.valueOf(high).shiftLeft(32).add(BigInteger.valueOf(low)), unit);
+        }
+    }
+
+    @Nonnull
+    public Optional<ByteCount> min() {
+        if (size == 0) {
+            return empty();
+        }
+        if (sorted) {
+            return of(ByteCount.valueOf(values[0], unit));
+        }
+        final long[] values = this.values;
+        final int size = this.size;
+        long result = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            result = Math.min(result, values[i]);
+        }
+        return of(ByteCount.valueOf(result, unit));
+    }
+
+    @Nonnull
+    public Optional<ByteCount> max() {
+        if (size == 0) {
+            return empty();
+        }
+        if (sorted) {
+            return of(ByteCount.valueOf(values[size - 1], unit));
+        }
+        final long[] values = this.values;
+        final int size = this.size;
+        long result = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            result = Math.max(result, values[i]);
+        }
+        return of(ByteCount.valueOf(result, unit));
+    }
+
+    /**
+     * Sorts the values of this column ascending.
+     */
+    @Nonnull
+    public ByteCountColumn sort() {
+        if (!sorted) {
+            Arrays.sort(values, 0, size);
+            sorted = true;
+        }
+        return this;
+    }
+
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Uses the nearest-rank method. If this column is not {@link #sort() sorted} a sorted copy of the values is
+     * created on every call.
+     *
+     * @param percentile between <code>0</code> (minimum) and <code>100</code> (maximum).
+     */
+    @Nonnull
+    public Optional<ByteCount> percentile(@Nonnegative double percentile) {
+        if (!(percentile >= 0d && percentile <= 100d)) {
+            throw new IllegalArgumentException("Given percentile is not between 0 and 100: " + percentile);
+        }
+        if (size == 0) {
+            return empty();
+        }
+        final long[] sortedValues;
+        if (sorted) {
+            sortedValues = values;
+        } else {
+            sortedValues = toLongArray();
+            Arrays.sort(sortedValues);
+        }
+        final int rank = (int) Math.ceil(percentile / 100d * size);
+        return of(ByteCount.valueOf(sortedValues[Math.max(rank, 1) - 1], unit));
+    }
+
+    /**
+     * @return a new column with all values converted to <code>targetUnit</code>. Values are truncated towards zero.
+     * @throws ArithmeticException if a value does not fit into a <code>long</code> of <code>targetUnit</code>.
+     */
+    @Nonnull
+    public ByteCountColumn convertTo(@Nonnull ByteUnit targetUnit) throws ArithmeticException {
+        return convertTo(targetUnit, OverflowMode.fail);
+    }
+
+    /**
+     * @return a new column with all values converted to <code>targetUnit</code>. Values are truncated towards zero.
+     * @throws ArithmeticException if a value does not fit into a <code>long</code> of <code>targetUnit</code> and
+     *                             <code>overflowMode</code> is {@link OverflowMode#fail}.
+     */
+    @Nonnull
+    public ByteCountColumn convertTo(@Nonnull ByteUnit targetUnit, @Nonnull OverflowMode overflowMode) throws ArithmeticException {
+        requireNonNull(targetUnit);
+        requireNonNull(overflowMode);
+        final ByteCountColumn result = new ByteCountColumn(targetUnit, size);
+        targetUnit.convert(values, 0, result.values, 0, size, unit, overflowMode);
+        result.size = size;
+        // Converting preserves the order.
+        result.sorted = sorted;
+        return result;
+    }
+
+    long longValueOf(@Nonnull ByteCount value) throws ArithmeticException {
+        if (!value.isLongValue()) {
+            throw new ArithmeticException("long overflow");
+        }
+        return unit.from(value.longValue(), B);
+    }
+
+    void ensureCapacity(@Nonnegative int minimumCapacity) {
+        if (minimumCapacity < 0) {
+            throw new OutOfMemoryError("Required capacity exceeds the maximum array size.");
+        }
+        if (minimumCapacity > values.length) {
+            final int newCapacity = Math.max(minimumCapacity, Math.max(values.length + (values.length >> 1), DEFAULT_CAPACITY));
+            values = Arrays.copyOf(values, newCapacity < 0 ? Integer.MAX_VALUE - 8 : newCapacity);
+        }
+    }
+
+    static boolean isAscending(@Nonnull long[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] > values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void checkIndex(@Nonnegative int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+}
@@ -6,7 +6,7 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.text.NumberFormat;
 import java.util.List;
@@ -17,6 +17,7 @@ import java.util.function.Function;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
 import static org.echocat.units4j.bytes.ByteCountFormat.NameFormat.briefly;
+import static org.echocat.units4j.bytes.NumberRenderer.numberRendererFor;
 import static org.echocat.units4j.bytes.ByteUnit.B;
 import static org.echocat.units4j.bytes.ByteUnit.Kind.binary;
 
@@ -33,7 +34,9 @@ public class ByteCountFormat {
     @Nonnull
     private final ByteUnit.Kind byteUnitKind;
     @Nonnull
-    private final NumberFormat numberFormat;
+    private final NumberRenderer numberRenderer;
+    @Nonnull
+    private final ByteCountParser.Symbols parserSymbols;
     @Nonnull
     private final Locale locale;
     @Nonnull
@@ -44,6 +47,8 @@ public class ByteCountFormat {
     @Nonnegative
     @Nonnull
     private final Optional<Integer> minimumFractionDigits;
+    @Nonnull
+    private final Optional<ByteCountFormatCache> cache;
 
     protected ByteCountFormat(
         @Nonnull Optional<ByteUnit> byteUnit,
@@ -53,15 +58,27 @@ public class ByteCountFormat {
         @Nonnegative @Nonnull Optional<Integer> maximumFractionDigits,
         @Nonnegative @Nonnull Optional<Integer> minimumFractionDigits
     ) {
+        this(byteUnit, byteUnitKind, locale, nameFormat, maximumFractionDigits, minimumFractionDigits, empty());
+    }
+
+    protected ByteCountFormat(
+        @Nonnull Optional<ByteUnit> byteUnit,
+        @Nonnull Kind byteUnitKind,
+        @Nonnull Locale locale,
+        @Nonnull NameFormat nameFormat,
+        @Nonnegative @Nonnull Optional<Integer> maximumFractionDigits,
+        @Nonnegative @Nonnull Optional<Integer> minimumFractionDigits,
+        @Nonnegative @Nonnull Optional<Integer> cacheCapacity
+    ) {
+        this.cache = cacheCapacity.map(ByteCountFormatCache::new);
         this.byteUnit = byteUnit;
         this.byteUnitKind = byteUnitKind;
         this.locale = locale;
         this.nameFormat = nameFormat;
         this.maximumFractionDigits = maximumFractionDigits;
         this.minimumFractionDigits = minimumFractionDigits;
-        this.numberFormat = NumberFormat.getNumberInstance(locale);
-        this.numberFormat.setMaximumFractionDigits(maximumFractionDigits.orElse(0));
-        this.numberFormat.setMinimumFractionDigits(minimumFractionDigits.orElse(0));
+        this.numberRenderer = numberRendererFor(locale, maximumFractionDigits.orElse(0), minimumFractionDigits.orElse(0));
+        this.parserSymbols = numberRenderer.parserSymbols();
     }
 
     @Nonnull
@@ -69,6 +86,22 @@ public class ByteCountFormat {
         if (ByteCount.ZERO.equals(value)) {
             return "0";
         }
+        if (cache.isPresent() && value.isLongValue()) {
+            final ByteCountFormatCache cache = this.cache.get();
+            final long key = value.longValue();
+            final String cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            final String result = formatUncached(value);
+            cache.put(key, result);
+            return result;
+        }
+        return formatUncached(value);
+    }
+
+    @Nonnull
+    protected String formatUncached(@Nonnull ByteCount value) {
         return byteUnit()
             .map(candidate -> formatWithUnit(value, candidate))
             .orElseGet(() -> maximumFractionDigits()
@@ -77,10 +110,87 @@ public class ByteCountFormat {
             );
     }
 
+    /**
+     * Formats the {@link ByteRate#byteCount() byte count} of the given rate followed by <code>/</code> and the
+     * {@link ByteRate#symbolOf(java.util.concurrent.TimeUnit) symbol} of its time unit, like <code>12.5MiB/s</code>.
+     */
+    @Nonnull
+    public String format(@Nonnull ByteRate value) {
+        return format(value.byteCount()) + '/' + ByteRate.symbolOf(value.timeUnit());
+    }
+
+    /**
+     * Same as {@link #format(ByteCount)} but appends directly to <code>to</code>. No intermediate objects are created
+     * for values which fit into a <code>long</code>.
+     *
+     * @return the given <code>to</code>.
+     */
+    @Nonnull
+    public <A extends Appendable> A formatTo(@Nonnull ByteCount value, @Nonnull A to) throws IOException {
+        if (cache.isPresent() && value.isLongValue()) {
+            to.append(format(value));
+        } else if (value.isLongValue()) {
+            appendTo(to, value.longValue());
+        } else {
+            appendTo(to, value.bigIntegerValue());
+        }
+        return to;
+    }
+
+    /**
+     * Same as {@link #format(ByteCount)} for <code>ByteCount.valueOf(value)</code> but appends directly to
+     * <code>to</code> without creating any intermediate objects.
+     *
+     * @return the given <code>to</code>.
+     */
+    @Nonnull
+    public StringBuilder formatTo(long value, @Nonnull StringBuilder to) {
+        try {
+            appendTo(to, value);
+        } catch (final IOException e) {
+            throw new IllegalStateException("StringBuilder should never throw an IOException.", e);
+        }
+        return to;
+    }
+
+    /**
+     * Parses everything this format produces - like <code>1,003B</code> or <code>1.5GiB 3KiB</code> for
+     * {@link Locale#US} - in a single pass. Digits, the decimal separator and the grouping separator of the
+     * {@link #locale()} are accepted in addition to everything {@link ByteCountParser#parse(CharSequence)} accepts.
+     * Fractions are rounded {@link ByteUnit#ROUNDING_MODE half even} to whole bytes. Only values with a fraction which
+     * does not fit into a <code>long</code> are calculated with {@link java.math.BigDecimal}.
+     *
+     * @throws IllegalArgumentException if the <code>input</code> could not be parsed.
+     */
+    @Nonnull
+    public ByteCount parse(@Nonnull CharSequence input) throws IllegalArgumentException {
+        return ByteCountParser.parse(input, 0, input.length(), parserSymbols);
+    }
+
+    /**
+     * Same as {@link #parse(CharSequence)} but only for the range of <code>input</code> starting at
+     * <code>offset</code> with the given <code>length</code>.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within <code>input</code>.
+     */
+    @Nonnull
+    public ByteCount parse(@Nonnull CharSequence input, @Nonnegative int offset, @Nonnegative int length) throws IllegalArgumentException {
+        return ByteCountParser.parse(input, offset, length, parserSymbols);
+    }
+
     @Nonnull
     protected String formatWithUnit(@Nonnull ByteCount value, @Nonnull ByteUnit unit) {
-        final BigDecimal valueAsDecimal = value.toDecimal(unit);
-        return numberFormat().format(valueAsDecimal) + nameFormat().format(unit);
+        final StringBuilder sb = new StringBuilder();
+        try {
+            if (value.isLongValue()) {
+                appendWithUnit(sb, value.longValue(), unit);
+            } else {
+                appendWithUnit(sb, value.bigIntegerValue(), unit);
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException("StringBuilder should never throw an IOException.", e);
+        }
+        return sb.toString();
     }
 
     @Nonnull
@@ -91,12 +201,93 @@ public class ByteCountFormat {
 
     @Nonnull
     protected String formatWithoutUnit(@Nonnull ByteCount value) {
+        if (value.isLongValue()) {
+            return formatWithoutUnit(value.longValue());
+        }
         return formatWithoutUnit(value.bigIntegerValue());
     }
 
+    @Nonnull
+    protected String formatWithoutUnit(long byteCount) {
+        final StringBuilder sb = new StringBuilder();
+        try {
+            appendWithoutUnit(sb, byteCount);
+        } catch (final IOException e) {
+            throw new IllegalStateException("StringBuilder should never throw an IOException.", e);
+        }
+        return sb.toString();
+    }
+
     @Nonnull
     protected String formatWithoutUnit(@Nonnull BigInteger byteCount) {
         final StringBuilder sb = new StringBuilder();
+        try {
+            appendWithoutUnit(sb, byteCount);
+        } catch (final IOException e) {
+            throw new IllegalStateException("StringBuilder should never throw an IOException.", e);
+        }
+        return sb.toString();
+    }
+
+    protected void appendTo(@Nonnull Appendable to, long value) throws IOException {
+        if (value == 0L) {
+            to.append('0');
+        } else if (byteUnit().isPresent()) {
+            appendWithUnit(to, value, byteUnit().get());
+        } else if (maximumFractionDigits().isPresent()) {
+            appendWithUnit(to, value, ByteUnit.bestFittingUnitOf(value, byteUnitKind()));
+        } else {
+            appendWithoutUnit(to, value);
+        }
+    }
+
+    protected void appendTo(@Nonnull Appendable to, @Nonnull BigInteger value) throws IOException {
+        if (value.signum() == 0) {
+            to.append('0');
+        } else if (byteUnit().isPresent()) {
+            appendWithUnit(to, value, byteUnit().get());
+        } else if (maximumFractionDigits().isPresent()) {
+            appendWithUnit(to, value, ByteCount.valueOf(value).bestFittingUnitOf(byteUnitKind()));
+        } else {
+            appendWithoutUnit(to, value);
+        }
+    }
+
+    protected void appendWithUnit(@Nonnull Appendable to, long value, @Nonnull ByteUnit unit) throws IOException {
+        numberRenderer().appendDecimal(to, value, unit);
+        to.append(nameFormat().format(unit));
+    }
+
+    protected void appendWithUnit(@Nonnull Appendable to, @Nonnull BigInteger value, @Nonnull ByteUnit unit) throws IOException {
+        numberRenderer().appendDecimal(to, value, unit);
+        to.append(nameFormat().format(unit));
+    }
+
+    protected void appendWithoutUnit(@Nonnull Appendable to, long byteCount) throws IOException {
+        boolean empty = true;
+        long rest = byteCount;
+        final List<ByteUnit> values = ByteUnit.valuesOf(byteUnitKind());
+        final int numberOfValues = values.size();
+        for (int i = numberOfValues - 1; i >= 0; i--) {
+            final ByteUnit unit = values.get(i);
+            final long value = rest / unit.longBase();
+            if (value > 0) {
+                if (!empty) {
+                    to.append(' ');
+                }
+                numberRenderer().appendInteger(to, value);
+                to.append(nameFormat().format(unit));
+                rest -= value * unit.longBase();
+                empty = false;
+            }
+        }
+        if (empty) {
+            to.append('0');
+        }
+    }
+
+    protected void appendWithoutUnit(@Nonnull Appendable to, @Nonnull BigInteger byteCount) throws IOException {
+        boolean empty = true;
         BigInteger rest = byteCount;
         final List<ByteUnit> values = ByteUnit.valuesOf(byteUnitKind());
         final int numberOfValues = values.size();
@@ -104,20 +295,20 @@ public class ByteCountFormat {
             final ByteUnit unit = values.get(i);
             final BigInteger value = unit.from(rest, B);
             if (value.compareTo(BigInteger.ZERO) > 0) {
-                if (sb.length() > 0) {
-                    sb.append(' ');
+                if (!empty) {
+                    to.append(' ');
                 }
-                sb.append(numberFormat().format(value)).append(nameFormat().format(unit));
+                numberRenderer().appendInteger(to, value);
+                to.append(nameFormat().format(unit));
                 rest = rest.subtract(unit.to(value, B));
+                empty = false;
             }
         }
-        if (sb.length() == 0) {
-            sb.append('0');
+        if (empty) {
+            to.append('0');
         }
-        return sb.toString();
     }
 
-
     @Nonnull
     public Optional<ByteUnit> byteUnit() {
         return byteUnit;
@@ -138,9 +329,21 @@ public class ByteCountFormat {
         return nameFormat;
     }
 
+    /**
+     * @return a new instance on every call because {@link NumberFormat} is not thread-safe. This format itself does
+     * not use it anymore.
+     */
     @Nonnull
     protected NumberFormat numberFormat() {
-        return numberFormat;
+        final NumberFormat result = NumberFormat.getNumberInstance(locale());
+        result.setMaximumFractionDigits(maximumFractionDigits().orElse(0));
+        result.setMinimumFractionDigits(minimumFractionDigits().orElse(0));
+        return result;
+    }
+
+    @Nonnull
+    NumberRenderer numberRenderer() {
+        return numberRenderer;
     }
 
     @Nonnull
@@ -155,6 +358,14 @@ public class ByteCountFormat {
         return minimumFractionDigits;
     }
 
+    /**
+     * @return the cache of already formatted values if enabled by {@link Builder#withCacheCapacity(Integer)}.
+     */
+    @Nonnull
+    public Optional<ByteCountFormatCache> cache() {
+        return cache;
+    }
+
     public static class Builder {
 
         @Nonnull
@@ -169,6 +380,8 @@ public class ByteCountFormat {
         private Optional<Integer> maximumFractionDigits = empty();
         @Nonnull
         private Optional<Integer> minimumFractionDigits = empty();
+        @Nonnull
+        private Optional<Integer> cacheCapacity = empty();
 
         @Nonnull
         public Builder ofByteUnit(@Nullable ByteUnit byteUnit) {
@@ -212,6 +425,19 @@ public class ByteCountFormat {
             return this;
         }
 
+        /**
+         * Enables a bounded cache of formatted values of the given capacity (rounded up to the next power of two, see
+         * {@link ByteCountFormatCache#capacity()}). <code>null</code> or <code>0</code> disables it (default).
+         */
+        @Nonnull
+        public Builder withCacheCapacity(@Nullable @Nonnegative Integer cacheCapacity) {
+            if (cacheCapacity != null && cacheCapacity < 0) {
+                throw new IllegalArgumentException("Given cacheCapacity value is negative: " + cacheCapacity);
+            }
+            this.cacheCapacity = ofNullable(cacheCapacity).filter(candidate -> candidate > 0);
+            return this;
+        }
+
         protected Builder() {
         }
 
@@ -223,7 +449,8 @@ public class ByteCountFormat {
                 locale.orElseGet(Locale::getDefault),
                 nameFormat.orElse(briefly),
                 maximumFractionDigits,
-                minimumFractionDigits
+                minimumFractionDigits,
+                cacheCapacity
             );
         }
 
@@ -0,0 +1,169 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.echocat.units4j.bytes.ByteCountAdder.ceilingPowerOfTwo;
+
+/**
+ * Bounded cache of already formatted byte counts of one {@link ByteCountFormat}, see
+ * {@link ByteCountFormat.Builder#withCacheCapacity(Integer)}.
+ *
+ * <p>Entries are keyed by the plain <code>long</code> value, so a lookup does not allocate. Every value could only be
+ * located in a small window of slots; if the window is full one of its entries is evicted using the CLOCK policy:
+ * entries which were hit since the hand passed them the last time get a second chance.</p>
+ */
+@ThreadSafe
+public class ByteCountFormatCache {
+
+    private static final int PROBE_WINDOW = 8;
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+    private final AtomicInteger hand = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    ByteCountFormatCache(@Nonnegative int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Given capacity value is not positive: " + capacity);
+        }
+        final int size = ceilingPowerOfTwo(Math.max(capacity, PROBE_WINDOW));
+        this.entries = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Nullable
+    String get(long key) {
+        final int start = indexFor(key);
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            final Entry entry = entries.get((start + i) & mask);
+            if (entry != null && entry.key == key) {
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(long key, @Nonnull String value) {
+        final int start = indexFor(key);
+        Entry candidate = null;
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            final int index = (start + i) & mask;
+            final Entry entry = entries.get(index);
+            if (entry == null) {
+                if (candidate == null) {
+                    candidate = new Entry(key, value);
+                }
+                if (entries.compareAndSet(index, null, candidate)) {
+                    return;
+                }
+            } else if (entry.key == key) {
+                return;
+            }
+        }
+        if (candidate == null) {
+            candidate = new Entry(key, value);
+        }
+        // Two rounds are enough: the first one clears all referenced flags of the window.
+        final int offset = hand.getAndIncrement();
+        for (int i = 0; i < PROBE_WINDOW * 2; i++) {
+            final int index = (start + ((offset + i) & (PROBE_WINDOW - 1))) & mask;
+            final Entry entry = entries.get(index);
+            if (entry == null || !entry.referenced) {
+                if (entries.compareAndSet(index, entry, candidate)) {
+                    return;
+                }
+            } else {
+                entry.referenced = false;
+            }
+        }
+    }
+
+    @Nonnegative
+    public long hits() {
+        return hits.sum();
+    }
+
+    @Nonnegative
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the ratio of {@link #hits()} to all lookups or <code>0</code> if there were no lookups yet.
+     */
+    @Nonnegative
+    public double hitRate() {
+        final long hits = hits();
+        final long lookups = hits + misses();
+        return lookups > 0 ? (double) hits / lookups : 0d;
+    }
+
+    @Nonnegative
+    public int size() {
+        int result = 0;
+        for (int i = 0; i < entries.length(); i++) {
+            if (entries.get(i) != null) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of slots, which is the configured capacity rounded up to the next power of two (but at least
+     * {@value #PROBE_WINDOW}), so {@link #size()} could grow up to this value.
+     */
+    @Nonnegative
+    public int capacity() {
+        return entries.length();
+    }
+
+    /**
+     * Removes all entries and resets the statistics.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "ByteCountFormatCache{size=" + size() + ", capacity=" + capacity() + ", hits=" + hits() + ", misses=" + misses() + '}';
+    }
+
+    int indexFor(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) hash & mask;
+    }
+
+    static final class Entry {
+
+        private final long key;
+        @Nonnull
+        private final String value;
+        private volatile boolean referenced;
+
+        Entry(long key, @Nonnull String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,413 @@
+package org.echocat.units4j.bytes;
+
+import org.echocat.units4j.bytes.ByteUnit.Kind;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.echocat.units4j.bytes.ByteUnit.LONG_POWERS_OF_10;
+
+/**
+ * Records the distribution of byte counts in a fixed number of buckets. Every power of two ({@link Kind#binary}) or
+ * power of ten ({@link Kind#metric}) is divided into {@link #precision()} buckets of equal width, so the buckets are
+ * aligned to the boundaries of the units of {@link ByteUnit#binaryValues()} respectively
+ * {@link ByteUnit#metricValues()}. Values below {@link #precision()} (binary) or the next power of ten (metric) are
+ * recorded exactly.
+ *
+ * <p>Recording does not allocate and does not block. Histograms of the same kind and precision could be
+ * {@link #add(ByteCountHistogram) merged} and transferred in a compact form using {@link #toByteArray()}.</p>
+ */
+@ThreadSafe
+public class ByteCountHistogram implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int DEFAULT_PRECISION = 32;
+    private static final int MAXIMUM_PRECISION = 1024;
+    private static final byte FORMAT_VERSION = 1;
+
+    @Nonnull
+    private final Kind kind;
+    @Nonnegative
+    private final int precision;
+    @Nonnegative
+    private final int precisionShift;
+    @Nonnegative
+    private final long exactLimit;
+    @Nonnegative
+    private final int firstDecade;
+
+    private final AtomicLongArray counts;
+    private final ByteCountAdder sum = new ByteCountAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    public ByteCountHistogram() {
+        this(Kind.binary);
+    }
+
+    public ByteCountHistogram(@Nonnull Kind kind) {
+        this(kind, DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision number of buckets per power of two ({@link Kind#binary}) or per power of ten
+     *                  ({@link Kind#metric}). Has to be a power of two of at most <code>1024</code>. The relative
+     *                  error of {@link #percentile(double)} is about <code>1 / precision</code> for binary and
+     *                  <code>9 / precision</code> for metric histograms.
+     */
+    public ByteCountHistogram(@Nonnull Kind kind, @Nonnegative int precision) {
+        if (precision < 1 || precision > MAXIMUM_PRECISION || Integer.bitCount(precision) != 1) {
+            throw new IllegalArgumentException("Given precision is not a power of two between 1 and " + MAXIMUM_PRECISION + ": " + precision);
+        }
+        this.kind = requireNonNull(kind);
+        this.precision = precision;
+        this.precisionShift = Integer.numberOfTrailingZeros(precision);
+        if (kind == Kind.binary) {
+            this.firstDecade = 0;
+            this.exactLimit = precision;
+            this.counts = new AtomicLongArray((Long.SIZE - precisionShift) * precision);
+        } else {
+            this.firstDecade = precision == 1 ? 0 : decadeOf(precision - 1) + 1;
+            this.exactLimit = LONG_POWERS_OF_10[firstDecade];
+            this.counts = new AtomicLongArray((int) exactLimit + (LONG_POWERS_OF_10.length - firstDecade) * precision);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if <code>bytes</code> is negative.
+     */
+    public void record(@Nonnegative long bytes) throws IllegalArgumentException {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Given bytes value is negative: " + bytes);
+        }
+        counts.incrementAndGet(indexOf(bytes));
+        sum.add(bytes);
+        if (bytes < min.get()) {
+            min.accumulateAndGet(bytes, Math::min);
+        }
+        if (bytes > max.get()) {
+            max.accumulateAndGet(bytes, Math::max);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if <code>bytes</code> is negative.
+     * @throws ArithmeticException if <code>bytes</code> does not fit into a <code>long</code>.
+     */
+    public void record(@Nonnull ByteCount bytes) throws IllegalArgumentException, ArithmeticException {
+        if (!bytes.isLongValue()) {
+            throw new ArithmeticException("long overflow");
+        }
+        record(bytes.longValue());
+    }
+
+    /**
+     * @throws IllegalArgumentException if <code>value</code> is negative.
+     * @throws ArithmeticException if the value does not fit into a <code>long</code> of bytes.
+     */
+    public void record(@Nonnegative long value, @Nonnull ByteUnit unit) throws IllegalArgumentException, ArithmeticException {
+        record(ByteUnit.B.from(value, unit));
+    }
+
+    /**
+     * Adds all recorded values of <code>other</code> to this histogram.
+     *
+     * @throws IllegalArgumentException if <code>other</code> has a different kind or precision.
+     */
+    public void add(@Nonnull ByteCountHistogram other) throws IllegalArgumentException {
+        checkCompatibility(other.kind, other.precision);
+        final AtomicLongArray otherCounts = other.counts;
+        for (int i = 0; i < otherCounts.length(); i++) {
+            final long count = otherCounts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        sum.add(other.sum.sum());
+        min.accumulateAndGet(other.min.get(), Math::min);
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    @Nonnegative
+    public long count() {
+        final AtomicLongArray counts = this.counts;
+        long result = 0L;
+        for (int i = 0; i < counts.length(); i++) {
+            result += counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return the exact sum of all recorded values.
+     */
+    @Nonnull
+    public ByteCount sum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the exact minimum of all recorded values.
+     */
+    @Nonnull
+    public Optional<ByteCount> min() {
+        final long result = min.get();
+        return max.get() != Long.MIN_VALUE ? of(ByteCount.valueOf(result)) : empty();
+    }
+
+    /**
+     * @return the exact maximum of all recorded values.
+     */
+    @Nonnull
+    public Optional<ByteCount> max() {
+        final long result = max.get();
+        return result != Long.MIN_VALUE ? of(ByteCount.valueOf(result)) : empty();
+    }
+
+    /**
+     * Uses the nearest-rank method and returns the highest value of the bucket which contains the rank, but never
+     * more than {@link #max()}.
+     *
+     * @param percentile between <code>0</code> (minimum) and <code>100</code> (maximum).
+     */
+    @Nonnull
+    public Optional<ByteCount> percentile(@Nonnegative double percentile) {
+        if (!(percentile >= 0d && percentile <= 100d)) {
+            throw new IllegalArgumentException("Given percentile is not between 0 and 100: " + percentile);
+        }
+        final long total = count();
+        if (total == 0) {
+            return empty();
+        }
+        final long rank = Math.max((long) Math.ceil(percentile / 100d * total), 1L);
+        final AtomicLongArray counts = this.counts;
+        long seen = 0L;
+        int index = counts.length() - 1;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                index = i;
+                break;
+            }
+        }
+        final long maximum = max.get();
+        final long highest = highestValueOf(index);
+        return of(ByteCount.valueOf(maximum != Long.MIN_VALUE ? Math.min(highest, maximum) : highest));
+    }
+
+    public void reset() {
+        final AtomicLongArray counts = this.counts;
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0L);
+        }
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    @Nonnull
+    public Kind kind() {
+        return kind;
+    }
+
+    @Nonnegative
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * @return a compact representation of this histogram which only contains the non empty buckets.
+     * @see #valueOf(byte[])
+     */
+    @Nonnull
+    public byte[] toByteArray() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(FORMAT_VERSION);
+        out.write(kind.ordinal());
+        out.write(precisionShift);
+        writeVarLong(out, min.get() - Long.MIN_VALUE);
+        writeVarLong(out, max.get() - Long.MIN_VALUE);
+        final byte[] sumBytes = sum.sum().bigIntegerValue().toByteArray();
+        writeVarLong(out, sumBytes.length);
+        out.write(sumBytes, 0, sumBytes.length);
+        final AtomicLongArray counts = this.counts;
+        int previous = -1;
+        for (int i = 0; i < counts.length(); i++) {
+            final long count = counts.get(i);
+            if (count != 0) {
+                writeVarLong(out, i - previous);
+                writeVarLong(out, count);
+                previous = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if <code>bytes</code> is not a representation created by {@link #toByteArray()}.
+     */
+    @Nonnull
+    public static ByteCountHistogram valueOf(@Nonnull byte[] bytes) throws IllegalArgumentException {
+        final ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            if (in.get() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported histogram format version.");
+            }
+            final int kindOrdinal = in.get();
+            final int shift = in.get();
+            if (kindOrdinal < 0 || kindOrdinal >= Kind.values().length || shift < 0 || shift >= Integer.SIZE) {
+                throw new IllegalArgumentException("Illegal histogram header.");
+            }
+            final ByteCountHistogram result = new ByteCountHistogram(Kind.values()[kindOrdinal], 1 << shift);
+            result.min.set(readVarLong(in) + Long.MIN_VALUE);
+            result.max.set(readVarLong(in) + Long.MIN_VALUE);
+            final long sumLength = readVarLong(in);
+            if (sumLength < 0 || sumLength > in.remaining()) {
+                throw new IllegalArgumentException("Given bytes are no valid histogram.");
+            }
+            final byte[] sumBytes = new byte[(int) sumLength];
+            in.get(sumBytes);
+            result.sum.add(ByteCount.valueOf(new BigInteger(sumBytes)));
+            int index = -1;
+            long total = 0L;
+            while (in.hasRemaining()) {
+                final long delta = readVarLong(in);
+                final long count = readVarLong(in);
+                if (delta < 1 || delta > Integer.MAX_VALUE || count < 0) {
+                    throw new IllegalArgumentException("Given bytes are no valid histogram.");
+                }
+                index = Math.addExact(index, (int) delta);
+                total = Math.addExact(total, count);
+                result.counts.set(index, count);
+            }
+            return result;
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Given bytes are no valid histogram.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ByteCountHistogram{count=" + count() + ", sum=" + sum() + ", p50=" + percentile(50).orElse(null) + ", p99=" + percentile(99).orElse(null) + '}';
+    }
+
+    int indexOf(@Nonnegative long bytes) {
+        if (bytes < exactLimit) {
+            return (int) bytes;
+        }
+        if (kind == Kind.binary) {
+            final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(bytes) - precisionShift;
+            return (shift << precisionShift) + (int) (bytes >>> shift);
+        }
+        final int decade = decadeOf(bytes);
+        final long lower = LONG_POWERS_OF_10[decade];
+        return (int) exactLimit + ((decade - firstDecade) << precisionShift) + (int) ((bytes - lower) / widthOf(decade));
+    }
+
+    long highestValueOf(@Nonnegative int index) {
+        if (index < exactLimit) {
+            return index;
+        }
+        if (kind == Kind.binary) {
+            final int shift = (index >>> precisionShift) - 1;
+            final long lower = ((long) (index & (precision - 1)) + precision) << shift;
+            return lower + ((1L << shift) - 1);
+        }
+        final int relative = index - (int) exactLimit;
+        final int decade = (relative >>> precisionShift) + firstDecade;
+        final long width = widthOf(decade);
+        final long lower = LONG_POWERS_OF_10[decade] + (relative & (precision - 1)) * width;
+        final long upperOfDecade = decade + 1 < LONG_POWERS_OF_10.length ? LONG_POWERS_OF_10[decade + 1] - 1 : Long.MAX_VALUE;
+        return lower > upperOfDecade - width ? upperOfDecade : lower + width - 1;
+    }
+
+    long widthOf(@Nonnegative int decade) {
+        final long span = 9L * LONG_POWERS_OF_10[decade];
+        return (span + precision - 1) >>> precisionShift;
+    }
+
+    void checkCompatibility(@Nonnull Kind otherKind, @Nonnegative int otherPrecision) {
+        if (kind != otherKind || precision != otherPrecision) {
+            throw new IllegalArgumentException("Could not merge histogram of " + otherKind + "/" + otherPrecision + " into " + kind + "/" + precision + ".");
+        }
+    }
+
+    /**
+     * @return <code>floor(log10(value))</code> for positive values.
+     */
+    static int decadeOf(@Nonnegative long value) {
+        // log10(2) is about 1233 / 4096
+        final int estimate = ((Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) * 1233) >>> 12;
+        return estimate + 1 < LONG_POWERS_OF_10.length && value >= LONG_POWERS_OF_10[estimate + 1] ? estimate + 1 : estimate;
+    }
+
+    static void writeVarLong(@Nonnull ByteArrayOutputStream out, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+
+    static long readVarLong(@Nonnull ByteBuffer in) {
+        long result = 0L;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new ArithmeticException("varint too long");
+    }
+
+    @Nonnull
+    private Object writeReplace() {
+        return new SerializedForm(toByteArray());
+    }
+
+    private void readObject(@Nonnull ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Serialized form required.");
+    }
+
+    private static final class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Nonnull
+        private final byte[] bytes;
+
+        private SerializedForm(@Nonnull byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Nonnull
+        private Object readResolve() throws InvalidObjectException {
+            try {
+                return valueOf(bytes);
+            } catch (final IllegalArgumentException e) {
+                final InvalidObjectException target = new InvalidObjectException(e.getMessage());
+                target.initCause(e);
+                throw target;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,415 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+import static org.echocat.units4j.bytes.ByteUnit.B;
+import static org.echocat.units4j.bytes.ByteUnit.Kind.binary;
+import static org.echocat.units4j.bytes.ByteUnit.LONG_POWERS_OF_10;
+import static org.echocat.units4j.bytes.ByteUnit.ROUNDING_MODE;
+import static org.echocat.units4j.bytes.NumberRenderer.MAXIMUM_LONG_FRACTION_DIGITS;
+
+/**
+ * Single pass parser for byte counts like <code>5MiB</code>, <code>66mib 1024kib 2097152b</code> or
+ * <code>7 kilobyte</code>. Every part is a sequence of digits followed by the {@link ByteUnit#name() name} or
+ * {@link ByteUnit#fullName() full name} of a {@link ByteUnit} (case-insensitive). Parts could be separated by
+ * whitespaces.
+ */
+public class ByteCountParser {
+
+    /**
+     * Names longer than this could not be packed into a <code>long</code> and are not known anyway.
+     */
+    private static final int MAXIMUM_NAME_LENGTH = Long.SIZE / Byte.SIZE;
+
+    private static final long[] NAME_KEYS;
+    private static final ByteUnit[] NAME_UNITS;
+
+    static {
+        final ByteUnit[] units = ByteUnit.values();
+        final long[] keys = new long[units.length * 2];
+        for (int i = 0; i < units.length; i++) {
+            keys[i * 2] = keyOf(units[i].name());
+            keys[i * 2 + 1] = keyOf(units[i].fullName());
+        }
+        Arrays.sort(keys);
+        final ByteUnit[] keyUnits = new ByteUnit[keys.length];
+        for (final ByteUnit unit : units) {
+            keyUnits[Arrays.binarySearch(keys, keyOf(unit.name()))] = unit;
+            keyUnits[Arrays.binarySearch(keys, keyOf(unit.fullName()))] = unit;
+        }
+        NAME_KEYS = keys;
+        NAME_UNITS = keyUnits;
+    }
+
+    /**
+     * Parses the whole <code>input</code>. An empty <code>input</code> results in {@link ByteCount#ZERO}.
+     *
+     * @throws IllegalArgumentException if the <code>input</code> could not be parsed.
+     */
+    @Nonnull
+    public static ByteCount parse(@Nonnull CharSequence input) throws IllegalArgumentException {
+        requireNonNull(input);
+        return parse(input, 0, input.length());
+    }
+
+    /**
+     * Parses the whole range of <code>input</code> starting at <code>offset</code> with the given
+     * <code>length</code>. An empty range results in {@link ByteCount#ZERO}.
+     *
+     * @throws IllegalArgumentException  if the range could not be parsed.
+     * @throws IndexOutOfBoundsException if the range is not within <code>input</code>.
+     */
+    @Nonnull
+    public static ByteCount parse(@Nonnull CharSequence input, @Nonnegative int offset, @Nonnegative int length) throws IllegalArgumentException {
+        return parse(input, offset, length, Symbols.PLAIN);
+    }
+
+    @Nonnull
+    static ByteCount parse(@Nonnull CharSequence input, @Nonnegative int offset, @Nonnegative int length, @Nonnull Symbols symbols) throws IllegalArgumentException {
+        requireNonNull(input);
+        final int limit = checkRange(input, offset, length);
+        if (offset == limit) {
+            return ByteCount.ZERO;
+        }
+        final Accumulator accumulator = new Accumulator();
+        final int end = skipWhitespaces(input, parse(input, offset, limit, accumulator, symbols), limit);
+        if (end != limit) {
+            throw new IllegalArgumentException("Could not parse: " + input.subSequence(offset, limit));
+        }
+        return accumulator.toByteCount();
+    }
+
+    /**
+     * Parses the byte count at the start of the given range and ignores everything behind it. This allows to
+     * parse byte counts which are embedded inside of other content like log lines.
+     *
+     * @throws IllegalArgumentException  if there is no byte count at the start of the range.
+     * @throws IndexOutOfBoundsException if the range is not within <code>input</code>.
+     */
+    @Nonnull
+    public static Result scan(@Nonnull CharSequence input, @Nonnegative int offset, @Nonnegative int length) throws IllegalArgumentException {
+        requireNonNull(input);
+        final int limit = checkRange(input, offset, length);
+        final Accumulator accumulator = new Accumulator();
+        final int end = parse(input, offset, limit, accumulator, Symbols.PLAIN);
+        return new Result(accumulator.toByteCount(), end);
+    }
+
+    /**
+     * Numbers could contain grouping separators between digits and a fraction behind the decimal separator of the
+     * given <code>symbols</code>. Every part with a fraction is rounded {@link ByteUnit#ROUNDING_MODE half even} to
+     * whole bytes.
+     *
+     * @return the position directly behind the last parsed part.
+     */
+    @Nonnegative
+    static int parse(@Nonnull CharSequence input, @Nonnegative int offset, @Nonnegative int limit, @Nonnull Accumulator accumulator, @Nonnull Symbols symbols) throws IllegalArgumentException {
+        int end = -1;
+        int i = skipWhitespaces(input, offset, limit);
+        while (i < limit && symbols.digitOf(input.charAt(i)) >= 0) {
+            final int digitsStart = i;
+            long digits = 0;
+            boolean digitsOverflow = false;
+            do {
+                final int digit = symbols.digitOf(input.charAt(i));
+                if (digit < 0) {
+                    // Grouping separator
+                } else if (digitsOverflow || digits > (Long.MAX_VALUE - digit) / 10) {
+                    digitsOverflow = true;
+                } else {
+                    digits = digits * 10 + digit;
+                }
+                i++;
+            } while (i < limit && (symbols.digitOf(input.charAt(i)) >= 0 || symbols.isGroupingSeparatorAt(input, i, limit)));
+            final int digitsEnd = i;
+
+            long fraction = 0;
+            int fractionDigits = 0;
+            if (symbols.isDecimalSeparatorAt(input, i, limit)) {
+                i++;
+                do {
+                    if (fractionDigits < MAXIMUM_LONG_FRACTION_DIGITS) {
+                        fraction = fraction * 10 + symbols.digitOf(input.charAt(i));
+                    }
+                    fractionDigits++;
+                    i++;
+                } while (i < limit && symbols.digitOf(input.charAt(i)) >= 0);
+            }
+            final int numberEnd = i;
+
+            i = skipWhitespaces(input, i, limit);
+            final int nameStart = i;
+            long key = 0;
+            while (i < limit && isAsciiLetter(input.charAt(i))) {
+                if (i - nameStart < MAXIMUM_NAME_LENGTH) {
+                    key = (key << Byte.SIZE) | toLowerCase(input.charAt(i));
+                } else {
+                    key = 0;
+                }
+                i++;
+            }
+            final ByteUnit unit = nameStart < i && i - nameStart <= MAXIMUM_NAME_LENGTH ? unitOf(key) : null;
+            if (unit == null) {
+                if (end < 0 && numberEnd - digitsStart == 1 && digits == 0) {
+                    // A plain "0" is the formatted form of ZERO.
+                    end = digitsEnd;
+                }
+                break;
+            }
+            if (fractionDigits == 0) {
+                if (digitsOverflow) {
+                    accumulator.add(new BigInteger(symbols.normalize(input, digitsStart, digitsEnd)), unit);
+                } else {
+                    accumulator.add(digits, unit);
+                }
+            } else {
+                final long fractionBytes = digitsOverflow || fractionDigits > MAXIMUM_LONG_FRACTION_DIGITS ? -1L
+                    : fractionBytesOf(fraction, fractionDigits, unit, unit.exponent() == 0 && (digits & 1L) != 0);
+                if (fractionBytes >= 0) {
+                    accumulator.add(digits, unit);
+                    accumulator.add(fractionBytes, B);
+                } else {
+                    accumulator.add(new BigDecimal(symbols.normalize(input, digitsStart, numberEnd)), unit);
+                }
+            }
+            end = i;
+            i = skipWhitespaces(input, i, limit);
+        }
+        if (end < 0) {
+            throw new IllegalArgumentException("Could not parse: " + input.subSequence(offset, limit));
+        }
+        return end;
+    }
+
+    /**
+     * @param oddIntegerBytes if the bytes of the integer part in front of the fraction are odd to round ties to even.
+     * @return the bytes of <code>0.fraction</code> <code>unit</code> rounded {@link ByteUnit#ROUNDING_MODE half
+     * even} or <code>-1</code> if this could not be calculated with <code>long</code>s.
+     */
+    static long fractionBytesOf(@Nonnegative long fraction, @Nonnegative int fractionDigits, @Nonnull ByteUnit unit, boolean oddIntegerBytes) {
+        final long numerator;
+        final long denominator;
+        if (unit.kind() == binary) {
+            // 10^n = 2^n * 5^n - so up to n powers of two could be cancelled out of the base.
+            final int shift = unit.exponent() * 10;
+            final int cancelled = Math.min(shift, fractionDigits);
+            if (fraction > Long.MAX_VALUE >> (shift - cancelled)) {
+                return -1L;
+            }
+            numerator = fraction << (shift - cancelled);
+            denominator = LONG_POWERS_OF_10[fractionDigits] >> cancelled;
+        } else {
+            final int scale = unit.exponent() * 3;
+            if (scale >= fractionDigits) {
+                final long factor = LONG_POWERS_OF_10[scale - fractionDigits];
+                if (fraction > Long.MAX_VALUE / factor) {
+                    return -1L;
+                }
+                numerator = fraction * factor;
+                denominator = 1L;
+            } else {
+                numerator = fraction;
+                denominator = LONG_POWERS_OF_10[fractionDigits - scale];
+            }
+        }
+        final long result = numerator / denominator;
+        final int comparedToHalf = Long.compare((numerator % denominator) * 2, denominator);
+        if (comparedToHalf > 0 || (comparedToHalf == 0 && oddIntegerBytes != ((result & 1L) != 0))) {
+            return result + 1;
+        }
+        return result;
+    }
+
+    @Nullable
+    static ByteUnit unitOf(long key) {
+        final int index = Arrays.binarySearch(NAME_KEYS, key);
+        return index >= 0 ? NAME_UNITS[index] : null;
+    }
+
+    static long keyOf(@Nonnull String name) {
+        long key = 0;
+        for (int i = 0; i < name.length(); i++) {
+            key = (key << Byte.SIZE) | toLowerCase(name.charAt(i));
+        }
+        return key;
+    }
+
+    static int checkRange(@Nonnull CharSequence input, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > input.length() - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", input length: " + input.length());
+        }
+        return offset + length;
+    }
+
+    static int skipWhitespaces(@Nonnull CharSequence input, @Nonnegative int offset, @Nonnegative int limit) {
+        int i = offset;
+        while (i < limit && isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * Same as <code>\s</code> of {@link java.util.regex.Pattern}.
+     */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    static char toLowerCase(char asciiLetter) {
+        return (char) (asciiLetter | 0x20);
+    }
+
+    protected ByteCountParser() {
+    }
+
+    /**
+     * Locale specific symbols of numbers which are accepted in addition to ASCII digits.
+     */
+    @Immutable
+    static final class Symbols {
+
+        /**
+         * A noncharacter which never occurs in valid input.
+         */
+        static final char NONE = '\uFFFF';
+
+        /**
+         * Only plain integers.
+         */
+        static final Symbols PLAIN = new Symbols('0', NONE, NONE);
+
+        private final char zeroDigit;
+        private final char decimalSeparator;
+        private final char groupingSeparator;
+
+        Symbols(char zeroDigit, char decimalSeparator, char groupingSeparator) {
+            this.zeroDigit = zeroDigit;
+            this.decimalSeparator = decimalSeparator;
+            this.groupingSeparator = groupingSeparator != decimalSeparator ? groupingSeparator : NONE;
+        }
+
+        /**
+         * @return the value of the digit or <code>-1</code> if <code>c</code> is no digit.
+         */
+        int digitOf(char c) {
+            if (isDigit(c)) {
+                return c - '0';
+            }
+            final int result = c - zeroDigit;
+            return result >= 0 && result <= 9 ? result : -1;
+        }
+
+        boolean isGroupingSeparatorAt(@Nonnull CharSequence input, @Nonnegative int index, @Nonnegative int limit) {
+            return input.charAt(index) == groupingSeparator && index + 1 < limit && digitOf(input.charAt(index + 1)) >= 0;
+        }
+
+        boolean isDecimalSeparatorAt(@Nonnull CharSequence input, @Nonnegative int index, @Nonnegative int limit) {
+            return index + 1 < limit && input.charAt(index) == decimalSeparator && digitOf(input.charAt(index + 1)) >= 0;
+        }
+
+        /**
+         * @return the number inside the given range with ASCII digits, <code>.</code> as decimal separator and without
+         * grouping separators.
+         */
+        @Nonnull
+        String normalize(@Nonnull CharSequence input, @Nonnegative int start, @Nonnegative int end) {
+            final StringBuilder result = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                final char c = input.charAt(i);
+                final int digit = digitOf(c);
+                if (digit >= 0) {
+                    result.append((char) ('0' + digit));
+                } else if (c == decimalSeparator) {
+                    result.append('.');
+                }
+            }
+            return result.toString();
+        }
+
+    }
+
+    @Immutable
+    public static class Result {
+
+        @Nonnull
+        private final ByteCount value;
+        @Nonnegative
+        private final int end;
+
+        protected Result(@Nonnull ByteCount value, @Nonnegative int end) {
+            this.value = value;
+            this.end = end;
+        }
+
+        @Nonnull
+        public ByteCount value() {
+            return value;
+        }
+
+        /**
+         * @return the position inside of the input directly behind the parsed byte count.
+         */
+        @Nonnegative
+        public int end() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return value + "@" + end;
+        }
+    }
+
+    /**
+     * Sums up all parts as <code>long</code> and only switches to {@link BigInteger} on overflow.
+     */
+    static class Accumulator {
+
+        private long value;
+        @Nullable
+        private BigInteger bigIntegerValue;
+
+        void add(long digits, @Nonnull ByteUnit unit) {
+            if (bigIntegerValue == null) {
+                try {
+                    value = Math.addExact(value, Math.multiplyExact(digits, unit.longBase()));
+                    return;
+                } catch (final ArithmeticException ignored) {
+                    // Continue with BigInteger...
+                }
+            }
+            add(BigInteger.valueOf(digits), unit);
+        }
+
+        void add(@Nonnull BigInteger digits, @Nonnull ByteUnit unit) {
+            final BigInteger current = bigIntegerValue != null ? bigIntegerValue : BigInteger.valueOf(value);
+            bigIntegerValue = current.add(digits.multiply(unit.bigIntegerBase()));
+        }
+
+        void add(@Nonnull BigDecimal digits, @Nonnull ByteUnit unit) {
+            add(digits.multiply(unit.bigDecimalBase()).setScale(0, ROUNDING_MODE).toBigInteger(), B);
+        }
+
+        @Nonnull
+        ByteCount toByteCount() {
+            return bigIntegerValue != null ? ByteCount.valueOf(bigIntegerValue) : ByteCount.valueOf(value);
+        }
+    }
+
+}
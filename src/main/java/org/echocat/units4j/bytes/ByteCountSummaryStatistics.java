@@ -0,0 +1,198 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.echocat.units4j.bytes.ByteCountAdder.overflows;
+
+/**
+ * Collects count, sum, minimum, maximum and average of byte counts like {@link java.util.LongSummaryStatistics} but
+ * with an exact sum - also if it does not fit into a <code>long</code>. All state is kept in primitives as long as
+ * possible. Designed to be used with {@link ByteCountCollectors#summarizing()}.
+ */
+@NotThreadSafe
+public class ByteCountSummaryStatistics implements LongConsumer, Consumer<ByteCount> {
+
+    @Nonnegative
+    private long count;
+    private long sum;
+    /**
+     * Holds everything which does not fit into {@link #sum} anymore.
+     */
+    @Nullable
+    private BigInteger overflow;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    /**
+     * Minimum and maximum of all values which do not fit into a <code>long</code>.
+     */
+    @Nullable
+    private BigInteger bigIntegerMin;
+    @Nullable
+    private BigInteger bigIntegerMax;
+
+    @Override
+    public void accept(long bytes) {
+        count++;
+        addToSum(bytes);
+        min = Math.min(min, bytes);
+        max = Math.max(max, bytes);
+    }
+
+    @Override
+    public void accept(@Nullable ByteCount value) {
+        if (value == null) {
+            return;
+        }
+        if (value.isLongValue()) {
+            accept(value.longValue());
+        } else {
+            count++;
+            acceptBigInteger(value.bigIntegerValue());
+        }
+    }
+
+    /**
+     * Adds the state of <code>other</code> to this one.
+     */
+    @Nonnull
+    public ByteCountSummaryStatistics combine(@Nonnull ByteCountSummaryStatistics other) {
+        count += other.count;
+        addToSum(other.sum);
+        if (other.overflow != null) {
+            overflow = overflow != null ? overflow.add(other.overflow) : other.overflow;
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        if (other.bigIntegerMin != null) {
+            bigIntegerMin = minOf(bigIntegerMin, other.bigIntegerMin);
+            bigIntegerMax = maxOf(bigIntegerMax, other.bigIntegerMax);
+        }
+        return this;
+    }
+
+    @Nonnegative
+    public long count() {
+        return count;
+    }
+
+    @Nonnull
+    public ByteCount sum() {
+        return overflow != null ? ByteCount.valueOf(overflow.add(BigInteger.valueOf(sum))) : ByteCount.valueOf(sum);
+    }
+
+    @Nonnull
+    public Optional<ByteCount> min() {
+        if (count == 0) {
+            return empty();
+        }
+        // Values beyond a long are either smaller or greater than every long value.
+        if (bigIntegerMin != null && (bigIntegerMin.signum() < 0 || !hasLongValues())) {
+            return of(ByteCount.valueOf(bigIntegerMin));
+        }
+        return of(ByteCount.valueOf(min));
+    }
+
+    @Nonnull
+    public Optional<ByteCount> max() {
+        if (count == 0) {
+            return empty();
+        }
+        if (bigIntegerMax != null && (bigIntegerMax.signum() > 0 || !hasLongValues())) {
+            return of(ByteCount.valueOf(bigIntegerMax));
+        }
+        return of(ByteCount.valueOf(max));
+    }
+
+    /**
+     * @return the exact average rounded {@link ByteUnit#ROUNDING_MODE half even} to whole bytes.
+     */
+    @Nonnull
+    public Optional<ByteCount> average() {
+        if (count == 0) {
+            return empty();
+        }
+        if (overflow == null) {
+            return of(ByteCount.valueOf(roundedDivide(sum, count)));
+        }
+        final BigDecimal average = new BigDecimal(sum().bigIntegerValue()).divide(BigDecimal.valueOf(count), 0, ByteUnit.ROUNDING_MODE);
+        return of(ByteCount.valueOf(average));
+    }
+
+    /**
+     * @return the average as <code>double</code> or <code>0</code> if nothing was recorded.
+     */
+    public double averageAsDouble() {
+        if (count == 0) {
+            return 0d;
+        }
+        if (overflow == null) {
+            return (double) sum / count;
+        }
+        return new BigDecimal(sum().bigIntegerValue()).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64).doubleValue();
+    }
+
+    @Override
+    public String toString() {
+        return "ByteCountSummaryStatistics{count=" + count()
+            + ", sum=" + sum()
+            + ", min=" + min().orElse(null)
+            + ", average=" + average().orElse(null)
+            + ", max=" + max().orElse(null)
+            + '}';
+    }
+
+    void addToSum(long bytes) {
+        final long next = sum + bytes;
+        if (overflows(sum, bytes, next)) {
+            final BigInteger current = BigInteger.valueOf(sum).add(BigInteger.valueOf(bytes));
+            overflow = overflow != null ? overflow.add(current) : current;
+            sum = 0L;
+        } else {
+            sum = next;
+        }
+    }
+
+    void acceptBigInteger(@Nonnull BigInteger value) {
+        overflow = overflow != null ? overflow.add(value) : value;
+        bigIntegerMin = minOf(bigIntegerMin, value);
+        bigIntegerMax = maxOf(bigIntegerMax, value);
+    }
+
+    private boolean hasLongValues() {
+        return min <= max;
+    }
+
+    @Nonnull
+    private static BigInteger minOf(@Nullable BigInteger current, @Nonnull BigInteger candidate) {
+        return current == null || candidate.compareTo(current) < 0 ? candidate : current;
+    }
+
+    @Nonnull
+    private static BigInteger maxOf(@Nullable BigInteger current, @Nonnull BigInteger candidate) {
+        return current == null || candidate.compareTo(current) > 0 ? candidate : current;
+    }
+
+    static long roundedDivide(long dividend, @Nonnegative long divisor) {
+        final long quotient = dividend / divisor;
+        final long remainder = dividend % divisor;
+        // Compare 2 * |remainder| with divisor without overflowing.
+        final long absoluteRemainder = Math.abs(remainder);
+        final int comparedToHalf = Long.compare(absoluteRemainder, divisor - absoluteRemainder);
+        if (comparedToHalf > 0 || (comparedToHalf == 0 && (quotient & 1) != 0)) {
+            return dividend < 0 ? quotient - 1 : quotient + 1;
+        }
+        return quotient;
+    }
+
+}
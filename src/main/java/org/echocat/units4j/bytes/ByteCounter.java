@@ -0,0 +1,22 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Something which counts transferred bytes in a plain <code>long</code>.
+ */
+public interface ByteCounter {
+
+    @Nonnegative
+    long count();
+
+    /**
+     * @return the {@link #count()} as {@link ByteCount} which is only created on request.
+     */
+    @Nonnull
+    default ByteCount byteCount() {
+        return ByteCount.valueOf(count());
+    }
+
+}
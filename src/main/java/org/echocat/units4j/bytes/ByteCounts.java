@@ -0,0 +1,236 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveTask;
+
+import static java.nio.file.FileVisitResult.CONTINUE;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static org.echocat.units4j.bytes.TreeMeasureOptions.defaultTreeMeasureOptions;
+
+/**
+ * Measures byte counts of things.
+ */
+public class ByteCounts {
+
+    private static final LinkOption[] FOLLOW_LINKS = new LinkOption[0];
+    private static final LinkOption[] DO_NOT_FOLLOW_LINKS = new LinkOption[]{NOFOLLOW_LINKS};
+    private static final Set<FileVisitOption> VISIT_FOLLOWING_LINKS = EnumSet.of(FileVisitOption.FOLLOW_LINKS);
+    private static final Set<FileVisitOption> VISIT_NOT_FOLLOWING_LINKS = EnumSet.noneOf(FileVisitOption.class);
+
+    @Nonnull
+    public static TreeMeasurement measureTree(@Nonnull Path root) throws IOException {
+        return measureTree(root, defaultTreeMeasureOptions());
+    }
+
+    /**
+     * Sums up the sizes of all files below <code>root</code> - or of <code>root</code> itself if it is a file.
+     *
+     * <p>Every directory is listed by its own {@link java.util.concurrent.ForkJoinTask} using
+     * {@link Files#walkFileTree(Path, Set, int, java.nio.file.FileVisitor) Files.walkFileTree()} with a depth of one,
+     * so the {@link BasicFileAttributes} of the entries are taken from the listing where the file system provides
+     * them (like on Windows) instead of reading them for every entry again. All sizes are summed up as
+     * <code>long</code> per directory and only combined with the results of the subdirectories afterwards.</p>
+     */
+    @Nonnull
+    public static TreeMeasurement measureTree(@Nonnull Path root, @Nonnull TreeMeasureOptions options) throws IOException {
+        final Walker walker = new Walker(root, options);
+        final BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class, walker.linkOptions);
+        if (!attributes.isDirectory()) {
+            return new TreeMeasurement(root, ByteCount.valueOf(options.countedSizeOf(attributes.size())), 1L, 0L, 0L, walker.breakdown);
+        }
+        walker.firstVisitOf(attributes);
+        final Partial result;
+        try {
+            result = options.pool().invoke(walker.new DirectoryTask(root, 0));
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new TreeMeasurement(root, ByteCount.valueOf(result.bytes), result.files, result.directories, result.failures, walker.breakdown);
+    }
+
+    static final class Walker {
+
+        @Nonnull
+        final Path root;
+        @Nonnull
+        final TreeMeasureOptions options;
+        @Nonnull
+        final LinkOption[] linkOptions;
+        @Nonnull
+        final Set<FileVisitOption> visitOptions;
+        @Nonnull
+        final List<PathMatcher> excludes;
+        /**
+         * Keys of all visited directories to detect cycles while following links.
+         */
+        @Nonnull
+        final Set<Object> visited = ConcurrentHashMap.newKeySet();
+        @Nonnull
+        final Map<Path, ByteCount> breakdown = new ConcurrentHashMap<>();
+
+        Walker(@Nonnull Path root, @Nonnull TreeMeasureOptions options) {
+            this.root = root;
+            this.options = options;
+            this.linkOptions = options.isFollowSymlinks() ? FOLLOW_LINKS : DO_NOT_FOLLOW_LINKS;
+            this.visitOptions = options.isFollowSymlinks() ? VISIT_FOLLOWING_LINKS : VISIT_NOT_FOLLOWING_LINKS;
+            this.excludes = options.excludeMatchersFor(root.getFileSystem());
+        }
+
+        boolean isExcluded(@Nonnull Path entry) {
+            if (excludes.isEmpty()) {
+                return false;
+            }
+            final Path relative = root.relativize(entry);
+            final Path fileName = entry.getFileName();
+            for (final PathMatcher exclude : excludes) {
+                if (exclude.matches(relative) || (fileName != null && exclude.matches(fileName))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Without following links there could be no cycles. If the file system does not provide file keys cycles could
+         * not be detected.
+         */
+        boolean firstVisitOf(@Nonnull BasicFileAttributes directory) {
+            if (!options.isFollowSymlinks()) {
+                return true;
+            }
+            final Object key = directory.fileKey();
+            return key == null || visited.add(key);
+        }
+
+        /**
+         * While following links {@link Files#walkFileTree(Path, Set, int, java.nio.file.FileVisitor)} falls back to the
+         * attributes of the link itself if its target could not be read. Read them again to get the actual error.
+         */
+        @Nonnull
+        BasicFileAttributes resolved(@Nonnull Path entry, @Nonnull BasicFileAttributes attributes) throws IOException {
+            if (options.isFollowSymlinks() && attributes.isSymbolicLink()) {
+                return Files.readAttributes(entry, BasicFileAttributes.class, linkOptions);
+            }
+            return attributes;
+        }
+
+        void failed(@Nonnull IOException e, @Nonnull Partial partial) {
+            if (!options.isIgnoreErrors()) {
+                throw new UncheckedIOException(e);
+            }
+            partial.failures++;
+        }
+
+        final class DirectoryTask extends RecursiveTask<Partial> {
+
+            private static final long serialVersionUID = 1L;
+
+            @Nonnull
+            private final Path directory;
+            @Nonnegative
+            private final int depth;
+
+            DirectoryTask(@Nonnull Path directory, @Nonnegative int depth) {
+                this.directory = directory;
+                this.depth = depth;
+            }
+
+            @Override
+            protected Partial compute() {
+                final Partial result = new Partial();
+                result.directories = 1L;
+                final List<DirectoryTask> subdirectories = new ArrayList<>();
+                try {
+                    Files.walkFileTree(directory, visitOptions, 1, new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult visitFile(Path entry, BasicFileAttributes entryAttributes) {
+                            if (isExcluded(entry)) {
+                                return CONTINUE;
+                            }
+                            final BasicFileAttributes attributes;
+                            try {
+                                attributes = resolved(entry, entryAttributes);
+                            } catch (final IOException e) {
+                                failed(e, result);
+                                return CONTINUE;
+                            }
+                            if (attributes.isDirectory()) {
+                                if (firstVisitOf(attributes)) {
+                                    subdirectories.add(new DirectoryTask(entry, depth + 1));
+                                }
+                            } else {
+                                result.files++;
+                                result.bytes += options.countedSizeOf(attributes.size());
+                            }
+                            return CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path entry, IOException e) {
+                            if (!isExcluded(entry)) {
+                                failed(e, result);
+                            }
+                            return CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult postVisitDirectory(Path ignored, IOException e) {
+                            if (e != null) {
+                                failed(e, result);
+                            }
+                            return CONTINUE;
+                        }
+                    });
+                } catch (final IOException e) {
+                    failed(e, result);
+                }
+                for (final DirectoryTask subdirectory : invokeAll(subdirectories)) {
+                    result.add(subdirectory.join());
+                }
+                if (depth > 0 && depth <= options.breakdownDepth()) {
+                    breakdown.put(directory, ByteCount.valueOf(result.bytes));
+                }
+                return result;
+            }
+
+        }
+
+    }
+
+    static final class Partial {
+
+        long bytes;
+        long files;
+        long directories;
+        long failures;
+
+        void add(@Nonnull Partial other) {
+            bytes += other.bytes;
+            files += other.files;
+            directories += other.directories;
+            failures += other.failures;
+        }
+
+    }
+
+    protected ByteCounts() {
+    }
+
+}
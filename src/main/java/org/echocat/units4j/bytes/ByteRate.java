@@ -0,0 +1,198 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Locale.US;
+import static java.util.Objects.hash;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.*;
+import static org.echocat.units4j.bytes.ByteCountFormat.byteCountFormat;
+import static org.echocat.units4j.bytes.ByteUnit.ROUNDING_MODE;
+
+/**
+ * A {@link ByteCount} per {@link TimeUnit} like <code>12MiB/s</code>.
+ */
+@Immutable
+public class ByteRate implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long NANOS_PER_SECOND = SECONDS.toNanos(1);
+
+    private static final ByteCountFormat DEFAULT_FORMAT = byteCountFormat()
+        .withLocale(US)
+        .withMaximumFractionDigits(2)
+        .build();
+
+    @Nonnull
+    public static ByteRate valueOf(@Nonnull ByteCount byteCount, @Nonnull TimeUnit timeUnit) {
+        return new ByteRate(byteCount, timeUnit);
+    }
+
+    @Nonnull
+    public static ByteRate valueOf(long bytes, @Nonnull TimeUnit timeUnit) {
+        return new ByteRate(ByteCount.valueOf(bytes), timeUnit);
+    }
+
+    /**
+     * @return the rate per second, rounded to whole bytes.
+     */
+    @Nonnull
+    public static ByteRate bytesPerSecond(double bytesPerSecond) {
+        if (Double.isNaN(bytesPerSecond) || Double.isInfinite(bytesPerSecond)) {
+            throw new IllegalArgumentException("Given bytesPerSecond is not finite: " + bytesPerSecond);
+        }
+        if (Math.abs(bytesPerSecond) < 0x1p63) {
+            return valueOf(Math.round(bytesPerSecond), SECONDS);
+        }
+        return valueOf(ByteCount.valueOf(BigDecimal.valueOf(bytesPerSecond)), SECONDS);
+    }
+
+    /**
+     * @return the rate per second of <code>transferred</code> bytes within <code>elapsed</code> time.
+     */
+    @Nonnull
+    public static ByteRate between(@Nonnull ByteCount transferred, @Nonnull Duration elapsed) {
+        requireNonNull(transferred);
+        requireNonNull(elapsed);
+        if (elapsed.isZero() || elapsed.isNegative()) {
+            throw new IllegalArgumentException("Given elapsed duration is not positive: " + elapsed);
+        }
+        final BigDecimal nanos = BigDecimal.valueOf(elapsed.getSeconds()).multiply(BigDecimal.valueOf(NANOS_PER_SECOND)).add(BigDecimal.valueOf(elapsed.getNano()));
+        final BigDecimal perSecond = transferred.bigDecimalValue().multiply(BigDecimal.valueOf(NANOS_PER_SECOND)).divide(nanos, 0, ROUNDING_MODE);
+        return valueOf(ByteCount.valueOf(perSecond), SECONDS);
+    }
+
+    /**
+     * Parses values like <code>200MiB/s</code>, <code>1GB / min</code>, <code>1.5KiB/s</code> or <code>5MiB</code>.
+     * Without a time unit the rate is per second. Everything {@link #toString()} returns could be parsed again.
+     *
+     * @throws IllegalArgumentException if the value could not be parsed.
+     */
+    @Nullable
+    public static ByteRate valueOf(@Nullable String plain) throws IllegalArgumentException {
+        if (plain == null) {
+            return null;
+        }
+        final int slash = plain.lastIndexOf('/');
+        if (slash < 0) {
+            return valueOf(DEFAULT_FORMAT.parse(plain), SECONDS);
+        }
+        final TimeUnit timeUnit = timeUnitForSymbol(plain.substring(slash + 1).trim());
+        if (timeUnit == null) {
+            throw new IllegalArgumentException("Could not parse: " + plain);
+        }
+        return valueOf(DEFAULT_FORMAT.parse(plain, 0, slash), timeUnit);
+    }
+
+    @Nonnull
+    public static String symbolOf(@Nonnull TimeUnit timeUnit) {
+        switch (timeUnit) {
+            case NANOSECONDS:
+                return "ns";
+            case MICROSECONDS:
+                return "µs";
+            case MILLISECONDS:
+                return "ms";
+            case SECONDS:
+                return "s";
+            case MINUTES:
+                return "min";
+            case HOURS:
+                return "h";
+            case DAYS:
+                return "d";
+            default:
+                throw new IllegalArgumentException("Could not handle: " + timeUnit);
+        }
+    }
+
+    @Nullable
+    static TimeUnit timeUnitForSymbol(@Nonnull String symbol) {
+        for (final TimeUnit candidate : TimeUnit.values()) {
+            if (symbolOf(candidate).equals(symbol)) {
+                return candidate;
+            }
+        }
+        return "us".equals(symbol) ? MICROSECONDS : null;
+    }
+
+    @Nonnull
+    private final ByteCount byteCount;
+    @Nonnull
+    private final TimeUnit timeUnit;
+
+    public ByteRate(@Nonnull ByteCount byteCount, @Nonnull TimeUnit timeUnit) {
+        this.byteCount = requireNonNull(byteCount);
+        this.timeUnit = requireNonNull(timeUnit);
+    }
+
+    @Nonnull
+    public ByteCount byteCount() {
+        return byteCount;
+    }
+
+    @Nonnull
+    public TimeUnit timeUnit() {
+        return timeUnit;
+    }
+
+    public double bytesPerSecond() {
+        return byteCount.doubleValue() * NANOS_PER_SECOND / timeUnit.toNanos(1);
+    }
+
+    /**
+     * @return this rate expressed per <code>targetTimeUnit</code>. If the target is smaller the byte count is
+     * truncated towards zero.
+     */
+    @Nonnull
+    public ByteRate to(@Nonnull TimeUnit targetTimeUnit) {
+        requireNonNull(targetTimeUnit);
+        final long sourceNanos = timeUnit.toNanos(1);
+        final long targetNanos = targetTimeUnit.toNanos(1);
+        if (targetNanos >= sourceNanos) {
+            return valueOf(byteCount.multiply(targetNanos / sourceNanos), targetTimeUnit);
+        }
+        return valueOf(byteCount.divide(sourceNanos / targetNanos), targetTimeUnit);
+    }
+
+    /**
+     * @return the bytes transferred with this rate within the given <code>duration</code>, truncated towards zero.
+     */
+    @Nonnull
+    public ByteCount over(@Nonnull Duration duration) {
+        requireNonNull(duration);
+        final BigInteger nanos = BigInteger.valueOf(duration.getSeconds()).multiply(BigInteger.valueOf(NANOS_PER_SECOND)).add(BigInteger.valueOf(duration.getNano()));
+        return ByteCount.valueOf(byteCount.bigIntegerValue().multiply(nanos).divide(BigInteger.valueOf(timeUnit.toNanos(1))));
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(byteCount, timeUnit);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ByteRate)) {
+            return false;
+        }
+        final ByteRate other = (ByteRate) o;
+        return byteCount.equals(other.byteCount) && timeUnit == other.timeUnit;
+    }
+
+    @Override
+    public String toString() {
+        return DEFAULT_FORMAT.format(this);
+    }
+
+}
@@ -0,0 +1,341 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Token bucket which limits transferred bytes to a {@link ByteRate} but allows bursts up to a
+ * {@link Builder#withBurst(ByteCount) burst size}.
+ *
+ * <p>The whole bucket is one <code>long</code>: the time at which all granted bytes are paid off. Every acquisition
+ * moves this time forward with a single CAS and - if the bucket does not contain enough bytes - sleeps until its bytes
+ * are paid off without holding any lock. Because the bytes are reserved before sleeping, acquisitions are granted in
+ * the order they arrived and a big acquisition could not be overtaken by many small ones. Costs are calculated in
+ * 1/65536 nanoseconds and the fractions of nanoseconds are summed up separately, so also single bytes at rates of many
+ * GB/s are charged exactly.</p>
+ *
+ * <p>The throttled streams and channels of {@link ThrottledInputStream}, {@link ThrottledOutputStream},
+ * {@link ThrottledReadableByteChannel} and {@link ThrottledWritableByteChannel} only acquire once per
+ * {@link Builder#withBatchSize(ByteCount) batch} of transferred bytes.</p>
+ */
+@ThreadSafe
+public class ByteRateLimiter {
+
+    private static final AtomicLongFieldUpdater<ByteRateLimiter> PAID_OFF = AtomicLongFieldUpdater.newUpdater(ByteRateLimiter.class, "paidOffNanos");
+    private static final AtomicLongFieldUpdater<ByteRateLimiter> FRACTIONS = AtomicLongFieldUpdater.newUpdater(ByteRateLimiter.class, "fractions");
+    private static final double NANOS_PER_SECOND = 1e9d;
+    /**
+     * Costs are fixed point numbers of 1/65536 nanoseconds.
+     */
+    private static final int FRACTION_BITS = 16;
+    private static final long FRACTION_MASK = (1L << FRACTION_BITS) - 1;
+    /**
+     * About 9.8 hours: the maximum time until all granted bytes are paid off.
+     */
+    private static final long MAXIMUM_DEBT = 1L << 61;
+
+    /**
+     * @param rate use for example <code>ByteRate.valueOf("200MiB/s")</code> to read it from a configuration.
+     */
+    @Nonnull
+    public static Builder byteRateLimiter(@Nonnull ByteRate rate) throws IllegalArgumentException {
+        return new Builder(rate);
+    }
+
+    @Nonnull
+    private final LongSupplier nanoClock;
+    @Nonnull
+    private final ByteRate rate;
+    private final double unitsPerByte;
+    @Nonnegative
+    private final long burst;
+    @Nonnegative
+    private final long burstUnits;
+    @Nonnegative
+    private final long batchSize;
+
+    /**
+     * Whole nanoseconds like {@link System#nanoTime()}, so it could lag behind the clock for as long as nothing is
+     * acquired.
+     */
+    private volatile long paidOffNanos;
+    /**
+     * Sum of all costs of which only the lowest {@link #FRACTION_BITS} are used: the fraction of a nanosecond granted
+     * bytes cost beyond {@link #paidOffNanos}. Every carry of it is charged as one nanosecond.
+     */
+    private volatile long fractions;
+
+    protected ByteRateLimiter(
+        @Nonnull LongSupplier nanoClock,
+        @Nonnull ByteRate rate,
+        @Nonnegative long burst,
+        @Nonnegative long batchSize
+    ) {
+        this.nanoClock = nanoClock;
+        this.rate = rate;
+        this.unitsPerByte = NANOS_PER_SECOND * (1L << FRACTION_BITS) / rate.bytesPerSecond();
+        this.burst = burst;
+        this.burstUnits = costOf(burst);
+        if (burstUnits > MAXIMUM_DEBT / 2) {
+            throw new IllegalArgumentException("Given burst " + ByteCount.valueOf(burst) + " is too big for a rate of " + rate + ".");
+        }
+        this.batchSize = Math.min(batchSize, burst);
+        this.paidOffNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes <code>bytes</code> out of the bucket and waits until they are paid off, if the bucket does not contain
+     * them. The bytes are also taken if the waiting thread gets interrupted.
+     *
+     * @return how long it was waited in nanoseconds.
+     */
+    @Nonnegative
+    public long acquire(@Nonnegative long bytes) throws IllegalArgumentException, InterruptedException {
+        final long waitNanos = reserve(bytes, Long.MAX_VALUE);
+        if (waitNanos > 0) {
+            NANOSECONDS.sleep(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Same as {@link #acquire(long)} but saturates at {@link Long#MAX_VALUE} bytes.
+     */
+    @Nonnull
+    public Duration acquire(@Nonnull ByteCount bytes) throws IllegalArgumentException, InterruptedException {
+        return Duration.ofNanos(acquire(ByteBudget.bytesOf(bytes)));
+    }
+
+    /**
+     * @return <code>true</code> if the bucket contained <code>bytes</code> which are now taken out of it.
+     */
+    public boolean tryAcquire(@Nonnegative long bytes) throws IllegalArgumentException {
+        return reserve(bytes, 0L) >= 0L;
+    }
+
+    public boolean tryAcquire(@Nonnull ByteCount bytes) throws IllegalArgumentException {
+        return tryAcquire(ByteBudget.bytesOf(bytes));
+    }
+
+    /**
+     * Takes <code>bytes</code> out of the bucket only if they are paid off within <code>timeout</code> and waits for
+     * it.
+     *
+     * @return <code>true</code> if <code>bytes</code> were acquired.
+     */
+    public boolean tryAcquire(@Nonnegative long bytes, long timeout, @Nonnull TimeUnit unit) throws IllegalArgumentException, InterruptedException {
+        final long waitNanos = reserve(bytes, Math.max(unit.toNanos(timeout), 0L));
+        if (waitNanos < 0) {
+            return false;
+        }
+        if (waitNanos > 0) {
+            NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    @Nonnull
+    public ByteRate rate() {
+        return rate;
+    }
+
+    @Nonnull
+    public ByteCount burst() {
+        return ByteCount.valueOf(burst);
+    }
+
+    @Nonnull
+    public ByteCount batchSize() {
+        return ByteCount.valueOf(batchSize);
+    }
+
+    /**
+     * @return how many bytes the bucket currently contains.
+     */
+    @Nonnull
+    public ByteCount available() {
+        final long debtNanos = paidOffNanos - nanoClock.getAsLong();
+        if (debtNanos <= 0) {
+            return ByteCount.valueOf(burst);
+        }
+        return ByteCount.valueOf(Math.max(burst - (long) Math.ceil((debtNanos << FRACTION_BITS) / unitsPerByte), 0L));
+    }
+
+    @Override
+    public String toString() {
+        return "ByteRateLimiter{rate=" + rate + ", burst=" + burst() + ", available=" + available() + '}';
+    }
+
+    /**
+     * @return how long to wait until <code>bytes</code> are paid off or <code>-1</code> if this exceeds
+     * <code>maximumWaitNanos</code> and nothing was reserved.
+     * @throws IllegalArgumentException if <code>bytes</code> could not be paid off within about 9.8 hours.
+     */
+    long reserve(@Nonnegative long bytes, @Nonnegative long maximumWaitNanos) throws IllegalArgumentException {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Given bytes value is negative: " + bytes);
+        }
+        final long cost = costOf(bytes);
+        if (cost > MAXIMUM_DEBT) {
+            return tooBig(bytes, maximumWaitNanos);
+        }
+        // Only the lowest bits matter for the carry, so it does not matter if the sum overflows.
+        final long previousFraction = FRACTIONS.getAndAdd(this, cost) & FRACTION_MASK;
+        final long now = nanoClock.getAsLong();
+        while (true) {
+            final long current = paidOffNanos;
+            // Differences of whole nanoseconds do not overflow, however long the bucket was idle.
+            final long pendingNanos = current - now;
+            // The fraction left by former acquisitions is paid off as soon as the clock passed the paid off time.
+            final long fraction = (pendingNanos >= 0 ? previousFraction : 0L) + cost;
+            final long remainingFraction = fraction & FRACTION_MASK;
+            final long debtNanos = Math.max(pendingNanos, 0L) + (fraction >>> FRACTION_BITS);
+            final long debt = (debtNanos << FRACTION_BITS) + remainingFraction;
+            if (debt > MAXIMUM_DEBT) {
+                FRACTIONS.getAndAdd(this, -cost);
+                return tooBig(bytes, maximumWaitNanos);
+            }
+            final long waitNanos = nanosOf(debt - burstUnits);
+            if (waitNanos > maximumWaitNanos) {
+                FRACTIONS.getAndAdd(this, -cost);
+                return -1L;
+            }
+            if (PAID_OFF.compareAndSet(this, current, now + debtNanos)) {
+                return waitNanos;
+            }
+        }
+    }
+
+    private long tooBig(@Nonnegative long bytes, @Nonnegative long maximumWaitNanos) throws IllegalArgumentException {
+        if (maximumWaitNanos < nanosOf(MAXIMUM_DEBT)) {
+            return -1L;
+        }
+        throw new IllegalArgumentException("Given bytes value " + ByteCount.valueOf(bytes) + " could not be paid off within " + Duration.ofNanos(nanosOf(MAXIMUM_DEBT)) + " at " + rate + ".");
+    }
+
+    /**
+     * @return the fixed point time <code>bytes</code> cost. The error is at most 1/131072 nanoseconds per
+     * acquisition - or <code>MAXIMUM_DEBT + 1</code> if they cost more than that.
+     */
+    @Nonnegative
+    long costOf(@Nonnegative long bytes) {
+        final double result = Math.rint(bytes * unitsPerByte);
+        return result < MAXIMUM_DEBT ? (long) result : MAXIMUM_DEBT + 1;
+    }
+
+    /**
+     * @return the given fixed point time rounded up to whole nanoseconds.
+     */
+    @Nonnegative
+    static long nanosOf(long units) {
+        return units > 0 ? (units + (1L << FRACTION_BITS) - 1) >> FRACTION_BITS : 0L;
+    }
+
+    /**
+     * @return how many bytes should be transferred at most at once.
+     */
+    @Nonnegative
+    int chunkOf(@Nonnegative int length) {
+        return (int) Math.min(length, burst);
+    }
+
+    /**
+     * Adds <code>transferred</code> bytes to the <code>pending</code> ones of a stream or channel and acquires them
+     * if they reach the {@link #batchSize()}.
+     *
+     * @return the bytes which are still pending.
+     */
+    @Nonnegative
+    long charge(@Nonnegative long pending, @Nonnegative long transferred) throws InterruptedIOException {
+        final long result = pending + transferred;
+        if (result < batchSize) {
+            return result;
+        }
+        try {
+            acquire(result);
+        } catch (final InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + ByteCount.valueOf(result) + ".");
+        }
+        return 0L;
+    }
+
+    public static class Builder {
+
+        @Nonnull
+        private final ByteRate rate;
+        @Nonnull
+        private Optional<LongSupplier> nanoClock = empty();
+        @Nonnull
+        private Optional<ByteCount> burst = empty();
+        @Nonnull
+        private Optional<ByteCount> batchSize = empty();
+
+        protected Builder(@Nonnull ByteRate rate) throws IllegalArgumentException {
+            requireNonNull(rate);
+            final double bytesPerSecond = rate.bytesPerSecond();
+            if (!(bytesPerSecond > 0d) || Double.isInfinite(bytesPerSecond)) {
+                throw new IllegalArgumentException("Given rate value is not positive or too big: " + rate);
+            }
+            this.rate = rate;
+        }
+
+        @Nonnull
+        public Builder withNanoClock(@Nullable LongSupplier nanoClock) {
+            this.nanoClock = ofNullable(nanoClock);
+            return this;
+        }
+
+        /**
+         * How many bytes could be acquired at once without waiting after nothing was transferred for a while.
+         * Default is what the rate allows in one second.
+         */
+        @Nonnull
+        public Builder withBurst(@Nullable ByteCount burst) throws IllegalArgumentException {
+            if (burst != null && (!burst.isLongValue() || burst.longValue() <= 0)) {
+                throw new IllegalArgumentException("Given burst value is not positive or too big: " + burst);
+            }
+            this.burst = ofNullable(burst);
+            return this;
+        }
+
+        /**
+         * How many bytes throttled streams and channels transfer before they acquire them. Bigger batches cause less
+         * synchronization but a stream could exceed the rate by up to one batch. Default is <code>64KiB</code> but
+         * never more than the burst.
+         */
+        @Nonnull
+        public Builder withBatchSize(@Nullable ByteCount batchSize) throws IllegalArgumentException {
+            if (batchSize != null && (!batchSize.isLongValue() || batchSize.longValue() <= 0)) {
+                throw new IllegalArgumentException("Given batchSize value is not positive or too big: " + batchSize);
+            }
+            this.batchSize = ofNullable(batchSize);
+            return this;
+        }
+
+        @Nonnull
+        public ByteRateLimiter build() {
+            return new ByteRateLimiter(
+                nanoClock.orElse(System::nanoTime),
+                rate,
+                burst.map(ByteCount::longValue).orElseGet(() -> Math.max(Math.min((long) rate.bytesPerSecond(), Long.MAX_VALUE >> 2), 1L)),
+                batchSize.map(ByteCount::longValue).orElse(64L * 1024L)
+            );
+        }
+
+    }
+
+}
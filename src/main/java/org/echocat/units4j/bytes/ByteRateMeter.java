@@ -0,0 +1,224 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Measures the throughput of recorded bytes as exponentially weighted moving average and as sliding window rates.
+ *
+ * <p>{@link #record(long)} only increments a striped counter. The time based bookkeeping happens lazily in
+ * {@link #tick()} which is called by every read and could also be called periodically (for example once per bucket
+ * duration) to keep the sliding windows accurate if reads are rare. Bytes recorded between two ticks are spread evenly
+ * over all buckets which elapsed in between.</p>
+ */
+@ThreadSafe
+public class ByteRateMeter {
+
+    @Nonnull
+    public static Builder byteRateMeter() {
+        return new Builder();
+    }
+
+    @Nonnull
+    private final LongSupplier nanoClock;
+    @Nonnegative
+    private final long bucketNanos;
+    @Nonnegative
+    private final double averageWindowNanos;
+
+    private final LongAdder total = new LongAdder();
+    private final AtomicLongArray buckets;
+    private final AtomicBoolean ticking = new AtomicBoolean();
+    private volatile long lastTickNanos;
+    private volatile long ticks;
+    private volatile double averageBytesPerSecond;
+    private long lastTotal;
+
+    protected ByteRateMeter(
+        @Nonnull LongSupplier nanoClock,
+        @Nonnull Duration bucketDuration,
+        @Nonnegative int numberOfBuckets,
+        @Nonnull Duration averageWindow
+    ) {
+        this.nanoClock = nanoClock;
+        this.bucketNanos = bucketDuration.toNanos();
+        this.averageWindowNanos = averageWindow.toNanos();
+        this.buckets = new AtomicLongArray(numberOfBuckets);
+        this.lastTickNanos = nanoClock.getAsLong();
+    }
+
+    public void record(long bytes) {
+        total.add(bytes);
+    }
+
+    /**
+     * @throws ArithmeticException if <code>bytes</code> does not fit into a <code>long</code>.
+     */
+    public void record(@Nonnull ByteCount bytes) throws ArithmeticException {
+        if (!bytes.isLongValue()) {
+            throw new ArithmeticException("long overflow");
+        }
+        record(bytes.longValue());
+    }
+
+    @Nonnull
+    public ByteCount total() {
+        return ByteCount.valueOf(total.sum());
+    }
+
+    /**
+     * @return the exponentially weighted moving average.
+     */
+    @Nonnull
+    public ByteRate rate() {
+        tick();
+        return ByteRate.bytesPerSecond(averageBytesPerSecond);
+    }
+
+    /**
+     * @return the rate over the last completed buckets which cover the given <code>window</code>.
+     * @throws IllegalArgumentException if <code>window</code> is longer than all buckets together.
+     */
+    @Nonnull
+    public ByteRate rate(@Nonnull Duration window) throws IllegalArgumentException {
+        requireNonNull(window);
+        final int numberOfBuckets = buckets.length();
+        final long windowBuckets = (window.toNanos() + bucketNanos - 1) / bucketNanos;
+        if (windowBuckets < 1 || windowBuckets > numberOfBuckets) {
+            throw new IllegalArgumentException("Given window " + window + " is not between one and " + numberOfBuckets + " buckets.");
+        }
+        tick();
+        final long currentTicks = ticks;
+        final int consideredBuckets = (int) Math.min(windowBuckets, currentTicks);
+        if (consideredBuckets == 0) {
+            return ByteRate.bytesPerSecond(0d);
+        }
+        long sum = 0L;
+        for (int i = 0; i < consideredBuckets; i++) {
+            sum += buckets.get((int) ((currentTicks - 1 - i) % numberOfBuckets));
+        }
+        return ByteRate.bytesPerSecond(sum * 1e9d / ((double) consideredBuckets * bucketNanos));
+    }
+
+    /**
+     * Moves the buckets and the moving average forward to the current time. Only one of concurrently calling threads
+     * does the work; all others return immediately without waiting.
+     */
+    public void tick() {
+        if (!ticking.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final long last = lastTickNanos;
+            final long elapsedBuckets = (nanoClock.getAsLong() - last) / bucketNanos;
+            if (elapsedBuckets > 0) {
+                lastTickNanos = last + elapsedBuckets * bucketNanos;
+                advance(elapsedBuckets);
+            }
+        } finally {
+            ticking.set(false);
+        }
+    }
+
+    void advance(long elapsedBuckets) {
+        final long currentTotal = total.sum();
+        final long delta = currentTotal - lastTotal;
+        lastTotal = currentTotal;
+
+        final int numberOfBuckets = buckets.length();
+        final long currentTicks = ticks;
+        final long perBucket = delta / elapsedBuckets;
+        for (long i = Math.max(elapsedBuckets - numberOfBuckets, 0L); i < elapsedBuckets - 1; i++) {
+            buckets.set((int) ((currentTicks + i) % numberOfBuckets), perBucket);
+        }
+        buckets.set((int) ((currentTicks + elapsedBuckets - 1) % numberOfBuckets), delta - perBucket * (elapsedBuckets - 1));
+        ticks = currentTicks + elapsedBuckets;
+
+        final double elapsedNanos = (double) elapsedBuckets * bucketNanos;
+        final double instantBytesPerSecond = delta * 1e9d / elapsedNanos;
+        final double alpha = 1d - Math.exp(-elapsedNanos / averageWindowNanos);
+        averageBytesPerSecond += alpha * (instantBytesPerSecond - averageBytesPerSecond);
+    }
+
+    @Nonnull
+    public Duration bucketDuration() {
+        return Duration.ofNanos(bucketNanos);
+    }
+
+    @Nonnegative
+    public int numberOfBuckets() {
+        return buckets.length();
+    }
+
+    public static class Builder {
+
+        @Nonnull
+        private Optional<LongSupplier> nanoClock = empty();
+        @Nonnull
+        private Optional<Duration> bucketDuration = empty();
+        @Nonnull
+        private Optional<Integer> numberOfBuckets = empty();
+        @Nonnull
+        private Optional<Duration> averageWindow = empty();
+
+        @Nonnull
+        public Builder withNanoClock(@Nullable LongSupplier nanoClock) {
+            this.nanoClock = ofNullable(nanoClock);
+            return this;
+        }
+
+        @Nonnull
+        public Builder withBucketDuration(@Nullable Duration bucketDuration) {
+            if (bucketDuration != null && (bucketDuration.isZero() || bucketDuration.isNegative())) {
+                throw new IllegalArgumentException("Given bucketDuration value is not positive: " + bucketDuration);
+            }
+            this.bucketDuration = ofNullable(bucketDuration);
+            return this;
+        }
+
+        @Nonnull
+        public Builder withNumberOfBuckets(@Nullable @Nonnegative Integer numberOfBuckets) {
+            if (numberOfBuckets != null && numberOfBuckets < 1) {
+                throw new IllegalArgumentException("Given numberOfBuckets value is not positive: " + numberOfBuckets);
+            }
+            this.numberOfBuckets = ofNullable(numberOfBuckets);
+            return this;
+        }
+
+        @Nonnull
+        public Builder withAverageWindow(@Nullable Duration averageWindow) {
+            if (averageWindow != null && (averageWindow.isZero() || averageWindow.isNegative())) {
+                throw new IllegalArgumentException("Given averageWindow value is not positive: " + averageWindow);
+            }
+            this.averageWindow = ofNullable(averageWindow);
+            return this;
+        }
+
+        protected Builder() {
+        }
+
+        @Nonnull
+        public ByteRateMeter build() {
+            return new ByteRateMeter(
+                nanoClock.orElse(System::nanoTime),
+                bucketDuration.orElse(Duration.ofSeconds(1)),
+                numberOfBuckets.orElse(60),
+                averageWindow.orElse(Duration.ofMinutes(1))
+            );
+        }
+
+    }
+
+}
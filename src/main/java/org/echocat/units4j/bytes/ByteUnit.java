@@ -3,6 +3,7 @@ package org.echocat.units4j.bytes;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
@@ -11,6 +12,8 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
 
 import static java.math.RoundingMode.HALF_EVEN;
 import static java.util.Collections.unmodifiableList;
@@ -40,6 +43,16 @@ public enum ByteUnit {
     static final List<ByteUnit> BINARY_VALUES = selectAllValueOf(binary);
     static final List<ByteUnit> METRIC_VALUES = selectAllValueOf(metric);
 
+    private static final int BINARY_SHIFT_PER_EXPONENT = 10;
+    private static final int MAXIMUM_EXPONENT = 6;
+    static final long[] LONG_POWERS_OF_10 = longPowersOf(10L, 18);
+    private static final long[] LONG_POWERS_OF_1000 = longPowersOf(1000L, MAXIMUM_EXPONENT);
+    private static final int NUMBER_OF_UNITS = values().length;
+    /**
+     * Conversions between all pairs of units, see {@link #conversionOf(ByteUnit, ByteUnit)}.
+     */
+    private static final Conversion[] CONVERSIONS = conversions();
+
     @Nonnull
     public static List<ByteUnit> valuesOf(@Nullable Kind kind) {
         if (kind == metric) {
@@ -61,6 +74,27 @@ public enum ByteUnit {
         return METRIC_VALUES;
     }
 
+    /**
+     * @return the biggest unit of the given kind which is not bigger than <code>bytes</code> or {@link #B} if
+     * <code>bytes</code> is not positive.
+     */
+    @Nonnull
+    public static ByteUnit bestFittingUnitOf(long bytes, @Nullable Kind kind) {
+        final List<ByteUnit> candidates = valuesOf(kind);
+        if (bytes <= 0L) {
+            return B;
+        }
+        final int binaryExponent = Math.min((Long.SIZE - 1 - Long.numberOfLeadingZeros(bytes)) / BINARY_SHIFT_PER_EXPONENT, MAXIMUM_EXPONENT);
+        if (kind == binary) {
+            return candidates.get(binaryExponent);
+        }
+        // 1000^n <= 1024^n <= bytes < 1024^(n+1) < 1000^(n+2) - so only the next threshold has to be checked.
+        if (binaryExponent < MAXIMUM_EXPONENT && bytes >= LONG_POWERS_OF_1000[binaryExponent + 1]) {
+            return candidates.get(binaryExponent + 1);
+        }
+        return candidates.get(binaryExponent);
+    }
+
     @Nonnull
     public static Optional<ByteUnit> byteUnitForFullname(@Nonnull String name) {
         return byteUnitFor(name, ByteUnit::fullName);
@@ -122,7 +156,7 @@ public enum ByteUnit {
 
     @Nonnull
     public ByteCount value(long value) {
-        return value(BigInteger.valueOf(value));
+        return ByteCount.valueOf(value, this);
     }
 
     @Nonnull
@@ -133,61 +167,151 @@ public enum ByteUnit {
     @Nonnull
     public ByteCount value(@Nullable BigInteger value) {
         final BigInteger bytes = (value != null ? value : BigInteger.ZERO).multiply(bigIntegerBase());
-        return new ByteCount(bytes);
+        return ByteCount.valueOf(bytes);
     }
 
     @Nonnull
     public ByteCount value(@Nullable BigDecimal value) {
         final BigDecimal bytes = (value != null ? value : BigDecimal.ZERO).multiply(bigDecimalBase());
-        return new ByteCount(bytes.toBigInteger());
+        return ByteCount.valueOf(bytes.toBigInteger());
     }
 
-    public long from(long value, @Nonnull ByteUnit sourceUnit) {
-        Objects.requireNonNull(sourceUnit);
-        return from(BigInteger.valueOf(value), sourceUnit).longValue();
+    /**
+     * @throws ArithmeticException if the result does not fit into a <code>long</code>.
+     */
+    public long from(long value, @Nonnull ByteUnit sourceUnit) throws ArithmeticException {
+        return from(value, sourceUnit, OverflowMode.fail);
+    }
+
+    /**
+     * @throws ArithmeticException if the result does not fit into a <code>long</code> and
+     *                             <code>overflowMode</code> is {@link OverflowMode#fail}.
+     */
+    public long from(long value, @Nonnull ByteUnit sourceUnit, @Nonnull OverflowMode overflowMode) throws ArithmeticException {
+        Objects.requireNonNull(overflowMode);
+        return conversionOf(sourceUnit, this).convert(value, overflowMode);
     }
 
     public double from(double value, @Nonnull ByteUnit sourceUnit) {
-        Objects.requireNonNull(sourceUnit);
-        return from(BigDecimal.valueOf(value), sourceUnit).doubleValue();
+        return conversionOf(sourceUnit, this).convert(value);
     }
 
     @Nonnull
     public BigInteger from(@Nullable BigInteger value, @Nonnull ByteUnit sourceUnit) {
-        Objects.requireNonNull(sourceUnit);
-        final BigInteger bytes = (value != null ? value : BigInteger.ZERO).multiply(sourceUnit.bigIntegerBase());
-        return bytes.divide(bigIntegerBase());
+        return conversionOf(sourceUnit, this).convert(value != null ? value : BigInteger.ZERO);
     }
 
+    /**
+     * @return the result rounded {@link #ROUNDING_MODE half even} to <code>3 * (n + 1)</code> fraction digits if the
+     * exponent grows by <code>n</code> or otherwise to the scale of <code>value</code>.
+     */
     @Nonnull
     public BigDecimal from(@Nullable BigDecimal value, @Nonnull ByteUnit sourceUnit) {
-        Objects.requireNonNull(sourceUnit);
-        final BigDecimal bytes = (value != null ? value : BigDecimal.ZERO).multiply(sourceUnit.bigDecimalBase());
-        return divide(bytes, sourceUnit, this);
+        return conversionOf(sourceUnit, this).convert(value != null ? value : BigDecimal.ZERO);
+    }
+
+    /**
+     * Converts <code>length</code> values of <code>sourceUnit</code> starting at <code>sourceOffset</code> into this
+     * unit like {@link #from(long, ByteUnit)} and writes them to <code>target</code> starting at
+     * <code>targetOffset</code>. Both arrays could be the same if both ranges are the same or do not overlap.
+     *
+     * @throws ArithmeticException       if one of the results does not fit into a <code>long</code>. The values in
+     *                                   front of it are already written.
+     * @throws IndexOutOfBoundsException if one of the ranges is not within its array.
+     */
+    public void convert(@Nonnull long[] source, @Nonnegative int sourceOffset, @Nonnull long[] target, @Nonnegative int targetOffset, @Nonnegative int length, @Nonnull ByteUnit sourceUnit) throws ArithmeticException {
+        convert(source, sourceOffset, target, targetOffset, length, sourceUnit, OverflowMode.fail);
+    }
+
+    /**
+     * Same as {@link #convert(long[], int, long[], int, int, ByteUnit)} but handles results which do not fit into a
+     * <code>long</code> like {@link #from(long, ByteUnit, OverflowMode)}.
+     */
+    public void convert(@Nonnull long[] source, @Nonnegative int sourceOffset, @Nonnull long[] target, @Nonnegative int targetOffset, @Nonnegative int length, @Nonnull ByteUnit sourceUnit, @Nonnull OverflowMode overflowMode) throws ArithmeticException {
+        Objects.requireNonNull(overflowMode);
+        checkRanges(source.length, sourceOffset, target.length, targetOffset, length);
+        conversionOf(sourceUnit, this).convert(source, sourceOffset, target, targetOffset, length, overflowMode);
+    }
+
+    /**
+     * Converts <code>length</code> values of <code>sourceUnit</code> starting at <code>sourceOffset</code> into this
+     * unit like {@link #from(double, ByteUnit)} and writes them to <code>target</code> starting at
+     * <code>targetOffset</code>. Both arrays could be the same if both ranges are the same or do not overlap.
+     *
+     * @throws IndexOutOfBoundsException if one of the ranges is not within its array.
+     */
+    public void convert(@Nonnull double[] source, @Nonnegative int sourceOffset, @Nonnull double[] target, @Nonnegative int targetOffset, @Nonnegative int length, @Nonnull ByteUnit sourceUnit) {
+        checkRanges(source.length, sourceOffset, target.length, targetOffset, length);
+        conversionOf(sourceUnit, this).convert(source, sourceOffset, target, targetOffset, length);
+    }
+
+    /**
+     * @return <code>values</code> of <code>sourceUnit</code> lazily converted into this unit like
+     * {@link #from(long, ByteUnit)}, which fails with an {@link ArithmeticException} while consumed if a result does
+     * not fit into a <code>long</code>.
+     */
+    @Nonnull
+    public LongStream convert(@Nonnull LongStream values, @Nonnull ByteUnit sourceUnit) {
+        return convert(values, sourceUnit, OverflowMode.fail);
+    }
+
+    /**
+     * @return <code>values</code> of <code>sourceUnit</code> lazily converted into this unit like
+     * {@link #from(long, ByteUnit, OverflowMode)}.
+     */
+    @Nonnull
+    public LongStream convert(@Nonnull LongStream values, @Nonnull ByteUnit sourceUnit, @Nonnull OverflowMode overflowMode) {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(overflowMode);
+        final Conversion conversion = conversionOf(sourceUnit, this);
+        return conversion.shift == 0 ? values : values.map(value -> conversion.convert(value, overflowMode));
     }
 
-    public long to(long value, @Nonnull ByteUnit targetUnit) {
+    /**
+     * @return <code>values</code> of <code>sourceUnit</code> lazily converted into this unit like
+     * {@link #from(double, ByteUnit)}.
+     */
+    @Nonnull
+    public DoubleStream convert(@Nonnull DoubleStream values, @Nonnull ByteUnit sourceUnit) {
+        Objects.requireNonNull(values);
+        final Conversion conversion = conversionOf(sourceUnit, this);
+        return conversion.shift == 0 ? values : values.map(conversion::convert);
+    }
+
+    /**
+     * @throws ArithmeticException if the result does not fit into a <code>long</code>.
+     */
+    public long to(long value, @Nonnull ByteUnit targetUnit) throws ArithmeticException {
+        return to(value, targetUnit, OverflowMode.fail);
+    }
+
+    /**
+     * @throws ArithmeticException if the result does not fit into a <code>long</code> and
+     *                             <code>overflowMode</code> is {@link OverflowMode#fail}.
+     */
+    public long to(long value, @Nonnull ByteUnit targetUnit, @Nonnull OverflowMode overflowMode) throws ArithmeticException {
         Objects.requireNonNull(targetUnit);
-        return to(BigInteger.valueOf(value), targetUnit).longValue();
+        return targetUnit.from(value, this, overflowMode);
     }
 
     public double to(double value, @Nonnull ByteUnit targetUnit) {
         Objects.requireNonNull(targetUnit);
-        return to(BigDecimal.valueOf(value), targetUnit).doubleValue();
+        return targetUnit.from(value, this);
     }
 
     @Nonnull
     public BigInteger to(@Nullable BigInteger value, @Nonnull ByteUnit targetUnit) {
         Objects.requireNonNull(targetUnit);
-        final BigInteger bytes = (value != null ? value : BigInteger.ZERO).multiply(bigIntegerBase());
-        return bytes.divide(targetUnit.bigIntegerBase());
+        return targetUnit.from(value, this);
     }
 
+    /**
+     * Same as {@link #from(BigDecimal, ByteUnit)} of <code>targetUnit</code>.
+     */
     @Nonnull
     public BigDecimal to(@Nullable BigDecimal value, @Nonnull ByteUnit targetUnit) {
         Objects.requireNonNull(targetUnit);
-        final BigDecimal bytes = (value != null ? value : BigDecimal.ZERO).multiply(bigDecimalBase());
-        return divide(bytes, this, targetUnit);
+        return targetUnit.from(value, this);
     }
 
     @Nonnull
@@ -227,12 +351,54 @@ public enum ByteUnit {
         return bigDecimalBase;
     }
 
+    /**
+     * @return the cached instance of exactly one of this unit.
+     */
+    @Nonnegative
+    @Nonnull
+    public ByteCount byteCountBase() {
+        return ByteCount.valueOf(longBase);
+    }
+
 
     public enum Kind {
         metric,
         binary
     }
 
+    /**
+     * Defines what happens if a conversion result does not fit into a <code>long</code>.
+     */
+    public enum OverflowMode {
+        /**
+         * Throws an {@link ArithmeticException}.
+         */
+        fail {
+            @Override
+            long onOverflow(boolean negative) {
+                throw new ArithmeticException("long overflow");
+            }
+        },
+        /**
+         * Returns {@link Long#MAX_VALUE} or {@link Long#MIN_VALUE}.
+         */
+        saturate {
+            @Override
+            long onOverflow(boolean negative) {
+                return negative ? Long.MIN_VALUE : Long.MAX_VALUE;
+            }
+        };
+
+        abstract long onOverflow(boolean negative);
+
+        long narrow(@Nonnull BigInteger value) {
+            if (value.bitLength() < Long.SIZE) {
+                return value.longValue();
+            }
+            return onOverflow(value.signum() < 0);
+        }
+    }
+
     @Nonnull
     static List<ByteUnit> selectAllValueOf(@Nonnull Kind kind) {
         final List<ByteUnit> result = new ArrayList<>();
@@ -244,13 +410,248 @@ public enum ByteUnit {
         return unmodifiableList(result);
     }
 
+    /**
+     * @return the precomputed conversion of values in <code>source</code> into <code>target</code>.
+     */
+    @Nonnull
+    static Conversion conversionOf(@Nonnull ByteUnit source, @Nonnull ByteUnit target) {
+        return CONVERSIONS[source.ordinal() * NUMBER_OF_UNITS + target.ordinal()];
+    }
+
+    static void checkRanges(@Nonnegative int sourceLength, int sourceOffset, @Nonnegative int targetLength, int targetOffset, int length) {
+        if (sourceOffset < 0 || targetOffset < 0 || length < 0 || sourceOffset > sourceLength - length || targetOffset > targetLength - length) {
+            throw new IndexOutOfBoundsException("sourceOffset: " + sourceOffset + ", targetOffset: " + targetOffset + ", length: " + length
+                + ", source length: " + sourceLength + ", target length: " + targetLength);
+        }
+    }
+
     @Nonnull
-    BigDecimal divide(@Nonnull BigDecimal input, @Nonnull ByteUnit source, @Nonnull ByteUnit target) {
-        final int diffExponent = target.exponent() - source.exponent();
-        if (diffExponent > 0) {
-            return input.divide(bigDecimalBase(), (diffExponent + 1) * 3, ROUNDING_MODE);
+    static Conversion[] conversions() {
+        final ByteUnit[] units = values();
+        final Conversion[] result = new Conversion[units.length * units.length];
+        for (final ByteUnit source : units) {
+            for (final ByteUnit target : units) {
+                result[source.ordinal() * units.length + target.ordinal()] = new Conversion(source, target);
+            }
+        }
+        return result;
+    }
+
+    @Nonnull
+    static long[] longPowersOf(long base, @Nonnegative int maximumExponent) {
+        final long[] result = new long[maximumExponent + 1];
+        result[0] = 1L;
+        for (int i = 1; i <= maximumExponent; i++) {
+            result[i] = result[i - 1] * base;
+        }
+        return result;
+    }
+
+    /**
+     * Converts values of a source unit into a target unit by <code>value * multiplier / divisor</code>. Both factors
+     * are exact and coprime - so at least one of them is <code>1</code> within the same kind - and fit into a
+     * <code>long</code> for all pairs of units. This allows every conversion of a primitive to be one shift,
+     * multiplication or division; only the rare <code>long</code> conversions where the intermediate product overflows
+     * but the result does not fall back to {@link BigInteger}.
+     */
+    @Immutable
+    static final class Conversion {
+
+        static final int NO_SHIFT = Integer.MIN_VALUE;
+
+        @Nonnegative
+        final long multiplier;
+        @Nonnegative
+        final long divisor;
+        /**
+         * The left shift (or right shift if negative) which is the same as this conversion or {@link #NO_SHIFT}.
+         */
+        final int shift;
+        final long maximumMultiplicand;
+        final long minimumMultiplicand;
+        final double doubleMultiplier;
+        final double doubleDivisor;
+        @Nonnull
+        final BigInteger bigIntegerMultiplier;
+        @Nonnull
+        final BigInteger bigIntegerDivisor;
+        @Nonnull
+        final BigDecimal bigDecimalMultiplier;
+        @Nonnull
+        final BigDecimal bigDecimalDivisor;
+        /**
+         * How much the exponent grows from the source to the target unit.
+         */
+        final int exponentGrowth;
+
+        Conversion(@Nonnull ByteUnit source, @Nonnull ByteUnit target) {
+            final BigInteger gcd = source.bigIntegerBase().gcd(target.bigIntegerBase());
+            bigIntegerMultiplier = source.bigIntegerBase().divide(gcd);
+            bigIntegerDivisor = target.bigIntegerBase().divide(gcd);
+            multiplier = bigIntegerMultiplier.longValueExact();
+            divisor = bigIntegerDivisor.longValueExact();
+            if (divisor == 1L && Long.bitCount(multiplier) == 1) {
+                shift = Long.numberOfTrailingZeros(multiplier);
+            } else if (multiplier == 1L && Long.bitCount(divisor) == 1) {
+                shift = -Long.numberOfTrailingZeros(divisor);
+            } else {
+                shift = NO_SHIFT;
+            }
+            maximumMultiplicand = Long.MAX_VALUE / multiplier;
+            minimumMultiplicand = Long.MIN_VALUE / multiplier;
+            // Both are below 2^53 or powers of two and therefore exact.
+            doubleMultiplier = (double) multiplier;
+            doubleDivisor = (double) divisor;
+            bigDecimalMultiplier = new BigDecimal(bigIntegerMultiplier);
+            bigDecimalDivisor = new BigDecimal(bigIntegerDivisor);
+            exponentGrowth = target.exponent() - source.exponent();
         }
-        return input.divide(bigDecimalBase(), ROUNDING_MODE);
+
+        /**
+         * Truncates towards zero.
+         */
+        long convert(long value, @Nonnull OverflowMode overflowMode) throws ArithmeticException {
+            if (shift >= 0) {
+                if (value > (Long.MAX_VALUE >> shift) || value < (Long.MIN_VALUE >> shift)) {
+                    return overflowMode.onOverflow(value < 0L);
+                }
+                return value << shift;
+            }
+            if (shift != NO_SHIFT) {
+                // Truncate towards zero like a division would do. Works also for Long.MIN_VALUE.
+                return value >= 0L ? value >>> -shift : -(-value >>> -shift);
+            }
+            if (value <= maximumMultiplicand && value >= minimumMultiplicand) {
+                return value * multiplier / divisor;
+            }
+            if (divisor == 1L) {
+                return overflowMode.onOverflow(value < 0L);
+            }
+            return overflowMode.narrow(BigInteger.valueOf(value).multiply(bigIntegerMultiplier).divide(bigIntegerDivisor));
+        }
+
+        /**
+         * Rounds at most once because one of the exact factors is always <code>1</code> or a power of two.
+         */
+        double convert(double value) {
+            if (divisor == 1L) {
+                return value * doubleMultiplier;
+            }
+            if (multiplier == 1L) {
+                return value / doubleDivisor;
+            }
+            return value * doubleMultiplier / doubleDivisor;
+        }
+
+        /**
+         * Checks all values first, so the loops which convert them have no branches and could be vectorized. Only if
+         * one of them could overflow - or its product before the division - every value is converted on its own.
+         */
+        void convert(@Nonnull long[] source, @Nonnegative int sourceOffset, @Nonnull long[] target, @Nonnegative int targetOffset, @Nonnegative int length, @Nonnull OverflowMode overflowMode) throws ArithmeticException {
+            if (shift == 0) {
+                System.arraycopy(source, sourceOffset, target, targetOffset, length);
+            } else if (shift > 0) {
+                final long maximum = Long.MAX_VALUE >> shift;
+                final long minimum = Long.MIN_VALUE >> shift;
+                if (!allWithin(source, sourceOffset, length, minimum, maximum)) {
+                    convertOneByOne(source, sourceOffset, target, targetOffset, length, overflowMode);
+                    return;
+                }
+                for (int i = 0; i < length; i++) {
+                    target[targetOffset + i] = source[sourceOffset + i] << shift;
+                }
+            } else if (shift != NO_SHIFT) {
+                final int rightShift = -shift;
+                final long roundingBias = (1L << rightShift) - 1;
+                for (int i = 0; i < length; i++) {
+                    final long value = source[sourceOffset + i];
+                    // Adds the bias to negative values only to truncate towards zero like a division would do.
+                    target[targetOffset + i] = (value + ((value >> 63) & roundingBias)) >> rightShift;
+                }
+            } else {
+                if (!allWithin(source, sourceOffset, length, minimumMultiplicand, maximumMultiplicand)) {
+                    convertOneByOne(source, sourceOffset, target, targetOffset, length, overflowMode);
+                    return;
+                }
+                final long multiplier = this.multiplier;
+                final long divisor = this.divisor;
+                if (divisor == 1L) {
+                    for (int i = 0; i < length; i++) {
+                        target[targetOffset + i] = source[sourceOffset + i] * multiplier;
+                    }
+                } else if (multiplier == 1L) {
+                    for (int i = 0; i < length; i++) {
+                        target[targetOffset + i] = source[sourceOffset + i] / divisor;
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        target[targetOffset + i] = source[sourceOffset + i] * multiplier / divisor;
+                    }
+                }
+            }
+        }
+
+        void convertOneByOne(@Nonnull long[] source, @Nonnegative int sourceOffset, @Nonnull long[] target, @Nonnegative int targetOffset, @Nonnegative int length, @Nonnull OverflowMode overflowMode) throws ArithmeticException {
+            for (int i = 0; i < length; i++) {
+                target[targetOffset + i] = convert(source[sourceOffset + i], overflowMode);
+            }
+        }
+
+        void convert(@Nonnull double[] source, @Nonnegative int sourceOffset, @Nonnull double[] target, @Nonnegative int targetOffset, @Nonnegative int length) {
+            final double multiplier = doubleMultiplier;
+            final double divisor = doubleDivisor;
+            if (shift == 0) {
+                System.arraycopy(source, sourceOffset, target, targetOffset, length);
+            } else if (this.divisor == 1L) {
+                for (int i = 0; i < length; i++) {
+                    target[targetOffset + i] = source[sourceOffset + i] * multiplier;
+                }
+            } else if (this.multiplier == 1L) {
+                for (int i = 0; i < length; i++) {
+                    target[targetOffset + i] = source[sourceOffset + i] / divisor;
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    target[targetOffset + i] = source[sourceOffset + i] * multiplier / divisor;
+                }
+            }
+        }
+
+        /**
+         * Without branches inside the loop: <code>minimum</code> is never positive and <code>maximum</code> never
+         * negative, so the differences to the bound of the same sign as the value could not overflow and get negative
+         * only if the value is outside.
+         */
+        static boolean allWithin(@Nonnull long[] values, @Nonnegative int offset, @Nonnegative int length, long minimum, long maximum) {
+            long outside = 0L;
+            for (int i = 0; i < length; i++) {
+                final long value = values[offset + i];
+                final long negative = value >> 63;
+                outside |= ((maximum - value) & ~negative) | ((value - minimum) & negative);
+            }
+            return outside >= 0L;
+        }
+
+        @Nonnull
+        BigInteger convert(@Nonnull BigInteger value) {
+            final BigInteger multiplied = multiplier != 1L ? value.multiply(bigIntegerMultiplier) : value;
+            return divisor != 1L ? multiplied.divide(bigIntegerDivisor) : multiplied;
+        }
+
+        @Nonnull
+        BigDecimal convert(@Nonnull BigDecimal value) {
+            final BigDecimal multiplied = multiplier != 1L ? value.multiply(bigDecimalMultiplier) : value;
+            if (exponentGrowth > 0) {
+                return multiplied.divide(bigDecimalDivisor, (exponentGrowth + 1) * 3, ROUNDING_MODE);
+            }
+            return divisor != 1L ? multiplied.divide(bigDecimalDivisor, ROUNDING_MODE) : multiplied;
+        }
+
+        @Override
+        public String toString() {
+            return shift != NO_SHIFT ? (shift >= 0 ? "<< " + shift : ">>> " + -shift) : "* " + multiplier + " / " + divisor;
+        }
+
     }
 
 }
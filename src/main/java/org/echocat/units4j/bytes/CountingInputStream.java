@@ -0,0 +1,103 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Counts all bytes read or skipped. Every non empty transfer is also reported to the optional sink, like
+ * {@link ByteCountAdder#add(long)}, {@link ByteCountHistogram#record(long)} or {@link ByteRateMeter#record(long)}.
+ * The count could be read by other threads at any time.
+ */
+@NotThreadSafe
+public class CountingInputStream extends FilterInputStream implements ByteCounter {
+
+    @Nullable
+    private final LongConsumer sink;
+    private volatile long count;
+    private long mark = -1L;
+
+    public CountingInputStream(@Nonnull InputStream in) {
+        this(in, null);
+    }
+
+    public CountingInputStream(@Nonnull InputStream in, @Nullable LongConsumer sink) {
+        super(requireNonNull(in));
+        this.sink = sink;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int result = in.read();
+        if (result >= 0) {
+            transferred(1L);
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int result = in.read(b, off, len);
+        if (result > 0) {
+            transferred(result);
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long result = in.skip(n);
+        if (result > 0) {
+            transferred(result);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        in.mark(readLimit);
+        mark = count;
+    }
+
+    /**
+     * Also resets the count to the one while {@link #mark(int)}. The sink is not notified.
+     */
+    @Override
+    public synchronized void reset() throws IOException {
+        if (!in.markSupported()) {
+            throw new IOException("Mark not supported.");
+        }
+        if (mark < 0) {
+            throw new IOException("Mark not set.");
+        }
+        in.reset();
+        count = mark;
+    }
+
+    @Override
+    @Nonnegative
+    public long count() {
+        return count;
+    }
+
+    void transferred(@Nonnegative long bytes) {
+        // Not atomic, but only the reading thread writes. Other threads only read.
+        count += bytes;
+        if (sink != null) {
+            sink.accept(bytes);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CountingInputStream{" + byteCount() + '}';
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Counts all written bytes. Every non empty transfer is also reported to the optional sink, like
+ * {@link ByteCountAdder#add(long)}, {@link ByteCountHistogram#record(long)} or {@link ByteRateMeter#record(long)}.
+ * The count could be read by other threads at any time.
+ *
+ * <p>In contrast to {@link FilterOutputStream} arrays are written to the underlying stream at once and not byte by
+ * byte.</p>
+ */
+@NotThreadSafe
+public class CountingOutputStream extends FilterOutputStream implements ByteCounter {
+
+    @Nullable
+    private final LongConsumer sink;
+    private volatile long count;
+
+    public CountingOutputStream(@Nonnull OutputStream out) {
+        this(out, null);
+    }
+
+    public CountingOutputStream(@Nonnull OutputStream out, @Nullable LongConsumer sink) {
+        super(requireNonNull(out));
+        this.sink = sink;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        transferred(1L);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        if (len > 0) {
+            transferred(len);
+        }
+    }
+
+    @Override
+    @Nonnegative
+    public long count() {
+        return count;
+    }
+
+    void transferred(@Nonnegative long bytes) {
+        // Not atomic, but only the writing thread writes. Other threads only read.
+        count += bytes;
+        if (sink != null) {
+            sink.accept(bytes);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CountingOutputStream{" + byteCount() + '}';
+    }
+
+}
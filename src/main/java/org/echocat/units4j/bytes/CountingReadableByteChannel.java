@@ -0,0 +1,144 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.LongConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Counts all bytes read from the underlying channel. Every non empty transfer is also reported to the optional sink,
+ * like {@link ByteCountAdder#add(long)}, {@link ByteCountHistogram#record(long)} or {@link ByteRateMeter#record(long)}.
+ */
+@ThreadSafe
+public class CountingReadableByteChannel implements ReadableByteChannel, ByteCounter {
+
+    private static final AtomicLongFieldUpdater<CountingReadableByteChannel> COUNT = AtomicLongFieldUpdater.newUpdater(CountingReadableByteChannel.class, "count");
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    @Nonnull
+    private final ReadableByteChannel delegate;
+    @Nullable
+    private final LongConsumer sink;
+    private volatile long count;
+
+    public CountingReadableByteChannel(@Nonnull ReadableByteChannel delegate) {
+        this(delegate, null);
+    }
+
+    public CountingReadableByteChannel(@Nonnull ReadableByteChannel delegate, @Nullable LongConsumer sink) {
+        this.delegate = requireNonNull(delegate);
+        this.sink = sink;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        final int result = delegate.read(dst);
+        if (result > 0) {
+            transferred(result);
+        }
+        return result;
+    }
+
+    /**
+     * Transfers up to <code>count</code> bytes from the current position of this channel to <code>target</code>.
+     * If this channel wraps a {@link FileChannel} its {@link FileChannel#transferTo(long, long, WritableByteChannel)}
+     * is used - also if <code>target</code> is a {@link CountingWritableByteChannel} - so the operating system could
+     * transfer the bytes without copying them. Otherwise they are copied using a small buffer, which requires blocking
+     * channels.
+     *
+     * @return the number of transferred bytes which are also counted by <code>target</code> if it is a
+     * {@link CountingWritableByteChannel}.
+     */
+    @Nonnegative
+    public long transferTo(@Nonnegative long count, @Nonnull WritableByteChannel target) throws IOException {
+        if (count < 0) {
+            throw new IllegalArgumentException("Given count value is negative: " + count);
+        }
+        final CountingWritableByteChannel countingTarget = target instanceof CountingWritableByteChannel ? (CountingWritableByteChannel) target : null;
+        final WritableByteChannel actualTarget = countingTarget != null ? countingTarget.delegate() : target;
+        final long result;
+        if (delegate instanceof FileChannel) {
+            final FileChannel file = (FileChannel) delegate;
+            final long position = file.position();
+            result = file.transferTo(position, count, actualTarget);
+            file.position(position + result);
+        } else {
+            result = copy(delegate, actualTarget, count);
+        }
+        if (result > 0) {
+            transferred(result);
+            if (countingTarget != null) {
+                countingTarget.transferred(result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    @Nonnegative
+    public long count() {
+        return count;
+    }
+
+    @Nonnull
+    ReadableByteChannel delegate() {
+        return delegate;
+    }
+
+    void transferred(@Nonnegative long bytes) {
+        COUNT.addAndGet(this, bytes);
+        if (sink != null) {
+            sink.accept(bytes);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CountingReadableByteChannel{" + byteCount() + '}';
+    }
+
+    /**
+     * Copies until <code>count</code> bytes were copied, <code>source</code> reached its end or returned nothing.
+     */
+    @Nonnegative
+    static long copy(@Nonnull ReadableByteChannel source, @Nonnull WritableByteChannel target, @Nonnegative long count) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, COPY_BUFFER_SIZE));
+        long result = 0L;
+        while (result < count) {
+            // Called on Buffer because ByteBuffer overrides these methods only since Java 9.
+            ((Buffer) buffer).clear();
+            ((Buffer) buffer).limit((int) Math.min(count - result, buffer.capacity()));
+            final int read = source.read(buffer);
+            if (read <= 0) {
+                break;
+            }
+            ((Buffer) buffer).flip();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            result += read;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.LongConsumer;
+
+import static java.util.Objects.requireNonNull;
+import static org.echocat.units4j.bytes.CountingReadableByteChannel.copy;
+
+/**
+ * Counts all bytes written to the underlying channel. Every non empty transfer is also reported to the optional sink,
+ * like {@link ByteCountAdder#add(long)}, {@link ByteCountHistogram#record(long)} or {@link ByteRateMeter#record(long)}.
+ */
+@ThreadSafe
+public class CountingWritableByteChannel implements WritableByteChannel, ByteCounter {
+
+    private static final AtomicLongFieldUpdater<CountingWritableByteChannel> COUNT = AtomicLongFieldUpdater.newUpdater(CountingWritableByteChannel.class, "count");
+
+    @Nonnull
+    private final WritableByteChannel delegate;
+    @Nullable
+    private final LongConsumer sink;
+    private volatile long count;
+
+    public CountingWritableByteChannel(@Nonnull WritableByteChannel delegate) {
+        this(delegate, null);
+    }
+
+    public CountingWritableByteChannel(@Nonnull WritableByteChannel delegate, @Nullable LongConsumer sink) {
+        this.delegate = requireNonNull(delegate);
+        this.sink = sink;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        final int result = delegate.write(src);
+        if (result > 0) {
+            transferred(result);
+        }
+        return result;
+    }
+
+    /**
+     * Transfers up to <code>count</code> bytes from <code>source</code> to the current position of this channel.
+     * If this channel wraps a {@link FileChannel} its {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}
+     * is used - also if <code>source</code> is a {@link CountingReadableByteChannel}. Otherwise the bytes are copied
+     * using a small buffer, which requires blocking channels.
+     *
+     * @return the number of transferred bytes which are also counted by <code>source</code> if it is a
+     * {@link CountingReadableByteChannel}.
+     */
+    @Nonnegative
+    public long transferFrom(@Nonnull ReadableByteChannel source, @Nonnegative long count) throws IOException {
+        if (count < 0) {
+            throw new IllegalArgumentException("Given count value is negative: " + count);
+        }
+        final CountingReadableByteChannel countingSource = source instanceof CountingReadableByteChannel ? (CountingReadableByteChannel) source : null;
+        final ReadableByteChannel actualSource = countingSource != null ? countingSource.delegate() : source;
+        final long result;
+        if (delegate instanceof FileChannel) {
+            final FileChannel file = (FileChannel) delegate;
+            final long position = file.position();
+            result = file.transferFrom(actualSource, position, count);
+            file.position(position + result);
+        } else {
+            result = copy(actualSource, delegate, count);
+        }
+        if (result > 0) {
+            transferred(result);
+            if (countingSource != null) {
+                countingSource.transferred(result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    @Nonnegative
+    public long count() {
+        return count;
+    }
+
+    @Nonnull
+    WritableByteChannel delegate() {
+        return delegate;
+    }
+
+    void transferred(@Nonnegative long bytes) {
+        COUNT.addAndGet(this, bytes);
+        if (sink != null) {
+            sink.accept(bytes);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CountingWritableByteChannel{" + byteCount() + '}';
+    }
+
+}
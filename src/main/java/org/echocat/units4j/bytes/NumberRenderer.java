@@ -0,0 +1,286 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import static org.echocat.units4j.bytes.ByteUnit.Kind.binary;
+import static org.echocat.units4j.bytes.ByteUnit.LONG_POWERS_OF_10;
+import static org.echocat.units4j.bytes.ByteUnit.ROUNDING_MODE;
+
+/**
+ * Renders numbers like {@link NumberFormat#getNumberInstance(Locale)} does but without any shared mutable state. All
+ * locale specific symbols are resolved once while creation.
+ */
+@Immutable
+class NumberRenderer {
+
+    /**
+     * Up to this number of fraction digits the rounded fraction of a <code>long</code> is held in a <code>long</code>.
+     */
+    static final int MAXIMUM_LONG_FRACTION_DIGITS = 18;
+
+    @Nonnull
+    static NumberRenderer numberRendererFor(@Nonnull Locale locale, @Nonnegative int maximumFractionDigits, @Nonnegative int minimumFractionDigits) {
+        final NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+        if (numberFormat instanceof DecimalFormat) {
+            final DecimalFormat decimalFormat = (DecimalFormat) numberFormat;
+            final DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+            return new NumberRenderer(
+                symbols.getZeroDigit(),
+                symbols.getDecimalSeparator(),
+                symbols.getGroupingSeparator(),
+                decimalFormat.isGroupingUsed() ? decimalFormat.getGroupingSize() : 0,
+                decimalFormat.getPositivePrefix(),
+                decimalFormat.getPositiveSuffix(),
+                decimalFormat.getNegativePrefix(),
+                decimalFormat.getNegativeSuffix(),
+                maximumFractionDigits,
+                minimumFractionDigits
+            );
+        }
+        final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        return new NumberRenderer(
+            symbols.getZeroDigit(),
+            symbols.getDecimalSeparator(),
+            symbols.getGroupingSeparator(),
+            numberFormat.isGroupingUsed() ? 3 : 0,
+            "",
+            "",
+            String.valueOf(symbols.getMinusSign()),
+            "",
+            maximumFractionDigits,
+            minimumFractionDigits
+        );
+    }
+
+    private final char zeroDigit;
+    private final char decimalSeparator;
+    private final char groupingSeparator;
+    @Nonnegative
+    private final int groupingSize;
+    @Nonnull
+    private final String positivePrefix;
+    @Nonnull
+    private final String positiveSuffix;
+    @Nonnull
+    private final String negativePrefix;
+    @Nonnull
+    private final String negativeSuffix;
+    @Nonnegative
+    private final int maximumFractionDigits;
+    @Nonnegative
+    private final int minimumFractionDigits;
+
+    NumberRenderer(
+        char zeroDigit,
+        char decimalSeparator,
+        char groupingSeparator,
+        @Nonnegative int groupingSize,
+        @Nonnull String positivePrefix,
+        @Nonnull String positiveSuffix,
+        @Nonnull String negativePrefix,
+        @Nonnull String negativeSuffix,
+        @Nonnegative int maximumFractionDigits,
+        @Nonnegative int minimumFractionDigits
+    ) {
+        this.zeroDigit = zeroDigit;
+        this.decimalSeparator = decimalSeparator;
+        this.groupingSeparator = groupingSeparator;
+        this.groupingSize = groupingSize;
+        this.positivePrefix = positivePrefix;
+        this.positiveSuffix = positiveSuffix;
+        this.negativePrefix = negativePrefix;
+        this.negativeSuffix = negativeSuffix;
+        // Same as NumberFormat does: The minimum wins.
+        this.maximumFractionDigits = Math.max(maximumFractionDigits, minimumFractionDigits);
+        this.minimumFractionDigits = minimumFractionDigits;
+    }
+
+    /**
+     * @return the symbols to parse what this renderer renders.
+     */
+    @Nonnull
+    ByteCountParser.Symbols parserSymbols() {
+        return new ByteCountParser.Symbols(zeroDigit, decimalSeparator, groupingSeparator);
+    }
+
+    /**
+     * Appends <code>bytes</code> expressed in <code>unit</code>, rounded {@link ByteUnit#ROUNDING_MODE half even}
+     * to the configured fraction digits. Does not create any objects as long as there are at most
+     * {@link #MAXIMUM_LONG_FRACTION_DIGITS} fraction digits.
+     */
+    void appendDecimal(@Nonnull Appendable to, long bytes, @Nonnull ByteUnit unit) throws IOException {
+        final int fractionDigits = maximumFractionDigits;
+        if (bytes == Long.MIN_VALUE || fractionDigits > MAXIMUM_LONG_FRACTION_DIGITS) {
+            appendDecimal(to, BigInteger.valueOf(bytes), unit);
+            return;
+        }
+        final boolean negative = bytes < 0;
+        final long magnitude = negative ? -bytes : bytes;
+        final int exponent = unit.exponent();
+
+        long integerPart;
+        long fraction = 0L;
+        final int comparedToHalf;
+        if (exponent == 0) {
+            integerPart = magnitude;
+            comparedToHalf = -1;
+        } else if (unit.kind() == binary) {
+            final int shift = exponent * 10;
+            final long mask = (1L << shift) - 1;
+            integerPart = magnitude >>> shift;
+            long rest = magnitude & mask;
+            for (int i = 0; i < fractionDigits; i++) {
+                // rest < 2^60 so rest * 10 always fits into an unsigned long.
+                rest *= 10;
+                fraction = fraction * 10 + (rest >>> shift);
+                rest &= mask;
+            }
+            comparedToHalf = Long.compare(rest, 1L << (shift - 1));
+        } else {
+            final int scale = exponent * 3;
+            final long base = LONG_POWERS_OF_10[scale];
+            integerPart = magnitude / base;
+            final long rest = magnitude % base;
+            if (fractionDigits < scale) {
+                final long remainingBase = LONG_POWERS_OF_10[scale - fractionDigits];
+                fraction = rest / remainingBase;
+                comparedToHalf = Long.compare((rest % remainingBase) * 2, remainingBase);
+            } else {
+                fraction = rest * LONG_POWERS_OF_10[fractionDigits - scale];
+                comparedToHalf = -1;
+            }
+        }
+
+        final long lastDigit = fractionDigits > 0 ? fraction : integerPart;
+        if (comparedToHalf > 0 || (comparedToHalf == 0 && (lastDigit & 1) != 0)) {
+            fraction++;
+            if (fraction == LONG_POWERS_OF_10[fractionDigits]) {
+                fraction = 0L;
+                integerPart++;
+            }
+        }
+        int fractionLength = fractionDigits;
+        while (fractionLength > minimumFractionDigits && fraction % 10 == 0) {
+            fraction /= 10;
+            fractionLength--;
+        }
+        append(to, negative, integerPart, fraction, fractionLength);
+    }
+
+    void appendDecimal(@Nonnull Appendable to, @Nonnull BigInteger bytes, @Nonnull ByteUnit unit) throws IOException {
+        final BigDecimal value = new BigDecimal(bytes).divide(unit.bigDecimalBase(), maximumFractionDigits, ROUNDING_MODE);
+        final char[] unscaled = value.unscaledValue().abs().toString().toCharArray();
+        final int integerLength = Math.max(unscaled.length - maximumFractionDigits, 1);
+        final char[] digits = new char[integerLength + maximumFractionDigits];
+        fillWithZeros(digits, 0, digits.length - unscaled.length);
+        System.arraycopy(unscaled, 0, digits, digits.length - unscaled.length, unscaled.length);
+        append(to, value.signum() < 0, digits, 0, integerLength, fractionLengthOf(digits, integerLength));
+    }
+
+    /**
+     * Does not create any objects.
+     */
+    void appendInteger(@Nonnull Appendable to, long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            appendInteger(to, BigInteger.valueOf(value));
+            return;
+        }
+        final boolean negative = value < 0;
+        to.append(negative ? negativePrefix : positivePrefix);
+        appendIntegerDigits(to, negative ? -value : value);
+        if (minimumFractionDigits > 0) {
+            to.append(decimalSeparator);
+            for (int i = 0; i < minimumFractionDigits; i++) {
+                to.append(zeroDigit);
+            }
+        }
+        to.append(negative ? negativeSuffix : positiveSuffix);
+    }
+
+    void appendInteger(@Nonnull Appendable to, @Nonnull BigInteger value) throws IOException {
+        final char[] magnitude = value.abs().toString().toCharArray();
+        final char[] digits = new char[magnitude.length + minimumFractionDigits];
+        System.arraycopy(magnitude, 0, digits, 0, magnitude.length);
+        fillWithZeros(digits, magnitude.length, minimumFractionDigits);
+        append(to, value.signum() < 0, digits, 0, magnitude.length, minimumFractionDigits);
+    }
+
+    /**
+     * @param fraction the first <code>fractionLength</code> fraction digits as number.
+     */
+    void append(@Nonnull Appendable to, boolean negative, @Nonnegative long integerPart, @Nonnegative long fraction, @Nonnegative int fractionLength) throws IOException {
+        to.append(negative ? negativePrefix : positivePrefix);
+        appendIntegerDigits(to, integerPart);
+        if (fractionLength > 0) {
+            to.append(decimalSeparator);
+            for (int i = fractionLength - 1; i >= 0; i--) {
+                to.append((char) (zeroDigit + (fraction / LONG_POWERS_OF_10[i]) % 10));
+            }
+        }
+        to.append(negative ? negativeSuffix : positiveSuffix);
+    }
+
+    void appendIntegerDigits(@Nonnull Appendable to, @Nonnegative long value) throws IOException {
+        int length = 1;
+        while (length < LONG_POWERS_OF_10.length && value >= LONG_POWERS_OF_10[length]) {
+            length++;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            if (i < length - 1 && groupingSize > 0 && (i + 1) % groupingSize == 0) {
+                to.append(groupingSeparator);
+            }
+            to.append((char) (zeroDigit + (value / LONG_POWERS_OF_10[i]) % 10));
+        }
+    }
+
+    /**
+     * @param digits ASCII digits where the fraction directly follows the integer part.
+     */
+    void append(@Nonnull Appendable to, boolean negative, @Nonnull char[] digits, @Nonnegative int integerStart, @Nonnegative int integerLength, @Nonnegative int fractionLength) throws IOException {
+        to.append(negative ? negativePrefix : positivePrefix);
+        final int digitOffset = zeroDigit - '0';
+        for (int i = 0; i < integerLength; i++) {
+            if (i > 0 && groupingSize > 0 && (integerLength - i) % groupingSize == 0) {
+                to.append(groupingSeparator);
+            }
+            to.append((char) (digits[integerStart + i] + digitOffset));
+        }
+        if (fractionLength > 0) {
+            to.append(decimalSeparator);
+            final int fractionStart = integerStart + integerLength;
+            for (int i = 0; i < fractionLength; i++) {
+                to.append((char) (digits[fractionStart + i] + digitOffset));
+            }
+        }
+        to.append(negative ? negativeSuffix : positiveSuffix);
+    }
+
+    /**
+     * @return how many of the fraction digits starting at <code>fractionStart</code> has to be rendered after
+     * trailing zeros were removed.
+     */
+    @Nonnegative
+    int fractionLengthOf(@Nonnull char[] digits, @Nonnegative int fractionStart) {
+        int result = maximumFractionDigits;
+        while (result > minimumFractionDigits && digits[fractionStart + result - 1] == '0') {
+            result--;
+        }
+        return result;
+    }
+
+    static void fillWithZeros(@Nonnull char[] digits, @Nonnegative int offset, @Nonnegative int length) {
+        for (int i = offset; i < offset + length; i++) {
+            digits[i] = '0';
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Serialized form of {@link ByteCount} which uses the compact encoding of {@link ByteCountCodec}. The short class
+ * name keeps the class descriptor inside of the stream small.
+ */
+final class Ser implements Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Nullable
+    private ByteCount value;
+
+    /**
+     * Required by {@link Externalizable}.
+     */
+    public Ser() {
+    }
+
+    Ser(@Nonnull ByteCount value) {
+        this.value = value;
+    }
+
+    @Override
+    public void writeExternal(@Nonnull ObjectOutput out) throws IOException {
+        if (value == null) {
+            throw new InvalidObjectException("Missing value.");
+        }
+        ByteCountCodec.write(value, out);
+    }
+
+    @Override
+    public void readExternal(@Nonnull ObjectInput in) throws IOException {
+        value = ByteCountCodec.read(in);
+    }
+
+    @Nonnull
+    private Object readResolve() throws InvalidObjectException {
+        if (value == null) {
+            throw new InvalidObjectException("Missing value.");
+        }
+        return value;
+    }
+
+}
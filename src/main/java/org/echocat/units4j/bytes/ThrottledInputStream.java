@@ -0,0 +1,59 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Limits reading and skipping to the rate of a {@link ByteRateLimiter}. The bytes are acquired after they were
+ * transferred, in batches of {@link ByteRateLimiter#batchSize()}.
+ */
+@NotThreadSafe
+public class ThrottledInputStream extends FilterInputStream {
+
+    @Nonnull
+    private final ByteRateLimiter limiter;
+    private long pending;
+
+    public ThrottledInputStream(@Nonnull InputStream in, @Nonnull ByteRateLimiter limiter) {
+        super(requireNonNull(in));
+        this.limiter = requireNonNull(limiter);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int result = in.read();
+        if (result >= 0) {
+            pending = limiter.charge(pending, 1L);
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int result = in.read(b, off, limiter.chunkOf(len));
+        if (result > 0) {
+            pending = limiter.charge(pending, result);
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long result = in.skip(Math.min(n, limiter.chunkOf(Integer.MAX_VALUE)));
+        if (result > 0) {
+            pending = limiter.charge(pending, result);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ThrottledInputStream{" + limiter + '}';
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Limits writing to the rate of a {@link ByteRateLimiter}. The bytes are acquired after they were transferred, in
+ * batches of {@link ByteRateLimiter#batchSize()}.
+ */
+@NotThreadSafe
+public class ThrottledOutputStream extends FilterOutputStream {
+
+    @Nonnull
+    private final ByteRateLimiter limiter;
+    private long pending;
+
+    public ThrottledOutputStream(@Nonnull OutputStream out, @Nonnull ByteRateLimiter limiter) {
+        super(requireNonNull(out));
+        this.limiter = requireNonNull(limiter);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        pending = limiter.charge(pending, 1L);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        int written = 0;
+        while (written < len) {
+            final int chunk = limiter.chunkOf(len - written);
+            out.write(b, off + written, chunk);
+            written += chunk;
+            pending = limiter.charge(pending, chunk);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ThrottledOutputStream{" + limiter + '}';
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Limits reading to the rate of a {@link ByteRateLimiter}. The bytes are acquired after they were transferred, in
+ * batches of {@link ByteRateLimiter#batchSize()}. Like most channels only one read should be in progress at a time.
+ */
+@NotThreadSafe
+public class ThrottledReadableByteChannel implements ReadableByteChannel {
+
+    @Nonnull
+    private final ReadableByteChannel delegate;
+    @Nonnull
+    private final ByteRateLimiter limiter;
+    private long pending;
+
+    public ThrottledReadableByteChannel(@Nonnull ReadableByteChannel delegate, @Nonnull ByteRateLimiter limiter) {
+        this.delegate = requireNonNull(delegate);
+        this.limiter = requireNonNull(limiter);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        final int limit = dst.limit();
+        final int chunk = limiter.chunkOf(dst.remaining());
+        final int result;
+        // Called on Buffer because ByteBuffer overrides limit(int) only since Java 9.
+        ((Buffer) dst).limit(dst.position() + chunk);
+        try {
+            result = delegate.read(dst);
+        } finally {
+            ((Buffer) dst).limit(limit);
+        }
+        if (result > 0) {
+            pending = limiter.charge(pending, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    public String toString() {
+        return "ThrottledReadableByteChannel{" + limiter + '}';
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Limits writing to the rate of a {@link ByteRateLimiter}. The bytes are acquired after they were transferred, in
+ * batches of {@link ByteRateLimiter#batchSize()}. Like most channels only one write should be in progress at a time.
+ */
+@NotThreadSafe
+public class ThrottledWritableByteChannel implements WritableByteChannel {
+
+    @Nonnull
+    private final WritableByteChannel delegate;
+    @Nonnull
+    private final ByteRateLimiter limiter;
+    private long pending;
+
+    public ThrottledWritableByteChannel(@Nonnull WritableByteChannel delegate, @Nonnull ByteRateLimiter limiter) {
+        this.delegate = requireNonNull(delegate);
+        this.limiter = requireNonNull(limiter);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        final int limit = src.limit();
+        final int chunk = limiter.chunkOf(src.remaining());
+        final int result;
+        // Called on Buffer because ByteBuffer overrides limit(int) only since Java 9.
+        ((Buffer) src).limit(src.position() + chunk);
+        try {
+            result = delegate.write(src);
+        } finally {
+            ((Buffer) src).limit(limit);
+        }
+        if (result > 0) {
+            pending = limiter.charge(pending, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    public String toString() {
+        return "ThrottledWritableByteChannel{" + limiter + '}';
+    }
+
+}
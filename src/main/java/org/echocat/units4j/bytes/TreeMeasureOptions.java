@@ -0,0 +1,220 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.nio.file.FileSystem;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Options of {@link ByteCounts#measureTree(java.nio.file.Path, TreeMeasureOptions)}.
+ */
+@Immutable
+public class TreeMeasureOptions {
+
+    private static final TreeMeasureOptions DEFAULT = treeMeasureOptions().build();
+
+    @Nonnull
+    public static Builder treeMeasureOptions() {
+        return new Builder();
+    }
+
+    @Nonnull
+    public static TreeMeasureOptions defaultTreeMeasureOptions() {
+        return DEFAULT;
+    }
+
+    private final boolean followSymlinks;
+    @Nonnull
+    private final List<String> excludes;
+    @Nonnegative
+    private final long allocationUnit;
+    @Nonnegative
+    private final int breakdownDepth;
+    private final boolean ignoreErrors;
+    @Nullable
+    private final ForkJoinPool pool;
+
+    protected TreeMeasureOptions(
+        boolean followSymlinks,
+        @Nonnull List<String> excludes,
+        @Nonnegative long allocationUnit,
+        @Nonnegative int breakdownDepth,
+        boolean ignoreErrors,
+        @Nullable ForkJoinPool pool
+    ) {
+        this.followSymlinks = followSymlinks;
+        this.excludes = unmodifiableList(new ArrayList<>(excludes));
+        this.allocationUnit = allocationUnit;
+        this.breakdownDepth = breakdownDepth;
+        this.ignoreErrors = ignoreErrors;
+        this.pool = pool;
+    }
+
+    public boolean isFollowSymlinks() {
+        return followSymlinks;
+    }
+
+    @Nonnull
+    public List<String> excludes() {
+        return excludes;
+    }
+
+    @Nonnull
+    public Optional<ByteCount> allocationUnit() {
+        return allocationUnit > 0 ? Optional.of(ByteCount.valueOf(allocationUnit)) : empty();
+    }
+
+    @Nonnegative
+    public int breakdownDepth() {
+        return breakdownDepth;
+    }
+
+    public boolean isIgnoreErrors() {
+        return ignoreErrors;
+    }
+
+    @Nonnull
+    public ForkJoinPool pool() {
+        return pool != null ? pool : ForkJoinPool.commonPool();
+    }
+
+    @Nonnull
+    List<PathMatcher> excludeMatchersFor(@Nonnull FileSystem fileSystem) {
+        if (excludes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<PathMatcher> result = new ArrayList<>(excludes.size());
+        for (final String exclude : excludes) {
+            result.add(fileSystem.getPathMatcher("glob:" + exclude));
+        }
+        return result;
+    }
+
+    /**
+     * @return the size of a file with the given apparent size as it is counted.
+     */
+    @Nonnegative
+    long countedSizeOf(@Nonnegative long size) {
+        if (allocationUnit <= 0 || size == 0) {
+            return size;
+        }
+        return ((size - 1) / allocationUnit + 1) * allocationUnit;
+    }
+
+    public static class Builder {
+
+        @Nonnull
+        private Optional<Boolean> followSymlinks = empty();
+        @Nonnull
+        private final List<String> excludes = new ArrayList<>();
+        @Nonnull
+        private Optional<ByteCount> allocationUnit = empty();
+        @Nonnull
+        private Optional<Integer> breakdownDepth = empty();
+        @Nonnull
+        private Optional<Boolean> ignoreErrors = empty();
+        @Nonnull
+        private Optional<ForkJoinPool> pool = empty();
+
+        /**
+         * If enabled the targets of symbolic links are measured - every directory only once. Otherwise the links
+         * themselves are counted as files. Default is <code>false</code>.
+         */
+        @Nonnull
+        public Builder withFollowSymlinks(@Nullable Boolean followSymlinks) {
+            this.followSymlinks = ofNullable(followSymlinks);
+            return this;
+        }
+
+        /**
+         * Skips all files and directories which match one of the given globs - either with their path relative to the
+         * measured root (like <code>**&#47;target</code>) or with their file name only (like <code>*.tmp</code>).
+         */
+        @Nonnull
+        public Builder withExcludes(@Nullable String... globs) {
+            excludes.clear();
+            if (globs != null) {
+                for (final String glob : asList(globs)) {
+                    excludes.add(requireNonNull(glob, "globs contains null."));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Rounds up the size of every file to a multiple of <code>allocationUnit</code> - like the block size of the
+         * file system - to approximate the allocated instead of the apparent size. Sparse files are not detected.
+         * Default is to count the apparent size.
+         */
+        @Nonnull
+        public Builder withAllocationUnit(@Nullable ByteCount allocationUnit) {
+            if (allocationUnit != null && (!allocationUnit.isLongValue() || allocationUnit.longValue() <= 0)) {
+                throw new IllegalArgumentException("Given allocationUnit value is not positive or too big: " + allocationUnit);
+            }
+            this.allocationUnit = ofNullable(allocationUnit);
+            return this;
+        }
+
+        /**
+         * Records the size of every directory up to this depth below the root, <code>1</code> for the direct children
+         * only. Default is <code>0</code>: no breakdown.
+         */
+        @Nonnull
+        public Builder withBreakdownDepth(@Nullable @Nonnegative Integer breakdownDepth) {
+            if (breakdownDepth != null && breakdownDepth < 0) {
+                throw new IllegalArgumentException("Given breakdownDepth value is negative: " + breakdownDepth);
+            }
+            this.breakdownDepth = ofNullable(breakdownDepth);
+            return this;
+        }
+
+        /**
+         * If enabled entries which could not be read are skipped and only {@link TreeMeasurement#failures() counted}.
+         * Default is <code>false</code>: the first failure is thrown.
+         */
+        @Nonnull
+        public Builder withIgnoreErrors(@Nullable Boolean ignoreErrors) {
+            this.ignoreErrors = ofNullable(ignoreErrors);
+            return this;
+        }
+
+        /**
+         * Default is {@link ForkJoinPool#commonPool()}.
+         */
+        @Nonnull
+        public Builder withPool(@Nullable ForkJoinPool pool) {
+            this.pool = ofNullable(pool);
+            return this;
+        }
+
+        protected Builder() {
+        }
+
+        @Nonnull
+        public TreeMeasureOptions build() {
+            return new TreeMeasureOptions(
+                followSymlinks.orElse(false),
+                excludes,
+                allocationUnit.map(ByteCount::longValue).orElse(0L),
+                breakdownDepth.orElse(0),
+                ignoreErrors.orElse(false),
+                pool.orElse(null)
+            );
+        }
+
+    }
+
+}
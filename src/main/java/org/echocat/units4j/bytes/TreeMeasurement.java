@@ -0,0 +1,96 @@
+package org.echocat.units4j.bytes;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Result of {@link ByteCounts#measureTree(Path, TreeMeasureOptions)}.
+ */
+@Immutable
+public class TreeMeasurement {
+
+    @Nonnull
+    private final Path root;
+    @Nonnull
+    private final ByteCount total;
+    @Nonnegative
+    private final long files;
+    @Nonnegative
+    private final long directories;
+    @Nonnegative
+    private final long failures;
+    @Nonnull
+    private final Map<Path, ByteCount> breakdown;
+
+    protected TreeMeasurement(
+        @Nonnull Path root,
+        @Nonnull ByteCount total,
+        @Nonnegative long files,
+        @Nonnegative long directories,
+        @Nonnegative long failures,
+        @Nonnull Map<Path, ByteCount> breakdown
+    ) {
+        this.root = root;
+        this.total = total;
+        this.files = files;
+        this.directories = directories;
+        this.failures = failures;
+        this.breakdown = unmodifiableMap(new TreeMap<>(breakdown));
+    }
+
+    @Nonnull
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * @return the sum of the sizes of all counted files. Directories themselves are not counted.
+     */
+    @Nonnull
+    public ByteCount total() {
+        return total;
+    }
+
+    @Nonnegative
+    public long files() {
+        return files;
+    }
+
+    /**
+     * @return the number of measured directories including the root.
+     */
+    @Nonnegative
+    public long directories() {
+        return directories;
+    }
+
+    /**
+     * @return how many entries could not be read. Always <code>0</code> if errors are not
+     * {@link TreeMeasureOptions.Builder#withIgnoreErrors(Boolean) ignored}.
+     */
+    @Nonnegative
+    public long failures() {
+        return failures;
+    }
+
+    /**
+     * @return the total size of every directory up to the {@link TreeMeasureOptions#breakdownDepth() breakdown depth}
+     * ordered by their paths.
+     */
+    @Nonnull
+    public Map<Path, ByteCount> breakdown() {
+        return breakdown;
+    }
+
+    @Override
+    public String toString() {
+        return "TreeMeasurement{root=" + root + ", total=" + total + ", files=" + files + ", directories=" + directories + ", failures=" + failures + '}';
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.echocat.units4j.bytes.ByteBudget.byteBudget;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteBudgetUnitTest {
+
+    @Test
+    public void useCases() {
+        final ByteBudget budget = byteBudget(valueOf(10, KiB));
+
+        assertThat(budget.tryReserve(valueOf(4, KiB)), is(true));
+        assertThat(budget.tryReserve(valueOf(6, KiB)), is(true));
+        assertThat(budget.tryReserve(1), is(false));
+        assertThat(budget.used(), is(valueOf(10, KiB)));
+        assertThat(budget.available(), is(valueOf(0)));
+
+        budget.release(valueOf(6, KiB));
+        assertThat(budget.used(), is(valueOf(4, KiB)));
+        assertThat(budget.available(), is(valueOf(6, KiB)));
+        assertThat(budget.highWatermark(), is(valueOf(10, KiB)));
+        assertThat(budget.resetHighWatermark(), is(valueOf(10, KiB)));
+        assertThat(budget.highWatermark(), is(valueOf(4, KiB)));
+        assertThat(budget.toString(), is("ByteBudget{used=4KiB, capacity=10KiB, highWatermark=4KiB}"));
+
+        assertThat(budget.tryReserve(valueOf(1, EiB).multiply(100)), is(false));
+        assertThat(() -> budget.release(valueOf(5, KiB)), throwsException(IllegalStateException.class, "Could not release 5KiB because only 4KiB are reserved."));
+        assertThat(() -> budget.tryReserve(-1), throwsException(IllegalArgumentException.class, "Given bytes value is negative: -1"));
+        assertThat(() -> byteBudget(valueOf(-1)), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void subBudgets() {
+        final ByteBudget global = byteBudget(valueOf(10, KiB));
+        final ByteBudget tenantA = global.newSubBudget(valueOf(6, KiB));
+        final ByteBudget tenantB = global.newSubBudget(valueOf(6, KiB));
+
+        assertThat(tenantA.parent().get(), is(global));
+        assertThat(global.parent().isPresent(), is(false));
+
+        assertThat(tenantA.tryReserve(valueOf(7, KiB)), is(false));
+        assertThat(tenantA.tryReserve(valueOf(6, KiB)), is(true));
+        assertThat(tenantB.tryReserve(valueOf(5, KiB)), is(false));
+        assertThat(tenantB.used(), is(valueOf(0)));
+        assertThat(tenantB.tryReserve(valueOf(4, KiB)), is(true));
+        assertThat(global.used(), is(valueOf(10, KiB)));
+
+        tenantA.release(valueOf(6, KiB));
+        assertThat(tenantA.used(), is(valueOf(0)));
+        assertThat(global.used(), is(valueOf(4, KiB)));
+        assertThat(tenantB.tryReserve(valueOf(2, KiB)), is(true));
+        assertThat(global.used(), is(valueOf(6, KiB)));
+    }
+
+    @Test
+    public void reserveWithTimeout() throws Exception {
+        final ByteBudget global = byteBudget(valueOf(10, KiB));
+        final ByteBudget tenant = global.newSubBudget(valueOf(8, KiB));
+        assertThat(global.tryReserve(valueOf(8, KiB)), is(true));
+
+        assertThat(tenant.reserve(valueOf(4, KiB), Duration.ofMillis(10)), is(false));
+        assertThat(() -> tenant.reserve(valueOf(9, KiB), Duration.ofSeconds(10)), throwsException(IllegalArgumentException.class, "Given bytes value 9KiB exceeds the capacity of 8KiB."));
+
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final AtomicReference<Boolean> reserved = new AtomicReference<>();
+        final Thread thread = new Thread(() -> {
+            waiting.countDown();
+            try {
+                reserved.set(tenant.reserve(4096, 10, TimeUnit.SECONDS));
+            } catch (final InterruptedException ignored) {
+                reserved.set(null);
+            }
+        });
+        thread.start();
+        waiting.await();
+        Thread.sleep(20);
+        global.release(valueOf(2, KiB));
+        thread.join();
+
+        assertThat(reserved.get(), is(true));
+        assertThat(tenant.used(), is(valueOf(4, KiB)));
+        assertThat(global.used(), is(valueOf(10, KiB)));
+    }
+
+    @Test
+    public void concurrentReservationsNeverExceedCapacity() throws Exception {
+        final ByteBudget global = byteBudget(valueOf(64, KiB));
+        final List<ByteBudget> tenants = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tenants.add(global.newSubBudget(valueOf(32, KiB)));
+        }
+        final AtomicBoolean exceeded = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final ByteBudget tenant = tenants.get(t % tenants.size());
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < 20_000; i++) {
+                        final long bytes = 1024 + (i % 7) * 1024;
+                        if (tenant.reserve(bytes, 1, TimeUnit.SECONDS)) {
+                            if (global.used().longValue() > 64 * 1024 || tenant.used().longValue() > 32 * 1024) {
+                                exceeded.set(true);
+                            }
+                            tenant.release(bytes);
+                        }
+                    }
+                } catch (final Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(failure.get(), nullValue());
+        assertThat(exceeded.get(), is(false));
+        assertThat(global.used(), is(valueOf(0)));
+        assertThat(global.highWatermark().compareTo(valueOf(64, KiB)) <= 0, is(true));
+        for (final ByteBudget tenant : tenants) {
+            assertThat(tenant.used(), is(valueOf(0)));
+            assertThat(tenant.highWatermark().compareTo(valueOf(32, KiB)) <= 0, is(true));
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.echocat.units4j.bytes.ByteBufferPool.BufferType.direct;
+import static org.echocat.units4j.bytes.ByteBufferPool.byteBufferPool;
+import static org.echocat.units4j.bytes.ByteBufferPool.indexOf;
+import static org.echocat.units4j.bytes.ByteBufferPool.sizeOf;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteBufferPoolUnitTest {
+
+    @Test
+    public void sizeClasses() {
+        assertThat(sizeOf(indexOf(0)), is(1024));
+        assertThat(sizeOf(indexOf(1)), is(1024));
+        assertThat(sizeOf(indexOf(1025)), is(1280));
+        assertThat(sizeOf(indexOf(1536)), is(1536));
+        assertThat(sizeOf(indexOf(2000)), is(2048));
+        assertThat(sizeOf(indexOf(2049)), is(2560));
+        assertThat(sizeOf(indexOf(1 << 20)), is(1 << 20));
+        assertThat(sizeOf(indexOf(1 << 30)), is(1 << 30));
+
+        for (int index = 1; sizeOf(index) <= 1 << 30 && sizeOf(index) > 0; index++) {
+            final int size = sizeOf(index);
+            assertThat(indexOf(size), is(index));
+            assertThat(indexOf(size + 1), is(index + 1));
+            assertThat(indexOf(sizeOf(index - 1) + 1), is(index));
+            assertThat(size - sizeOf(index - 1) <= sizeOf(index - 1) / 4, is(true));
+        }
+    }
+
+    @Test
+    public void releasedBuffersAreReused() {
+        final ByteBufferPool pool = byteBufferPool().build();
+        final ByteBuffer buffer = pool.acquire(3000);
+
+        assertThat(buffer.capacity(), is(3072));
+        assertThat(buffer.limit(), is(3000));
+        assertThat(buffer.isDirect(), is(false));
+        assertThat(pool.retained(), is(valueOf(0)));
+
+        buffer.put((byte) 1).position(10);
+        pool.release(buffer);
+        assertThat(pool.retained(), is(valueOf(3, KiB)));
+
+        final ByteBuffer reused = pool.acquire(2900);
+        assertThat(reused, sameInstance(buffer));
+        assertThat(reused.position(), is(0));
+        assertThat(reused.limit(), is(2900));
+        assertThat(pool.retained(), is(valueOf(0)));
+    }
+
+    @Test
+    public void reusedBuffersAreBigEndian() {
+        final ByteBufferPool pool = byteBufferPool().build();
+        final ByteBuffer buffer = pool.acquire(1024);
+        assertThat(buffer.order(), is(BIG_ENDIAN));
+
+        pool.release(buffer.order(LITTLE_ENDIAN));
+
+        final ByteBuffer reused = pool.acquire(1024);
+        assertThat(reused, sameInstance(buffer));
+        assertThat(reused.order(), is(BIG_ENDIAN));
+    }
+
+    @Test
+    public void unreferencedPoolsAreGarbageCollected() throws Exception {
+        final WeakReference<ByteBufferPool> reference = usedAndForgottenPool();
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(reference.get(), nullValue());
+    }
+
+    private static WeakReference<ByteBufferPool> usedAndForgottenPool() {
+        final ByteBufferPool pool = byteBufferPool().withType(direct).build();
+        pool.release(pool.acquire(1024));
+        return new WeakReference<>(pool);
+    }
+
+    @Test
+    public void directBuffers() {
+        final ByteBufferPool pool = byteBufferPool().withType(direct).build();
+        final ByteBuffer buffer = valueOf(4, KiB).allocateBuffer(pool);
+
+        assertThat(buffer.isDirect(), is(true));
+        assertThat(buffer.capacity(), is(4096));
+
+        pool.release(ByteBuffer.allocate(4096));
+        assertThat(pool.retained(), is(valueOf(0)));
+        pool.release(buffer);
+        assertThat(pool.retained(), is(valueOf(4, KiB)));
+        assertThat(() -> pool.acquireBytes(10), throwsException(IllegalStateException.class, "Only pools of heap buffers could provide byte arrays."));
+    }
+
+    @Test
+    public void bytes() {
+        final ByteBufferPool pool = byteBufferPool().build();
+        final byte[] bytes = valueOf(10, KiB).add(1).allocateBytes(pool);
+
+        assertThat(bytes.length, is(12288));
+        pool.release(bytes);
+        assertThat(pool.acquireBytes(11000), sameInstance(bytes));
+    }
+
+    @Test
+    public void tooBigBuffersAreNotPooled() {
+        final ByteBufferPool pool = byteBufferPool().withMaximumBufferSize(valueOf(1000)).build();
+        assertThat(pool.maximumBufferSize(), is(valueOf(1, KiB)));
+
+        final ByteBuffer buffer = pool.acquire(5000);
+        assertThat(buffer.capacity(), is(5000));
+        pool.release(buffer);
+        assertThat(pool.retained(), is(valueOf(0)));
+        assertThat(pool.acquire(5000), not(sameInstance(buffer)));
+
+        assertThat(() -> pool.acquire(valueOf(3, GiB)), throwsException(IllegalArgumentException.class));
+        assertThat(() -> pool.acquire(-1), throwsException(IllegalArgumentException.class, "Given size value is negative: -1"));
+    }
+
+    @Test
+    public void capacityIsRespected() {
+        final ByteBufferPool pool = byteBufferPool().withCapacity(valueOf(4, KiB)).withMagazineSize(2).build();
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            buffers.add(pool.acquire(1024));
+        }
+        buffers.forEach(pool::release);
+        assertThat(pool.retained(), is(valueOf(4, KiB)));
+
+        for (int i = 0; i < 6; i++) {
+            pool.acquire(1024);
+        }
+        assertThat(pool.retained(), is(valueOf(0)));
+    }
+
+    @Test
+    public void magazinesOfTerminatedThreadsAreMovedToDepot() throws Exception {
+        final ByteBufferPool pool = byteBufferPool().withMagazineSize(2).build();
+        final List<ByteBuffer> released = new ArrayList<>();
+        final Thread thread = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                released.add(pool.acquire(1024));
+            }
+            released.forEach(pool::release);
+        });
+        thread.start();
+        thread.join();
+        assertThat(pool.retained(), is(valueOf(5, KiB)));
+
+        final List<ByteBuffer> acquired = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            acquired.add(pool.acquire(1024));
+        }
+        assertThat(acquired.containsAll(released), is(true));
+
+        acquired.forEach(pool::release);
+        final Thread other = new Thread(() -> pool.acquire(1024));
+        other.start();
+        other.join();
+        pool.clear();
+        // Three buffers are still in the magazines of this thread, the remaining one of the other thread was dropped.
+        assertThat(pool.retained(), is(valueOf(3, KiB)));
+    }
+
+    @Test
+    public void concurrentUsage() throws Exception {
+        final ByteBufferPool pool = byteBufferPool().withCapacity(valueOf(64, KiB)).withMagazineSize(4).build();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int seed = t;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < 10_000; i++) {
+                        final ByteBuffer buffer = pool.acquire(1024 + ((i * 31 + seed) % 4096));
+                        buffer.put(0, (byte) i);
+                        pool.release(buffer);
+                    }
+                } catch (final Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(failure.get(), nullValue());
+        assertThat(pool.retained().compareTo(valueOf(64, KiB)) <= 0, is(true));
+    }
+
+    @Test
+    public void leakDetection() throws Exception {
+        final List<IllegalStateException> leaks = new ArrayList<>();
+        final ByteBufferPool pool = byteBufferPool().withLeakDetection(leaks::add).build();
+
+        final ByteBuffer buffer = pool.acquire(1024);
+        pool.release(buffer);
+        assertThat(() -> pool.release(buffer), throwsException(IllegalArgumentException.class, "Given buffer was not acquired from this pool or was already released."));
+
+        acquireAndForget(pool);
+        for (int i = 0; i < 100 && pool.leaks() == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(pool.leaks(), is(1L));
+        assertThat(leaks.size(), is(1));
+        assertThat(leaks.get(0).getMessage(), is("Buffer of 2KiB was garbage collected without being released to its pool. It was acquired at:"));
+    }
+
+    private static void acquireAndForget(ByteBufferPool pool) {
+        pool.acquire(2048);
+    }
+
+    @Test
+    public void illegalConfigurations() {
+        assertThat(() -> byteBufferPool().withCapacity(valueOf(-1)), throwsException(IllegalArgumentException.class));
+        assertThat(() -> byteBufferPool().withMaximumBufferSize(valueOf(2, GiB)), throwsException(IllegalArgumentException.class, "Given maximumBufferSize value is not between 0B and 1GiB: 2GiB"));
+        assertThat(() -> byteBufferPool().withMagazineSize(0), throwsException(IllegalArgumentException.class, "Given magazineSize value is not positive: 0"));
+    }
+
+}
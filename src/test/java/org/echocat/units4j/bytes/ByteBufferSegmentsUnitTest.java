@@ -0,0 +1,190 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.echocat.units4j.bytes.ByteBufferPool.BufferType.direct;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class ByteBufferSegmentsUnitTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void allocateSegmented() {
+        final ByteBufferSegments segments = valueOf(10, KiB).allocateSegmented(valueOf(4, KiB));
+
+        assertThat(segments.size(), is(3));
+        assertThat(segments.length(), is(10240L));
+        assertThat(segments.byteCount(), is(valueOf(10, KiB)));
+        assertThat(segments.segmentSize(), is(valueOf(4, KiB)));
+        assertThat(segments.get(0).capacity(), is(4096));
+        assertThat(segments.get(2).capacity(), is(2048));
+        assertThat(segments.get(0).isDirect(), is(false));
+        assertThat(segments.toString(), is("ByteBufferSegments{byteCount=10KiB, segmentSize=4KiB, segments=3}"));
+
+        assertThat(valueOf(0).allocateSegmented(valueOf(4, KiB)).size(), is(0));
+        assertThat(valueOf(8, KiB).allocateSegmented(valueOf(4, KiB), direct).get(1).isDirect(), is(true));
+    }
+
+    @Test
+    public void absoluteAccess() {
+        final ByteBufferSegments segments = valueOf(100).allocateSegmented(valueOf(16));
+
+        segments.putByte(15, (byte) 1);
+        segments.putByte(16, (byte) 2);
+        assertThat(segments.getByte(15), is((byte) 1));
+        assertThat(segments.getByte(16), is((byte) 2));
+        assertThat(segments.get(1).get(0), is((byte) 2));
+
+        segments.putLong(12, 0x0102030405060708L);
+        assertThat(segments.getLong(12), is(0x0102030405060708L));
+        assertThat(segments.get(0).getInt(12), is(0x01020304));
+        assertThat(segments.get(1).getInt(0), is(0x05060708));
+        segments.putLong(32, -2L);
+        assertThat(segments.getLong(32), is(-2L));
+
+        assertThat(() -> segments.getByte(100), throwsException(IndexOutOfBoundsException.class));
+        assertThat(() -> segments.getByte(-1), throwsException(IndexOutOfBoundsException.class));
+        assertThat(() -> segments.getLong(93), throwsException(IndexOutOfBoundsException.class));
+    }
+
+    @Test
+    public void bulkAccess() {
+        final ByteBufferSegments segments = valueOf(100).allocateSegmented(valueOf(16));
+        final byte[] source = new byte[50];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (byte) i;
+        }
+
+        segments.putBytes(10, source, 5, 40);
+        final byte[] target = new byte[42];
+        segments.getBytes(9, target, 1, 41);
+
+        assertThat(target[1], is((byte) 0));
+        for (int i = 0; i < 40; i++) {
+            assertThat(target[i + 2], is((byte) (i + 5)));
+        }
+        assertThat(() -> segments.putBytes(70, source, 0, 31), throwsException(IndexOutOfBoundsException.class));
+        assertThat(() -> segments.getBytes(0, target, 2, 41), throwsException(IndexOutOfBoundsException.class));
+    }
+
+    @Test
+    public void viewsAreIndependent() {
+        final ByteBufferSegments segments = valueOf(32).allocateSegmented(valueOf(16));
+        final ByteBuffer view = segments.get(0);
+        view.position(10).limit(12);
+        view.put((byte) 7);
+
+        assertThat(segments.get(0).position(), is(0));
+        assertThat(segments.get(0).limit(), is(16));
+        assertThat(segments.getByte(10), is((byte) 7));
+    }
+
+    @Test
+    public void illegalArguments() {
+        assertThat(() -> valueOf(10, KiB).allocateSegmented(valueOf(3, KiB)), throwsException(IllegalArgumentException.class, "Given segmentSize value is not a power of two: 3072"));
+        assertThat(() -> valueOf(10, KiB).allocateSegmented(valueOf(2, GiB)), throwsException(IllegalArgumentException.class, "Given segmentSize value exceeds 1GiB: 2GiB"));
+        assertThat(() -> valueOf(-1).allocateSegmented(valueOf(1, KiB)), throwsException(IllegalArgumentException.class));
+        assertThat(() -> valueOf(4, EiB).allocateSegmented(valueOf(1)), throwsException(IllegalArgumentException.class, "Given segmentSize value 1B is too small for 4EiB."));
+    }
+
+    @Test
+    public void mapAcrossSegmentBoundaries() throws IOException {
+        final Path file = temporaryFolder.getRoot().toPath().resolve("segmented");
+        final long index = valueOf(8, KiB).add(valueOf(100)).longValue();
+
+        final ByteBufferSegments written = valueOf(10, KiB).map(file, READ_WRITE, valueOf(4, KiB));
+        assertThat(written.size(), is(3));
+        assertThat(Files.size(file), is(valueOf(10, KiB).longValue()));
+        written.putLong(index, 666L);
+        written.putLong(valueOf(4, KiB).longValue() - 4, 0x0102030405060708L);
+        written.putBytes(valueOf(8, KiB).longValue() - 2, new byte[]{1, 2, 3, 4}, 0, 4);
+        written.force();
+
+        final ByteBufferSegments read = valueOf(10, KiB).map(file, READ_ONLY, valueOf(4, KiB));
+        assertThat(read.getLong(index), is(666L));
+        assertThat(read.getLong(valueOf(4, KiB).longValue() - 4), is(0x0102030405060708L));
+        final byte[] bytes = new byte[4];
+        read.getBytes(valueOf(8, KiB).longValue() - 2, bytes, 0, 4);
+        assertThat(bytes, is(new byte[]{1, 2, 3, 4}));
+        assertThat(() -> read.putByte(0, (byte) 1), throwsException(ReadOnlyBufferException.class));
+    }
+
+    /**
+     * Requires 3GiB of disk space on file systems without sparse files, so it only runs if enabled with the
+     * <code>large-files</code> profile.
+     */
+    @Test
+    public void mapBeyondTwoGiB() throws Exception {
+        assumeTrue(Boolean.getBoolean("units4j.largeFileTests"));
+        final Path file = temporaryFolder.getRoot().toPath().resolve("large");
+        final long index = valueOf(2, GiB).add(valueOf(512, MiB)).longValue();
+
+        writeBeyondTwoGiB(file, index);
+        readBeyondTwoGiB(file, index);
+        deleteMapped(file);
+    }
+
+    private static void writeBeyondTwoGiB(Path file, long index) throws IOException {
+        final ByteBufferSegments written = valueOf(3, GiB).map(file, READ_WRITE);
+        assertThat(written.size(), is(3));
+        assertThat(Files.size(file), is(valueOf(3, GiB).longValue()));
+        written.putLong(index, 666L);
+        written.putLong(valueOf(1, GiB).longValue() - 4, 0x0102030405060708L);
+        written.force();
+    }
+
+    private static void readBeyondTwoGiB(Path file, long index) throws IOException {
+        final ByteBufferSegments read = valueOf(3, GiB).map(file, READ_ONLY);
+        assertThat(read.getLong(index), is(666L));
+        assertThat(read.getLong(valueOf(1, GiB).longValue() - 4), is(0x0102030405060708L));
+    }
+
+    /**
+     * Files could not be deleted on Windows while they are mapped, which they are until their buffers are garbage
+     * collected.
+     */
+    private static void deleteMapped(Path file) throws Exception {
+        for (int i = 0; ; i++) {
+            System.gc();
+            try {
+                Files.deleteIfExists(file);
+                return;
+            } catch (final IOException e) {
+                if (i >= 100) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Test
+    public void mapWithSegmentSize() throws IOException {
+        final Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, new byte[]{1, 2, 3, 4, 5});
+
+        final ByteBufferSegments segments = valueOf(5).map(file, READ_ONLY, valueOf(2));
+        assertThat(segments.size(), is(3));
+        assertThat(segments.getByte(4), is((byte) 5));
+
+        assertThat(() -> valueOf(6).map(file, READ_ONLY), throwsException(IOException.class, "File " + file + " contains only 5B but 6B should be mapped."));
+    }
+
+}
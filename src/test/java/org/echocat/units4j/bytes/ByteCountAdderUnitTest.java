@@ -0,0 +1,69 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountAdderUnitTest {
+
+    @Test
+    public void useCases() {
+        final ByteCountAdder adder = new ByteCountAdder();
+        assertThat(adder.sum(), is(valueOf(0)));
+
+        adder.add(1);
+        adder.add(2, KiB);
+        adder.add(valueOf(3, MiB));
+        adder.add(null);
+
+        assertThat(adder.sum(), is(valueOf(3, MiB).add(valueOf(2, KiB)).add(1)));
+        assertThat(adder.sumThenReset(), is(valueOf(3, MiB).add(valueOf(2, KiB)).add(1)));
+        assertThat(adder.sum(), is(valueOf(0)));
+    }
+
+    @Test
+    public void overflowSpillsIntoBigInteger() {
+        final ByteCountAdder adder = new ByteCountAdder();
+        adder.add(Long.MAX_VALUE);
+        adder.add(Long.MAX_VALUE);
+        adder.add(100, EiB);
+        adder.add(valueOf(Long.MAX_VALUE).add(1));
+
+        final BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+        final BigInteger expected = max.add(max).add(EiB.bigIntegerBase().multiply(BigInteger.valueOf(100))).add(max).add(BigInteger.ONE);
+        assertThat(adder.sum().bigIntegerValue(), is(expected));
+
+        adder.add(-Long.MAX_VALUE);
+        assertThat(adder.sumThenReset().bigIntegerValue(), is(expected.subtract(max)));
+        assertThat(adder.sum(), is(valueOf(0)));
+    }
+
+    @Test
+    public void concurrentUpdates() throws Exception {
+        final ByteCountAdder adder = new ByteCountAdder();
+        final int threads = 8;
+        final int updates = 100_000;
+        final List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Thread(() -> {
+                for (int j = 0; j < updates; j++) {
+                    adder.add(3);
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(adder.sum(), is(valueOf(3L * threads * updates)));
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteCountAsciiCodec.byteCountAsciiCodec;
+import static org.echocat.units4j.bytes.ByteCountFormat.byteCountFormat;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountAsciiCodecUnitTest {
+
+    private final ByteCountAsciiCodec codec = byteCountAsciiCodec();
+
+    @Test
+    public void decode() {
+        assertThat(codec.decode("66mib 1024kib 2097152b".getBytes(US_ASCII)), is(valueOf(69, MiB)));
+        assertThat(codec.decode("xx12 kBxx".getBytes(US_ASCII), 2, 5), is(valueOf(12, kB)));
+        assertThat(codec.decode(new byte[0]), is(ByteCount.ZERO));
+        assertThat(codec.decode("100000000000000000000B".getBytes(US_ASCII)), is(valueOf(new BigInteger("100000000000000000000"))));
+        assertThat(() -> codec.decode("12 apples".getBytes(US_ASCII)), throwsException(IllegalArgumentException.class, "Could not parse: 12 apples"));
+        assertThat(() -> codec.decode("12äB".getBytes(UTF_8)), throwsException(IllegalArgumentException.class));
+        assertThat(() -> codec.decode(new byte[3], 2, 2), throwsException(IndexOutOfBoundsException.class));
+    }
+
+    @Test
+    public void decodeBuffers() {
+        for (final ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(32), ByteBuffer.allocateDirect(32)}) {
+            buffer.put("..5MiB 3B".getBytes(US_ASCII)).flip();
+            buffer.position(2);
+            assertThat(codec.decode(buffer), is(valueOf(5, MiB).add(3)));
+            assertThat(buffer.remaining(), is(0));
+
+            buffer.clear();
+            buffer.put("7KiB;next".getBytes(US_ASCII)).flip();
+            assertThat(codec.decodeLeading(buffer), is(valueOf(7, KiB)));
+            assertThat(buffer.position(), is(4));
+
+            buffer.clear();
+            buffer.put("7 apples".getBytes(US_ASCII)).flip();
+            assertThat(() -> codec.decode(buffer), throwsException(IllegalArgumentException.class));
+            assertThat(buffer.position(), is(0));
+        }
+    }
+
+    @Test
+    public void encodeLikeToString() {
+        final Random random = new Random(666);
+        final byte[] target = new byte[64];
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        for (int i = 0; i < 1000; i++) {
+            final long bytes = i == 0 ? 0 : random.nextLong() >>> random.nextInt(64);
+            final ByteCount value = valueOf(bytes);
+            final byte[] expected = value.toString().getBytes(UTF_8);
+
+            assertThat(codec.encode(value), is(expected));
+            final int written = codec.encode(bytes, target, 3);
+            assertThat(written, is(expected.length));
+            assertThat(new String(target, 3, written, UTF_8), is(value.toString()));
+
+            buffer.clear();
+            codec.encode(value, buffer);
+            assertThat(buffer.position(), is(expected.length));
+            buffer.flip();
+            final byte[] encoded = new byte[buffer.remaining()];
+            buffer.get(encoded);
+            assertThat(encoded, is(expected));
+        }
+        final ByteCount beyondLong = valueOf(BigInteger.ONE.shiftLeft(80).add(BigInteger.TEN));
+        assertThat(codec.encode(beyondLong), is(beyondLong.toString().getBytes(UTF_8)));
+        assertThat(codec.decode(codec.encode(valueOf(5, GiB).add(3))), is(valueOf(5, GiB).add(3)));
+    }
+
+    @Test
+    public void encodeNonAsciiAsUtf8() {
+        final ByteCountAsciiCodec arabic = byteCountAsciiCodec(byteCountFormat().withLocale(new Locale("ar", "EG")).ofByteUnit(MiB).withMaximumFractionDigits(2).build());
+        final ByteCount value = valueOf(1536, KiB);
+
+        assertThat(new String(arabic.encode(value), UTF_8), is(arabic.format().format(value)));
+    }
+
+    @Test
+    public void encodeWithoutEnoughSpace() {
+        assertThat(() -> codec.encode(valueOf(5, MiB), new byte[3], 0), throwsException(IndexOutOfBoundsException.class));
+
+        final ByteBuffer buffer = ByteBuffer.allocate(3);
+        buffer.position(1);
+        assertThat(() -> codec.encode(valueOf(5, MiB), buffer), throwsException(BufferOverflowException.class));
+        assertThat(buffer.position(), is(1));
+    }
+
+}
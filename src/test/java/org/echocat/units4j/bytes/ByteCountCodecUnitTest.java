@@ -0,0 +1,133 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.StreamCorruptedException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountCodecUnitTest {
+
+    private static final ByteCount[] VALUES = {
+        valueOf(0), valueOf(1), valueOf(-1), valueOf(63), valueOf(64), valueOf(8191), valueOf(8192), valueOf(4, KiB),
+        valueOf(Long.MAX_VALUE), valueOf(Long.MIN_VALUE), valueOf(100, EiB), valueOf(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE))
+    };
+
+    @Test
+    public void encodedLength() {
+        assertThat(ByteCountCodec.encodedLengthOf(valueOf(0)), is(1));
+        assertThat(ByteCountCodec.encodedLengthOf(valueOf(63)), is(1));
+        assertThat(ByteCountCodec.encodedLengthOf(valueOf(-64)), is(1));
+        assertThat(ByteCountCodec.encodedLengthOf(valueOf(64)), is(2));
+        assertThat(ByteCountCodec.encodedLengthOf(valueOf(1, MiB)), is(4));
+        assertThat(ByteCountCodec.encodedLengthOf(valueOf(Long.MAX_VALUE)), is(10));
+        for (final ByteCount value : VALUES) {
+            final ByteBuffer buffer = ByteBuffer.allocate(64);
+            ByteCountCodec.write(value, buffer);
+            assertThat(value.toString(), buffer.position(), is(ByteCountCodec.encodedLengthOf(value)));
+        }
+    }
+
+    @Test
+    public void dataOutputRoundTrip() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            for (final ByteCount value : VALUES) {
+                ByteCountCodec.write(value, out);
+            }
+            ByteCountCodec.write(-12345L, out);
+            ByteCountCodec.write(VALUES, out);
+            ByteCountCodec.write(new long[]{1, -2, Long.MIN_VALUE}, out);
+        }
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (final ByteCount value : VALUES) {
+                assertThat(ByteCountCodec.read(in), is(value));
+            }
+            assertThat(ByteCountCodec.readLong(in), is(-12345L));
+            assertThat(ByteCountCodec.readArray(in), is(VALUES));
+            assertThat(ByteCountCodec.readLongArray(in), is(new long[]{1, -2, Long.MIN_VALUE}));
+            assertThat(in.read(), is(-1));
+        }
+    }
+
+    @Test
+    public void byteBufferRoundTrip() {
+        final Random random = new Random(666);
+        final long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong() >> random.nextInt(64);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        ByteCountCodec.write(values, buffer);
+        ByteCountCodec.write(VALUES, buffer);
+        ByteCountCodec.write(valueOf(3, GiB), buffer);
+        buffer.flip();
+
+        assertThat(ByteCountCodec.readLongArray(buffer), is(values));
+        assertThat(ByteCountCodec.readArray(buffer), is(VALUES));
+        assertThat(ByteCountCodec.readLong(buffer), is(3L << 30));
+        assertThat(buffer.hasRemaining(), is(false));
+    }
+
+    @Test
+    public void corruptInput() {
+        assertThat(() -> ByteCountCodec.read(ByteBuffer.wrap(new byte[]{-1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1})), throwsException(IllegalArgumentException.class));
+        assertThat(() -> ByteCountCodec.read(ByteBuffer.wrap(new byte[]{(byte) 0x80, 0, 100, 1})), throwsException(IllegalArgumentException.class));
+        assertThat(() -> ByteCountCodec.readLong(ByteBuffer.wrap(new byte[]{(byte) 0x80, 0, 1, 1})), throwsException(IllegalArgumentException.class));
+        assertThat(() -> ByteCountCodec.readLongArray(ByteBuffer.wrap(new byte[]{100, 1})), throwsException(IllegalArgumentException.class));
+        assertThat(() -> ByteCountCodec.read(new DataInputStream(new ByteArrayInputStream(new byte[]{-1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1}))), throwsException(StreamCorruptedException.class));
+    }
+
+    @Test
+    public void corruptLengthsDoNotCauseHugeAllocations() {
+        assertThat(() -> ByteCountCodec.read(inputOf(0x80, 0, -1, -1, -1, -1, 7)), throwsException(StreamCorruptedException.class, "Illegal length of encoded byte count: 2147483647"));
+        assertThat(() -> ByteCountCodec.read(inputOf(0x80, 0, 0x80, 0x80, 64, 1, 2, 3)), throwsException(EOFException.class));
+        assertThat(() -> ByteCountCodec.readArray(inputOf(-1, -1, -1, -1, 7, 1, 2)), throwsException(EOFException.class));
+        assertThat(() -> ByteCountCodec.readLongArray(inputOf(-1, -1, -1, -1, 7, 1, 2)), throwsException(EOFException.class));
+        assertThat(() -> ByteCountCodec.read(ByteBuffer.wrap(new byte[]{(byte) 0x80, 0, (byte) 0x81, (byte) 0x80, 64})), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void dataInputGrowsWhileReading() throws Exception {
+        final long[] longs = new long[5000];
+        final ByteCount[] values = new ByteCount[3000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = valueOf(i);
+            longs[i] = -i;
+        }
+        final ByteCount big = valueOf(BigInteger.ONE.shiftLeft(20000).negate());
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            ByteCountCodec.write(longs, out);
+            ByteCountCodec.write(values, out);
+            ByteCountCodec.write(big, out);
+        }
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertThat(ByteCountCodec.readLongArray(in), is(longs));
+            assertThat(ByteCountCodec.readArray(in), is(values));
+            assertThat(ByteCountCodec.read(in), is(big));
+            assertThat(in.read(), is(-1));
+        }
+    }
+
+    private static DataInputStream inputOf(int... bytes) {
+        final byte[] result = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            result[i] = (byte) bytes[i];
+        }
+        return new DataInputStream(new ByteArrayInputStream(result));
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.groupingBy;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteCountCollectors.*;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountCollectorsUnitTest {
+
+    @Test
+    public void summingOfByteCounts() {
+        assertThat(Stream.<ByteCount>empty().collect(summing()), is(valueOf(0)));
+        assertThat(Stream.of(valueOf(1, KiB), valueOf(2, MiB), null, valueOf(Long.MAX_VALUE)).collect(summing()), is(valueOf(Long.MAX_VALUE).add(valueOf(2, MiB)).add(valueOf(1, KiB))));
+    }
+
+    @Test
+    public void summarizingOfByteCounts() {
+        final ByteCountSummaryStatistics statistics = Stream.of(valueOf(1, KiB), valueOf(2, MiB), valueOf(3)).collect(summarizing());
+
+        assertThat(statistics.count(), is(3L));
+        assertThat(statistics.sum(), is(valueOf(2, MiB).add(valueOf(1, KiB)).add(3)));
+        assertThat(statistics.min(), is(Optional.of(valueOf(3))));
+        assertThat(statistics.max(), is(Optional.of(valueOf(2, MiB))));
+    }
+
+    @Test
+    public void groupingByWithMappers() {
+        final Map<Boolean, ByteCount> sums = Stream.of("a", "bb", "ccc", "dddd").collect(groupingBy(value -> value.length() % 2 == 0, summingBytes(String::length)));
+        assertThat(sums.get(true), is(valueOf(6)));
+        assertThat(sums.get(false), is(valueOf(4)));
+
+        final Map<Boolean, ByteCount> kiBs = Stream.of("a", "bb", "ccc").collect(groupingBy(value -> value.length() % 2 == 0, summing(value -> valueOf(value.length(), KiB))));
+        assertThat(kiBs.get(true), is(valueOf(2, KiB)));
+        assertThat(kiBs.get(false), is(valueOf(4, KiB)));
+
+        final Map<Boolean, ByteCountSummaryStatistics> statistics = Stream.of("a", "bb", "ccc").collect(groupingBy(value -> value.length() % 2 == 0, summarizingBytes(String::length)));
+        assertThat(statistics.get(false).count(), is(2L));
+        assertThat(statistics.get(false).max(), is(Optional.of(valueOf(3))));
+
+        final Map<Boolean, ByteCountSummaryStatistics> mapped = Stream.of("a", "bb", "ccc").collect(groupingBy(value -> value.length() % 2 == 0, summarizing(value -> valueOf(value.length(), MiB))));
+        assertThat(mapped.get(true).sum(), is(valueOf(2, MiB)));
+        assertThat(mapped.get(false).min(), is(Optional.of(valueOf(1, MiB))));
+    }
+
+    @Test
+    public void parallelStreamsAreSameAsSequential() {
+        final ByteCountSummaryStatistics sequential = LongStream.range(0, 1_000_000).map(i -> i * 12_345_678_901L).boxed().collect(summarizingBytes(Long::longValue));
+        final ByteCountSummaryStatistics parallel = LongStream.range(0, 1_000_000).parallel().map(i -> i * 12_345_678_901L).boxed().collect(summarizingBytes(Long::longValue));
+
+        assertThat(parallel.count(), is(sequential.count()));
+        assertThat(parallel.sum(), is(sequential.sum()));
+        assertThat(parallel.min(), is(sequential.min()));
+        assertThat(parallel.max(), is(sequential.max()));
+        assertThat(parallel.average(), is(sequential.average()));
+        assertThat(sequential.sum().isLongValue(), is(false));
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Optional;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteCountColumn.byteCountColumnOf;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.units4j.bytes.ByteUnit.OverflowMode.saturate;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountColumnUnitTest {
+
+    @Test
+    public void addAndGet() {
+        final ByteCountColumn column = new ByteCountColumn(KiB, 0)
+            .add(1)
+            .add(3, MiB)
+            .add(valueOf(2048));
+
+        assertThat(column.size(), is(3));
+        assertThat(column.getLong(1), is(3072L));
+        assertThat(column.get(2), is(valueOf(2, KiB)));
+        assertThat(column.toLongArray(), is(new long[]{1, 3072, 2}));
+        assertThat(() -> column.get(3), throwsException(IndexOutOfBoundsException.class));
+        assertThat(() -> column.add(Long.MAX_VALUE, MiB), throwsException(ArithmeticException.class));
+    }
+
+    @Test
+    public void aggregates() {
+        final ByteCountColumn column = byteCountColumnOf(MiB, 5, 1, 4, 2, 3);
+
+        assertThat(column.sum(), is(valueOf(15, MiB)));
+        assertThat(column.min(), is(Optional.of(valueOf(1, MiB))));
+        assertThat(column.max(), is(Optional.of(valueOf(5, MiB))));
+        assertThat(column.percentile(0), is(Optional.of(valueOf(1, MiB))));
+        assertThat(column.percentile(50), is(Optional.of(valueOf(3, MiB))));
+        assertThat(column.percentile(99), is(Optional.of(valueOf(5, MiB))));
+        assertThat(column.isSorted(), is(false));
+        assertThat(column.sort().toLongArray(), is(new long[]{1, 2, 3, 4, 5}));
+        assertThat(column.percentile(80), is(Optional.of(valueOf(4, MiB))));
+        assertThat(() -> column.percentile(101), throwsException(IllegalArgumentException.class));
+
+        final ByteCountColumn empty = new ByteCountColumn();
+        assertThat(empty.sum(), is(valueOf(0)));
+        assertThat(empty.min(), is(Optional.empty()));
+        assertThat(empty.max(), is(Optional.empty()));
+        assertThat(empty.percentile(50), is(Optional.empty()));
+    }
+
+    @Test
+    public void sumBeyondLong() {
+        final ByteCountColumn column = byteCountColumnOf(B, Long.MAX_VALUE, Long.MAX_VALUE, 2, -1);
+
+        assertThat(column.sum().bigIntegerValue(), is(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1).add(BigInteger.ONE)));
+        assertThat(byteCountColumnOf(B, Long.MIN_VALUE, -1).sum().bigIntegerValue(), is(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE)));
+        assertThat(byteCountColumnOf(EiB, 7, 7).sum(), is(valueOf(14, EiB)));
+    }
+
+    @Test
+    public void convertTo() {
+        final ByteCountColumn column = byteCountColumnOf(KiB, 1, 1536, 3072);
+
+        assertThat(column.convertTo(MiB).toLongArray(), is(new long[]{0, 1, 3}));
+        assertThat(column.convertTo(MiB).unit(), is(MiB));
+        assertThat(column.convertTo(B).toLongArray(), is(new long[]{1024, 1572864, 3145728}));
+        assertThat(column.convertTo(kB).toLongArray(), is(new long[]{1, 1572, 3145}));
+        assertThat(() -> byteCountColumnOf(EiB, 100).convertTo(B), throwsException(ArithmeticException.class));
+        assertThat(byteCountColumnOf(EiB, 100).convertTo(B, saturate).toLongArray(), is(new long[]{Long.MAX_VALUE}));
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteCountFormat.byteCountFormat;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountFormatCacheUnitTest {
+
+    @Test
+    public void cachedFormatIsIdentical() {
+        final ByteCountFormat cached = byteCountFormat().withLocale(Locale.GERMANY).withMaximumFractionDigits(2).withCacheCapacity(64).build();
+        final ByteCountFormat uncached = byteCountFormat().withLocale(Locale.GERMANY).withMaximumFractionDigits(2).build();
+        final Random random = new Random(666);
+        for (int i = 0; i < 10_000; i++) {
+            final ByteCount value = valueOf(random.nextInt(200) + 1);
+            assertThat(cached.format(value), is(uncached.format(value)));
+        }
+        final ByteCountFormatCache cache = cached.cache().orElseThrow(AssertionError::new);
+        assertThat(cache.hits() + cache.misses(), is(10_000L));
+        assertThat(cache.hitRate() > 0.2d, is(true));
+        assertThat(uncached.cache().isPresent(), is(false));
+        assertThat(byteCountFormat().withCacheCapacity(0).build().cache().isPresent(), is(false));
+        assertThat(() -> byteCountFormat().withCacheCapacity(-1), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void hitsAndMisses() {
+        final ByteCountFormatCache cache = new ByteCountFormatCache(16);
+        assertThat(cache.get(1L), is(nullValue()));
+        cache.put(1L, "1B");
+        assertThat(cache.get(1L), is("1B"));
+        assertThat(cache.hits(), is(1L));
+        assertThat(cache.misses(), is(1L));
+        assertThat(cache.hitRate(), is(0.5d));
+        assertThat(cache.size(), is(1));
+
+        cache.put(1L, "other");
+        assertThat(cache.get(1L), is("1B"));
+        assertThat(cache.size(), is(1));
+
+        cache.clear();
+        assertThat(cache.size(), is(0));
+        assertThat(cache.hits(), is(0L));
+        assertThat(cache.get(1L), is(nullValue()));
+    }
+
+    @Test
+    public void isBounded() {
+        final ByteCountFormatCache cache = new ByteCountFormatCache(64);
+        for (long i = 0; i < 100_000; i++) {
+            cache.put(i, Long.toString(i));
+        }
+        assertThat(cache.capacity(), is(64));
+        assertThat(cache.size() <= 64, is(true));
+        for (long i = 0; i < 100_000; i++) {
+            final String value = cache.get(i);
+            assertThat(value == null || value.equals(Long.toString(i)), is(true));
+        }
+    }
+
+    @Test
+    public void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new ByteCountFormatCache(1).capacity(), is(8));
+        assertThat(new ByteCountFormatCache(100).capacity(), is(128));
+        assertThat(new ByteCountFormatCache(128).capacity(), is(128));
+        assertThat(() -> new ByteCountFormatCache(0), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void referencedEntriesGetSecondChance() {
+        final ByteCountFormatCache cache = new ByteCountFormatCache(8);
+        cache.put(42L, "42");
+        for (long i = 0; i < 1000; i++) {
+            assertThat(cache.get(42L), is("42"));
+            cache.put(1000 + i, "other");
+        }
+    }
+
+}
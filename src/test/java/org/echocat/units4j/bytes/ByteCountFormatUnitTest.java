@@ -7,10 +7,16 @@ import static org.echocat.units4j.bytes.ByteCountFormat.byteCountFormat;
 import static org.echocat.units4j.bytes.ByteUnit.*;
 import static org.echocat.units4j.bytes.ByteUnit.Kind.binary;
 import static org.echocat.units4j.bytes.ByteUnit.Kind.metric;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.NumberFormat;
 import java.util.Locale;
+import java.util.Random;
 
 public class ByteCountFormatUnitTest {
 
@@ -64,4 +70,171 @@ public class ByteCountFormatUnitTest {
         assertThat(format.format(valueOf(0)), is("0"));
     }
 
+    @Test
+    public void formatsLikeNumberFormat() {
+        final Locale[] locales = {Locale.US, Locale.GERMANY, Locale.FRANCE, new Locale("de", "CH"), new Locale("hi", "IN"), new Locale("th", "TH", "TH"), new Locale("ar", "EG")};
+        final Random random = new Random(666);
+        for (final Locale locale : locales) {
+            for (int fractionDigits = 0; fractionDigits <= 4; fractionDigits++) {
+                final NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+                numberFormat.setMaximumFractionDigits(fractionDigits);
+                numberFormat.setMinimumFractionDigits(fractionDigits / 2);
+                for (final ByteUnit unit : values()) {
+                    final ByteCountFormat format = byteCountFormat()
+                        .withLocale(locale)
+                        .ofByteUnit(unit)
+                        .withMaximumFractionDigits(fractionDigits)
+                        .withMinimumFractionDigits(fractionDigits / 2)
+                        .build();
+                    for (int i = 0; i < 200; i++) {
+                        final long bytes = i < 10 ? (i - 5) * unit.longBase() / 2 : random.nextLong() >> random.nextInt(64);
+                        final BigDecimal exact = new BigDecimal(bytes).divide(unit.bigDecimalBase());
+                        assertThat(locale + "/" + unit + "/" + fractionDigits + ": " + bytes, format.format(valueOf(bytes)), is(bytes == 0 ? "0" : numberFormat.format(exact) + unit.name()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void formatsManyFractionDigitsLikeNumberFormat() {
+        final Random random = new Random(666);
+        for (int fractionDigits = 16; fractionDigits <= 20; fractionDigits++) {
+            final NumberFormat numberFormat = NumberFormat.getNumberInstance(Locale.US);
+            numberFormat.setMaximumFractionDigits(fractionDigits);
+            for (final ByteUnit unit : values()) {
+                final ByteCountFormat format = byteCountFormat()
+                    .withLocale(Locale.US)
+                    .ofByteUnit(unit)
+                    .withMaximumFractionDigits(fractionDigits)
+                    .build();
+                for (int i = 0; i < 100; i++) {
+                    final long bytes = random.nextLong() >> random.nextInt(64);
+                    final BigDecimal exact = new BigDecimal(bytes).divide(unit.bigDecimalBase());
+                    assertThat(unit + "/" + fractionDigits + ": " + bytes, format.format(valueOf(bytes)), is(bytes == 0 ? "0" : numberFormat.format(exact) + unit.name()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void formatToIsSameAsFormat() throws Exception {
+        final ByteCountFormat[] formats = {
+            byteCountFormat().withLocale(Locale.GERMANY).build(),
+            byteCountFormat().withLocale(Locale.US).ofByteUnitKind(metric).withMaximumFractionDigits(2).build(),
+            byteCountFormat().withLocale(Locale.FRANCE).ofByteUnit(MiB).withMaximumFractionDigits(3).withMinimumFractionDigits(1).build(),
+            byteCountFormat().withLocale(Locale.US).withCacheCapacity(16).build()
+        };
+        final Random random = new Random(666);
+        final StringBuilder buffer = new StringBuilder();
+        for (final ByteCountFormat format : formats) {
+            for (int i = 0; i < 1000; i++) {
+                final long bytes = i == 0 ? 0 : random.nextLong() >>> random.nextInt(64);
+                final String expected = format.format(valueOf(bytes));
+
+                buffer.setLength(0);
+                assertThat(format.formatTo(bytes, buffer).toString(), is(expected));
+                assertThat(format.formatTo(valueOf(bytes), new StringWriter()).toString(), is(expected));
+            }
+            final ByteCount beyondLong = valueOf(BigInteger.ONE.shiftLeft(70).add(BigInteger.valueOf(12345)));
+            assertThat(format.formatTo(beyondLong, new StringWriter()).toString(), is(format.format(beyondLong)));
+        }
+    }
+
+    @Test
+    public void formatsBeyondLong() {
+        final ByteCountFormat format = byteCountFormat()
+            .withLocale(Locale.US)
+            .ofByteUnit(EiB)
+            .withMaximumFractionDigits(2)
+            .build();
+
+        assertThat(format.format(valueOf(BigInteger.ONE.shiftLeft(70).add(BigInteger.ONE.shiftLeft(58)))), is("1,024.25EiB"));
+        assertThat(byteCountFormat().withLocale(Locale.US).ofByteUnitKind(binary).build().format(valueOf(BigInteger.ONE.shiftLeft(70).add(BigInteger.ONE))), is("1,024EiB 1B"));
+    }
+
+    @Test
+    public void groupingAndMinimumFractionDigitsWithoutUnit() {
+        final ByteCountFormat format = byteCountFormat()
+            .withLocale(Locale.GERMANY)
+            .ofByteUnitKind(metric)
+            .withMinimumFractionDigits(1)
+            .build();
+
+        assertThat(format.format(valueOf(EB.to(5, B) + 3)), is("5,0EB 3,0B"));
+        assertThat(format.format(valueOf(5000, EB).add(3)), is("5.000,0EB 3,0B"));
+    }
+
+    @Test
+    public void parse() {
+        final ByteCountFormat format = byteCountFormat()
+            .withLocale(Locale.US)
+            .build();
+
+        assertThat(format.parse("1,003B"), is(valueOf(1003)));
+        assertThat(format.parse("1.5 GiB"), is(valueOf(GiB.to(3, B) / 2)));
+        assertThat(format.parse("1.5GiB 3KiB"), is(valueOf(GiB.to(3, B) / 2 + 3072)));
+        assertThat(format.parse("0.001KiB"), is(valueOf(1)));
+        assertThat(format.parse("2.5B"), is(valueOf(2)));
+        assertThat(format.parse("3.5B"), is(valueOf(4)));
+        assertThat(format.parse("1.25kB"), is(valueOf(1250)));
+        assertThat(format.parse("1,024.25EiB"), is(valueOf(BigInteger.ONE.shiftLeft(70).add(BigInteger.ONE.shiftLeft(58)))));
+        assertThat(format.parse("0.1234567890123456789EB"), is(valueOf(123456789012345679L)));
+        assertThat(format.parse("size=1.5KiB;", 5, 6), is(valueOf(1536)));
+        assertThat(format.parse("0"), is(ByteCount.ZERO));
+        assertThat(format.parse(""), is(ByteCount.ZERO));
+    }
+
+    @Test
+    public void parseFailures() {
+        final ByteCountFormat format = byteCountFormat()
+            .withLocale(Locale.US)
+            .build();
+
+        assertThat(() -> format.parse("1.GiB"), throwsException(IllegalArgumentException.class, "Could not parse: 1.GiB"));
+        assertThat(() -> format.parse(".5GiB"), throwsException(IllegalArgumentException.class, "Could not parse: .5GiB"));
+        assertThat(() -> format.parse("1,,000B"), throwsException(IllegalArgumentException.class, "Could not parse: 1,,000B"));
+        assertThat(() -> format.parse("1.5"), throwsException(IllegalArgumentException.class, "Could not parse: 1.5"));
+    }
+
+    @Test
+    public void parseWithLocale() {
+        final ByteCountFormat format = byteCountFormat()
+            .withLocale(Locale.GERMANY)
+            .build();
+
+        assertThat(format.parse("1.003B"), is(valueOf(1003)));
+        assertThat(format.parse("1,5KiB"), is(valueOf(1536)));
+        assertThat(format.parse("5.000,0EB 3,0B"), is(valueOf(5000, EB).add(3)));
+    }
+
+    @Test
+    public void parseRoundTrips() {
+        final Random random = new Random(666);
+        for (final Locale locale : new Locale[]{Locale.US, Locale.GERMANY, Locale.FRANCE, Locale.forLanguageTag("de-CH")}) {
+            for (final ByteUnit.Kind kind : ByteUnit.Kind.values()) {
+                final ByteCountFormat exact = byteCountFormat()
+                    .withLocale(locale)
+                    .ofByteUnitKind(kind)
+                    .withMinimumFractionDigits(1)
+                    .build();
+                final ByteCountFormat fractional = byteCountFormat()
+                    .withLocale(locale)
+                    .ofByteUnitKind(kind)
+                    .withMaximumFractionDigits(18)
+                    .build();
+                for (int i = 0; i < 1000; i++) {
+                    final ByteCount value = valueOf((random.nextLong() & Long.MAX_VALUE) >>> random.nextInt(63));
+                    assertThat(exact.parse(exact.format(value)), is(value));
+                    if (kind == metric || value.longValue() < EiB.longBase()) {
+                        // 18 fraction digits of EiB are not precise enough to format every byte.
+                        assertThat(fractional.parse(fractional.format(value)), is(value));
+                    }
+                }
+                final ByteCount beyondLong = valueOf(BigInteger.ONE.shiftLeft(70).add(BigInteger.valueOf(12345)));
+                assertThat(exact.parse(exact.format(beyondLong)), is(beyondLong));
+            }
+        }
+    }
+
 }
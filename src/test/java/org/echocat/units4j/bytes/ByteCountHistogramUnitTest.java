@@ -0,0 +1,160 @@
+package org.echocat.units4j.bytes;
+
+import org.echocat.units4j.bytes.ByteUnit.Kind;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountHistogramUnitTest {
+
+    @Test
+    public void percentiles() {
+        final ByteCountHistogram histogram = new ByteCountHistogram();
+        assertThat(histogram.percentile(50), is(Optional.empty()));
+        assertThat(histogram.min(), is(Optional.empty()));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i, KiB);
+        }
+
+        assertThat(histogram.count(), is(1000L));
+        assertThat(histogram.sum(), is(valueOf(500500, KiB)));
+        assertThat(histogram.min(), is(Optional.of(valueOf(1, KiB))));
+        assertThat(histogram.max(), is(Optional.of(valueOf(1000, KiB))));
+        assertThat(histogram.percentile(100), is(Optional.of(valueOf(1000, KiB))));
+        assertThat(histogram.percentile(50), is(Optional.of(valueOf(516095))));
+        assertThat(() -> histogram.percentile(-1), throwsException(IllegalArgumentException.class));
+        assertThat(() -> histogram.record(-1), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void bucketsAreWithinPrecision() {
+        final Random random = new Random(666);
+        for (final Kind kind : Kind.values()) {
+            for (final int precision : new int[]{1, 2, 32, 1024}) {
+                final ByteCountHistogram histogram = new ByteCountHistogram(kind, precision);
+                final double maximumError = (kind == Kind.binary ? 1d : 9d) / precision;
+                for (int i = 0; i < 10_000; i++) {
+                    final long value = random.nextLong() >>> (1 + random.nextInt(63));
+                    final int index = histogram.indexOf(value);
+                    final long highest = histogram.highestValueOf(index);
+                    assertThat(kind + "/" + precision + ": " + value, highest >= value, is(true));
+                    assertThat(kind + "/" + precision + ": " + value, (highest - value) <= value * maximumError, is(true));
+                    if (index > 0) {
+                        assertThat(kind + "/" + precision + ": " + value, histogram.highestValueOf(index - 1) < value, is(true));
+                    }
+                }
+                assertThat(histogram.indexOf(Long.MAX_VALUE), is(histogramLength(histogram) - 1));
+                assertThat(histogram.highestValueOf(histogram.indexOf(Long.MAX_VALUE)), is(Long.MAX_VALUE));
+            }
+        }
+    }
+
+    @Test
+    public void bucketsAreAlignedToUnits() {
+        for (final Kind kind : Kind.values()) {
+            final ByteCountHistogram histogram = new ByteCountHistogram(kind, 16);
+            for (final ByteUnit unit : valuesOf(kind)) {
+                final int index = histogram.indexOf(unit.longBase());
+                assertThat(unit.toString(), histogram.highestValueOf(index - 1), is(unit.longBase() - 1));
+            }
+        }
+    }
+
+    @Test
+    public void merge() {
+        final ByteCountHistogram a = new ByteCountHistogram(Kind.metric);
+        final ByteCountHistogram b = new ByteCountHistogram(Kind.metric);
+        a.record(valueOf(5, kB));
+        b.record(7);
+        b.record(3, MB);
+
+        a.add(b);
+
+        assertThat(a.count(), is(3L));
+        assertThat(a.min(), is(Optional.of(valueOf(7))));
+        assertThat(a.max(), is(Optional.of(valueOf(3, MB))));
+        assertThat(a.sum(), is(valueOf(3_005_007)));
+        assertThat(() -> a.add(new ByteCountHistogram(Kind.binary)), throwsException(IllegalArgumentException.class));
+        assertThat(() -> a.add(new ByteCountHistogram(Kind.metric, 64)), throwsException(IllegalArgumentException.class));
+
+        a.reset();
+        assertThat(a.count(), is(0L));
+        assertThat(a.max(), is(Optional.empty()));
+    }
+
+    @Test
+    public void concurrentRecording() throws Exception {
+        final ByteCountHistogram histogram = new ByteCountHistogram();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(histogram.count(), is(80_000L));
+        assertThat(histogram.sum(), is(valueOf(8L * 9_999 * 10_000 / 2)));
+    }
+
+    @Test
+    public void compactForm() throws Exception {
+        final ByteCountHistogram histogram = new ByteCountHistogram(Kind.metric, 64);
+        for (int i = 0; i < 1000; i++) {
+            histogram.record(i * 7919L);
+        }
+        histogram.record(Long.MAX_VALUE);
+
+        final byte[] bytes = histogram.toByteArray();
+        final ByteCountHistogram restored = ByteCountHistogram.valueOf(bytes);
+        assertThat(restored.toByteArray(), is(bytes));
+        assertThat(restored.count(), is(1001L));
+        assertThat(restored.sum(), is(histogram.sum()));
+        assertThat(restored.percentile(99.9), is(histogram.percentile(99.9)));
+        assertThat(restored.kind(), is(Kind.metric));
+        assertThat(restored.precision(), is(64));
+
+        assertThat(ByteCountHistogram.valueOf(new ByteCountHistogram().toByteArray()).max(), is(Optional.empty()));
+        assertThat(() -> ByteCountHistogram.valueOf(new byte[]{1, 0}), throwsException(IllegalArgumentException.class));
+        assertThat(() -> ByteCountHistogram.valueOf(new byte[]{1, 0, 6, 0, 0, -1, -1, -1, -1, 7, 1}), throwsException(IllegalArgumentException.class, "Given bytes are no valid histogram."));
+        assertThat(() -> ByteCountHistogram.valueOf(new byte[]{1, 0, 6, 0, 0, 1, 0, 1, 1, 0, 1}), throwsException(IllegalArgumentException.class, "Given bytes are no valid histogram."));
+        assertThat(() -> ByteCountHistogram.valueOf(new byte[]{1, 0, 6, 0, 0, 1, 0, 1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1}), throwsException(IllegalArgumentException.class, "Given bytes are no valid histogram."));
+        assertThat(() -> ByteCountHistogram.valueOf(new byte[]{1, 0, 6, 0, 0, 1, 0, 1, -1, -1, -1, -1, -1, -1, -1, -1, 127, 1, -1, -1, -1, -1, -1, -1, -1, -1, 127}), throwsException(IllegalArgumentException.class, "Given bytes are no valid histogram."));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(histogram);
+        }
+        try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(((ByteCountHistogram) ois.readObject()).toByteArray(), is(bytes));
+        }
+    }
+
+    private static int histogramLength(ByteCountHistogram histogram) {
+        int index = 0;
+        while (histogram.highestValueOf(index) < Long.MAX_VALUE) {
+            index++;
+        }
+        return index + 1;
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteCountParser.parse;
+import static org.echocat.units4j.bytes.ByteCountParser.scan;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountParserUnitTest {
+
+    @Test
+    public void parseUseCases() {
+        assertThat(parse("5MiB"), is(valueOf(5, MiB)));
+        assertThat(parse(" 5 MiB "), is(valueOf(5, MiB)));
+        assertThat(parse("7 kilobyte 3b"), is(valueOf(7003)));
+        assertThat(parse("1kb2b"), is(valueOf(1002)));
+        assertThat(parse("0"), is(valueOf(0)));
+        assertThat(parse(" 0 "), is(valueOf(0)));
+        assertThat(parse(""), is(valueOf(0)));
+        assertThat(() -> parse("5"), throwsException(IllegalArgumentException.class));
+        assertThat(() -> parse("00"), throwsException(IllegalArgumentException.class));
+        assertThat(() -> parse(" "), throwsException(IllegalArgumentException.class));
+        assertThat(() -> parse("5bytes"), throwsException(IllegalArgumentException.class));
+        assertThat(() -> parse("5 kibibytes"), throwsException(IllegalArgumentException.class));
+        assertThat(() -> parse("5MiB x"), throwsException(IllegalArgumentException.class));
+        assertThat(() -> parse("0 5MiB"), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void parseRange() {
+        assertThat(parse("size=12KiB;", 5, 5), is(valueOf(12, KiB)));
+        assertThat(() -> parse("size=12KiB;", 5, 6), throwsException(IllegalArgumentException.class));
+        assertThat(() -> parse("size=12KiB;", 5, 7), throwsException(IndexOutOfBoundsException.class));
+    }
+
+    @Test
+    public void parseBeyondLong() {
+        assertThat(parse("8EiB").bigIntegerValue(), is(BigInteger.ONE.shiftLeft(63)));
+        assertThat(parse("8EiB 1EiB").bigIntegerValue(), is(BigInteger.valueOf(9).shiftLeft(60)));
+        assertThat(parse("99999999999999999999999b").bigIntegerValue(), is(new BigInteger("99999999999999999999999")));
+        assertThat(parse("99999999999999999999999kib").bigIntegerValue(), is(new BigInteger("99999999999999999999999").shiftLeft(10)));
+    }
+
+    @Test
+    public void scanEmbedded() {
+        final String line = "GET /foo size=66mib 1024kib took 5ms";
+        final ByteCountParser.Result result = scan(line, 14, line.length() - 14);
+        assertThat(result.value(), is(valueOf(67, MiB)));
+        assertThat(result.end(), is(27));
+
+        final ByteCountParser.Result zero = scan("0 items", 0, 7);
+        assertThat(zero.value(), is(valueOf(0)));
+        assertThat(zero.end(), is(1));
+
+        assertThat(() -> scan("5 items", 0, 7), throwsException(IllegalArgumentException.class));
+        assertThat(() -> scan("items", 0, 5), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void plainRejectsFractionsAndGrouping() {
+        assertThat(() -> parse("1.5GiB"), throwsException(IllegalArgumentException.class));
+        assertThat(() -> parse("1,003B"), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void parseWithSymbols() {
+        final ByteCountParser.Symbols symbols = new ByteCountParser.Symbols('\u0660', '\u066B', '\u066C');
+        final String beyondLong = "99\u066C999\u066C999\u066C999\u066C999\u066C999\u066C999\u066B5KiB";
+
+        assertThat(parse("\u0661\u066C\u0660\u0660\u0663B", 0, 6, symbols), is(valueOf(1003)));
+        assertThat(parse("\u0661\u066B\u0665KiB", 0, 6, symbols), is(valueOf(1536)));
+        assertThat(parse("1\u066B5KiB", 0, 6, symbols), is(valueOf(1536)));
+        assertThat(parse(beyondLong, 0, beyondLong.length(), symbols).bigIntegerValue(), is(new BigInteger("99999999999999999999").shiftLeft(10).add(BigInteger.valueOf(512))));
+    }
+
+    @Test
+    public void fractionBytesOf() {
+        assertThat(ByteCountParser.fractionBytesOf(5, 1, KiB, false), is(512L));
+        assertThat(ByteCountParser.fractionBytesOf(1, 3, KiB, false), is(1L));
+        assertThat(ByteCountParser.fractionBytesOf(5, 1, B, false), is(0L));
+        assertThat(ByteCountParser.fractionBytesOf(5, 1, B, true), is(1L));
+        assertThat(ByteCountParser.fractionBytesOf(1234, 4, MB, false), is(123400L));
+        assertThat(ByteCountParser.fractionBytesOf(15, 4, kB, false), is(2L));
+        assertThat(ByteCountParser.fractionBytesOf(25, 4, kB, false), is(2L));
+        assertThat(ByteCountParser.fractionBytesOf(123, 3, EiB, false), is(-1L));
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Optional;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountSummaryStatisticsUnitTest {
+
+    @Test
+    public void empty() {
+        final ByteCountSummaryStatistics statistics = new ByteCountSummaryStatistics();
+
+        assertThat(statistics.count(), is(0L));
+        assertThat(statistics.sum(), is(valueOf(0)));
+        assertThat(statistics.min(), is(Optional.empty()));
+        assertThat(statistics.max(), is(Optional.empty()));
+        assertThat(statistics.average(), is(Optional.empty()));
+        assertThat(statistics.averageAsDouble(), is(0d));
+    }
+
+    @Test
+    public void useCases() {
+        final ByteCountSummaryStatistics statistics = new ByteCountSummaryStatistics();
+        statistics.accept(1);
+        statistics.accept(valueOf(2, KiB));
+        statistics.accept(valueOf(3, MiB));
+        statistics.accept((ByteCount) null);
+
+        assertThat(statistics.count(), is(3L));
+        assertThat(statistics.sum(), is(valueOf(3, MiB).add(valueOf(2, KiB)).add(1)));
+        assertThat(statistics.min(), is(Optional.of(valueOf(1))));
+        assertThat(statistics.max(), is(Optional.of(valueOf(3, MiB))));
+        assertThat(statistics.average(), is(Optional.of(valueOf(1049259))));
+        assertThat(statistics.averageAsDouble(), is(3147777d / 3));
+        assertThat(statistics.toString(), is("ByteCountSummaryStatistics{count=3, sum=3MiB 2KiB 1B, min=1B, average=1MiB 683B, max=3MiB}"));
+    }
+
+    @Test
+    public void averageIsRoundedHalfEven() {
+        assertThat(averageOf(1, 2).average(), is(Optional.of(valueOf(2))));
+        assertThat(averageOf(2, 3).average(), is(Optional.of(valueOf(2))));
+        assertThat(averageOf(1, 1, 2).average(), is(Optional.of(valueOf(1))));
+        assertThat(averageOf(1, 2, 2).average(), is(Optional.of(valueOf(2))));
+        assertThat(averageOf(-1, -2).average(), is(Optional.of(valueOf(-2))));
+        assertThat(averageOf(-2, -3).average(), is(Optional.of(valueOf(-2))));
+    }
+
+    @Test
+    public void overflowSpillsIntoBigInteger() {
+        final ByteCountSummaryStatistics statistics = averageOf(Long.MAX_VALUE, Long.MAX_VALUE, 1);
+        final BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+
+        assertThat(statistics.sum().bigIntegerValue(), is(max.add(max).add(BigInteger.ONE)));
+        assertThat(statistics.min(), is(Optional.of(valueOf(1))));
+        assertThat(statistics.max(), is(Optional.of(valueOf(Long.MAX_VALUE))));
+        assertThat(statistics.average(), is(Optional.of(valueOf(6148914691236517205L))));
+    }
+
+    @Test
+    public void valuesBeyondLong() {
+        final ByteCount huge = valueOf(100, EiB).multiply(1000);
+        final ByteCount hugeNegative = valueOf(-100, EiB).multiply(1000);
+
+        final ByteCountSummaryStatistics onlyHuge = new ByteCountSummaryStatistics();
+        onlyHuge.accept(huge);
+        onlyHuge.accept(huge.add(1));
+        assertThat(onlyHuge.min(), is(Optional.of(huge)));
+        assertThat(onlyHuge.max(), is(Optional.of(huge.add(1))));
+        assertThat(onlyHuge.average(), is(Optional.of(huge)));
+
+        final ByteCountSummaryStatistics mixed = new ByteCountSummaryStatistics();
+        mixed.accept(huge);
+        mixed.accept(5);
+        mixed.accept(hugeNegative);
+        assertThat(mixed.count(), is(3L));
+        assertThat(mixed.sum(), is(valueOf(5)));
+        assertThat(mixed.min(), is(Optional.of(hugeNegative)));
+        assertThat(mixed.max(), is(Optional.of(huge)));
+    }
+
+    @Test
+    public void combine() {
+        final ByteCount huge = valueOf(100, EiB).multiply(1000);
+        final ByteCountSummaryStatistics left = averageOf(1, Long.MAX_VALUE);
+        final ByteCountSummaryStatistics right = averageOf(Long.MAX_VALUE, -3);
+        right.accept(huge);
+
+        assertThat(left.combine(right), is(left));
+        assertThat(left.count(), is(5L));
+        assertThat(left.sum(), is(huge.add(Long.MAX_VALUE).add(Long.MAX_VALUE).add(-2)));
+        assertThat(left.min(), is(Optional.of(valueOf(-3))));
+        assertThat(left.max(), is(Optional.of(huge)));
+
+        left.combine(new ByteCountSummaryStatistics());
+        assertThat(left.count(), is(5L));
+        assertThat(left.min(), is(Optional.of(valueOf(-3))));
+    }
+
+    private static ByteCountSummaryStatistics averageOf(long... values) {
+        final ByteCountSummaryStatistics result = new ByteCountSummaryStatistics();
+        for (final long value : values) {
+            result.accept(value);
+        }
+        return result;
+    }
+
+}
@@ -6,7 +6,15 @@ import static org.echocat.unittest.utils.matchers.ThrowsException.throwsExceptio
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.math.BigInteger;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
 
 import org.junit.Test;
 
@@ -41,4 +49,152 @@ public class ByteCountUnitTest {
         assertThat(() -> valueOf("2v"), throwsException(IllegalArgumentException.class));
     }
 
+    @Test
+    public void longArithmeticOverflowsIntoBigInteger() {
+        final ByteCount max = valueOf(Long.MAX_VALUE);
+        final BigInteger bigMax = BigInteger.valueOf(Long.MAX_VALUE);
+
+        assertThat(max.isLongValue(), is(true));
+        assertThat(max.add(1).isLongValue(), is(false));
+        assertThat(max.add(1).bigIntegerValue(), is(bigMax.add(BigInteger.ONE)));
+        assertThat(max.add(valueOf(Long.MAX_VALUE)).bigIntegerValue(), is(bigMax.add(bigMax)));
+        assertThat(max.multiply(4).bigIntegerValue(), is(bigMax.multiply(BigInteger.valueOf(4))));
+        assertThat(valueOf(Long.MIN_VALUE).subtract(1).bigIntegerValue(), is(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE)));
+        assertThat(valueOf(Long.MIN_VALUE).divide(-1).bigIntegerValue(), is(BigInteger.valueOf(Long.MIN_VALUE).negate()));
+        assertThat(max.add(1).subtract(1), is(max));
+        assertThat(max.add(1).subtract(1).isLongValue(), is(true));
+        assertThat(valueOf(8, EiB).bigIntegerValue(), is(EiB.to(BigInteger.valueOf(8), B)));
+        assertThat(valueOf(8, EiB).isLongValue(), is(false));
+        assertThat(max.add(1).compareTo(max), is(1));
+        assertThat(max.compareTo(max.add(1)), is(-1));
+    }
+
+    @Test
+    public void bestFittingUnitOf() {
+        for (final ByteUnit.Kind kind : ByteUnit.Kind.values()) {
+            for (final ByteUnit unit : valuesOf(kind)) {
+                for (final long delta : new long[]{-1, 0, 1}) {
+                    final ByteCount value = valueOf(unit.longBase() + delta);
+                    assertThat(kind + ": " + value.bigIntegerValue(), value.bestFittingUnitOf(kind), is(bestFittingUnitByDivisionOf(value, kind)));
+                }
+            }
+            for (final long value : new long[]{0, -1, -5000, Long.MAX_VALUE, Long.MIN_VALUE, 999_999, 1_048_575}) {
+                assertThat(kind + ": " + value, valueOf(value).bestFittingUnitOf(kind), is(bestFittingUnitByDivisionOf(valueOf(value), kind)));
+            }
+        }
+        assertThat(valueOf(Long.MAX_VALUE).add(1).bestFittingUnitOf(Kind.binary), is(EiB));
+        assertThat(valueOf(Long.MAX_VALUE).add(1).bestFittingUnitOf(Kind.metric), is(EB));
+        assertThat(valueOf(Long.MIN_VALUE).subtract(1).bestFittingUnitOf(Kind.metric), is(B));
+        assertThat(() -> valueOf(1).bestFittingUnitOf(null), throwsException(IllegalArgumentException.class));
+    }
+
+    private static ByteUnit bestFittingUnitByDivisionOf(ByteCount value, ByteUnit.Kind kind) {
+        final List<ByteUnit> candidates = valuesOf(kind);
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            if (candidates.get(i).from(value.bigIntegerValue(), B).signum() > 0) {
+                return candidates.get(i);
+            }
+        }
+        return B;
+    }
+
+    @Test
+    public void commonValuesAreCached() {
+        assertThat(valueOf(0) == ByteCount.ZERO, is(true));
+        assertThat(valueOf(1023) == valueOf(1023), is(true));
+        assertThat(valueOf(4, KiB) == KiB.value(4), is(true));
+        assertThat(valueOf(100, MB) == valueOf("100MB"), is(true));
+        assertThat(valueOf(BigInteger.valueOf(3).shiftLeft(20)) == valueOf(3, MiB), is(true));
+        assertThat(valueOf(7, EiB) == valueOf(7, EiB), is(true));
+        assertThat(valueOf(9, EB) == valueOf(9, EB), is(true));
+        for (final ByteUnit unit : values()) {
+            assertThat(unit.byteCountBase() == valueOf(1, unit), is(true));
+            assertThat(unit.byteCountBase().longValue(), is(unit.longBase()));
+        }
+
+        assertThat(valueOf(129, KiB) == valueOf(129, KiB), is(false));
+        assertThat(valueOf(129, KiB), is(valueOf(129, KiB)));
+        assertThat(valueOf(-1) == valueOf(-1), is(false));
+        assertThat(valueOf(1025) == valueOf(1025), is(false));
+    }
+
+    @Test
+    public void hashCodeIsCompatibleWithBigInteger() {
+        for (final long value : new long[]{0, 1, -1, 1023, Integer.MAX_VALUE, 1L << 32, -(1L << 40) - 5, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertThat(valueOf(value).hashCode(), is(Objects.hash(BigInteger.valueOf(value))));
+        }
+        final BigInteger big = BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(2);
+        assertThat(valueOf(big).hashCode(), is(Objects.hash(big)));
+    }
+
+    @Test
+    public void serialization() throws Exception {
+        assertThat(serializeAndDeserialize(valueOf(1234)), is(valueOf(1234)));
+        assertThat(serializeAndDeserialize(valueOf(8, EiB)), is(valueOf(8, EiB)));
+        assertThat(serializeAndDeserialize(valueOf(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(2))), is(valueOf(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(2))));
+        assertThat(serializeAndDeserialize(valueOf(4, KiB)) == valueOf(4, KiB), is(true));
+    }
+
+    @Test
+    public void serializationOfSubclasses() throws Exception {
+        final ByteCount small = serializeAndDeserialize(new SubclassedByteCount(1234));
+        assertThat(small.getClass() == SubclassedByteCount.class, is(true));
+        assertThat(small.longValue(), is(1234L));
+
+        final BigInteger value = BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(2);
+        final ByteCount big = serializeAndDeserialize(new SubclassedByteCount(value));
+        assertThat(big.getClass() == SubclassedByteCount.class, is(true));
+        assertThat(big.bigIntegerValue(), is(value));
+    }
+
+    @Test
+    public void serializedFormIsCompact() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(valueOf(1234));
+        }
+        // The former form required 297 bytes.
+        assertThat(bytes.size() < 64, is(true));
+    }
+
+    @Test
+    public void deserializationOfFormerForm() throws Exception {
+        assertThat(deserialize("rO0ABXNyACNvcmcuZWNob2NhdC51bml0czRqLmJ5dGVzLkJ5dGVDb3VudAAAAAAAAAABAgABTAAJYnl0ZUNvdW50dAAWTGphdmEvbWF0aC9CaWdJbnRlZ2VyO3hyABBqYXZhLmxhbmcuTnVtYmVyhqyVHQuU4IsCAAB4cHNyABRqYXZhLm1hdGguQmlnSW50ZWdlcoz8nx+pO/sdAwAGSQAIYml0Q291bnRJAAliaXRMZW5ndGhJABNmaXJzdE5vbnplcm9CeXRlTnVtSQAMbG93ZXN0U2V0Qml0SQAGc2lnbnVtWwAJbWFnbml0dWRldAACW0J4cQB+AAL///////////////7////+AAAAAXVyAAJbQqzzF/gGCFTgAgAAeHAAAAACBNJ4"),
+            is(valueOf(1234)));
+        assertThat(deserialize("rO0ABXNyACNvcmcuZWNob2NhdC51bml0czRqLmJ5dGVzLkJ5dGVDb3VudAAAAAAAAAABAgABTAAJYnl0ZUNvdW50dAAWTGphdmEvbWF0aC9CaWdJbnRlZ2VyO3hyABBqYXZhLmxhbmcuTnVtYmVyhqyVHQuU4IsCAAB4cHNyABRqYXZhLm1hdGguQmlnSW50ZWdlcoz8nx+pO/sdAwAGSQAIYml0Q291bnRJAAliaXRMZW5ndGhJABNmaXJzdE5vbnplcm9CeXRlTnVtSQAMbG93ZXN0U2V0Qml0SQAGc2lnbnVtWwAJbWFnbml0dWRldAACW0J4cQB+AAL///////////////7////+AAAAAXVyAAJbQqzzF/gGCFTgAgAAeHAAAAAJAf/////////8eA=="),
+            is(valueOf(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(2))));
+    }
+
+    private static class SubclassedByteCount extends ByteCount {
+
+        private static final long serialVersionUID = 1L;
+
+        SubclassedByteCount(long byteCount) {
+            super(byteCount);
+        }
+
+        SubclassedByteCount(BigInteger byteCount) {
+            super(byteCount);
+        }
+
+    }
+
+    private static ByteCount serializeAndDeserialize(ByteCount input) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(input);
+        }
+        return deserialize(bytes.toByteArray());
+    }
+
+    private static ByteCount deserialize(String base64) throws IOException, ClassNotFoundException {
+        return deserialize(Base64.getDecoder().decode(base64));
+    }
+
+    private static ByteCount deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (ByteCount) in.readObject();
+        }
+    }
+
 }
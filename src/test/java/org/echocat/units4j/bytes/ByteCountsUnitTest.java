@@ -0,0 +1,139 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteCounts.measureTree;
+import static org.echocat.units4j.bytes.ByteUnit.KiB;
+import static org.echocat.units4j.bytes.TreeMeasureOptions.treeMeasureOptions;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteCountsUnitTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = temporaryFolder.getRoot().toPath();
+        write("a.txt", 100);
+        write("b.tmp", 5000);
+        write("sub/c.txt", 1000);
+        write("sub/deeper/d.txt", 10);
+        write("other/e.txt", 1);
+        Files.createDirectories(root.resolve("empty"));
+    }
+
+    @Test
+    public void measureTreeWithDefaults() throws IOException {
+        final TreeMeasurement measurement = measureTree(root);
+
+        assertThat(measurement.root(), is(root));
+        assertThat(measurement.total(), is(valueOf(6111)));
+        assertThat(measurement.files(), is(5L));
+        assertThat(measurement.directories(), is(5L));
+        assertThat(measurement.failures(), is(0L));
+        assertThat(measurement.breakdown().isEmpty(), is(true));
+        assertThat(ByteCount.sizeOf(root), is(valueOf(6111)));
+    }
+
+    @Test
+    public void measureFile() throws IOException {
+        final TreeMeasurement measurement = measureTree(root.resolve("b.tmp"));
+
+        assertThat(measurement.total(), is(valueOf(5000)));
+        assertThat(measurement.files(), is(1L));
+        assertThat(measurement.directories(), is(0L));
+        assertThat(ByteCount.sizeOf(root.resolve("sub/c.txt")), is(valueOf(1000)));
+    }
+
+    @Test
+    public void excludes() throws IOException {
+        assertThat(measureTree(root, treeMeasureOptions().withExcludes("*.tmp").build()).total(), is(valueOf(1111)));
+        assertThat(measureTree(root, treeMeasureOptions().withExcludes("sub").build()).total(), is(valueOf(5101)));
+        assertThat(measureTree(root, treeMeasureOptions().withExcludes("**/deeper", "other/*").build()).total(), is(valueOf(6100)));
+    }
+
+    @Test
+    public void allocationUnit() throws IOException {
+        final TreeMeasurement measurement = measureTree(root, treeMeasureOptions().withAllocationUnit(valueOf(4, KiB)).build());
+        assertThat(measurement.total(), is(valueOf(4, KiB).multiply(6)));
+
+        assertThat(() -> treeMeasureOptions().withAllocationUnit(valueOf(0)), throwsException(IllegalArgumentException.class, "Given allocationUnit value is not positive or too big: 0"));
+    }
+
+    @Test
+    public void breakdown() throws IOException {
+        final Map<Path, ByteCount> expected = new HashMap<>();
+        expected.put(root.resolve("sub"), valueOf(1010));
+        expected.put(root.resolve("other"), valueOf(1));
+        expected.put(root.resolve("empty"), valueOf(0));
+        assertThat(measureTree(root, treeMeasureOptions().withBreakdownDepth(1).build()).breakdown(), is(expected));
+
+        expected.put(root.resolve("sub/deeper"), valueOf(10));
+        assertThat(measureTree(root, treeMeasureOptions().withBreakdownDepth(2).build()).breakdown(), is(expected));
+    }
+
+    @Test
+    public void symlinks() throws IOException {
+        Files.createSymbolicLink(root.resolve("link"), root.resolve("sub"));
+        Files.createSymbolicLink(root.resolve("sub/deeper/cycle"), root);
+
+        final TreeMeasurement notFollowed = measureTree(root);
+        assertThat(notFollowed.files(), is(7L));
+        assertThat(notFollowed.directories(), is(5L));
+
+        final TreeMeasurement followed = measureTree(root, treeMeasureOptions().withFollowSymlinks(true).build());
+        assertThat(followed.total(), is(valueOf(6111)));
+        assertThat(followed.files(), is(5L));
+    }
+
+    @Test
+    public void errors() throws IOException {
+        assertThat(() -> measureTree(root.resolve("missing")), throwsException(NoSuchFileException.class));
+
+        Files.createSymbolicLink(root.resolve("broken"), root.resolve("missing"));
+        final TreeMeasureOptions.Builder following = treeMeasureOptions().withFollowSymlinks(true);
+        assertThat(() -> measureTree(root, following.build()), throwsException(NoSuchFileException.class));
+
+        final TreeMeasurement measurement = measureTree(root, following.withIgnoreErrors(true).withPool(new ForkJoinPool(2)).build());
+        assertThat(measurement.total(), is(valueOf(6111)));
+        assertThat(measurement.failures(), is(1L));
+    }
+
+    @Test
+    public void manyDirectories() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < 20; j++) {
+                write("many/" + i + "/" + j + ".bin", i + j);
+            }
+        }
+
+        final TreeMeasurement measurement = measureTree(root.resolve("many"));
+        assertThat(measurement.files(), is(1000L));
+        assertThat(measurement.directories(), is(51L));
+        assertThat(measurement.total(), is(valueOf(50 * 190 + 20 * 1225)));
+    }
+
+    private void write(String path, int size) throws IOException {
+        final Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+    }
+
+}
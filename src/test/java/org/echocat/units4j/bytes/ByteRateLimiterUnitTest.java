@@ -0,0 +1,187 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteRateLimiter.byteRateLimiter;
+import static org.echocat.units4j.bytes.ByteUnit.KiB;
+import static org.echocat.units4j.bytes.ByteUnit.MiB;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteRateLimiterUnitTest {
+
+    private final AtomicLong clock = new AtomicLong(123L);
+
+    @Test
+    public void tryAcquire() {
+        final ByteRateLimiter instance = limiterOf(1000, 100);
+
+        assertThat(instance.tryAcquire(60), is(true));
+        assertThat(instance.tryAcquire(valueOf(40)), is(true));
+        assertThat(instance.tryAcquire(1), is(false));
+        assertThat(instance.tryAcquire(0), is(true));
+        assertThat(instance.available(), is(valueOf(0)));
+
+        clock.addAndGet(MILLISECONDS.toNanos(50));
+        assertThat(instance.available(), is(valueOf(50)));
+        assertThat(instance.tryAcquire(51), is(false));
+        assertThat(instance.tryAcquire(50), is(true));
+        assertThat(instance.tryAcquire(1), is(false));
+    }
+
+    @Test
+    public void bucketDoesNotOverflow() {
+        final ByteRateLimiter instance = limiterOf(1000, 100);
+        instance.tryAcquire(100);
+
+        clock.addAndGet(SECONDS.toNanos(10));
+
+        assertThat(instance.available(), is(valueOf(100)));
+        assertThat(instance.tryAcquire(101), is(false));
+        assertThat(instance.tryAcquire(100), is(true));
+    }
+
+    @Test
+    public void reservationsAreGrantedInOrder() {
+        final ByteRateLimiter instance = limiterOf(1000, 100);
+
+        assertThat(instance.reserve(300, Long.MAX_VALUE), is(MILLISECONDS.toNanos(200)));
+        assertThat(instance.reserve(10, Long.MAX_VALUE), is(MILLISECONDS.toNanos(210)));
+        assertThat(instance.tryAcquire(1), is(false));
+
+        clock.addAndGet(MILLISECONDS.toNanos(220));
+        assertThat(instance.available(), is(valueOf(10)));
+    }
+
+    @Test
+    public void tryAcquireWithTimeout() throws InterruptedException {
+        final ByteRateLimiter instance = limiterOf(1000, 100);
+        instance.tryAcquire(100);
+
+        assertThat(instance.tryAcquire(100, 99, MILLISECONDS), is(false));
+        assertThat(instance.tryAcquire(1, 0, MILLISECONDS), is(false));
+        assertThat(instance.tryAcquire(1, 2, MILLISECONDS), is(true));
+        assertThat(instance.reserve(1, Long.MAX_VALUE), is(MILLISECONDS.toNanos(2)));
+    }
+
+    @Test
+    public void acquire() throws InterruptedException {
+        final ByteRateLimiter instance = byteRateLimiter(ByteRate.valueOf(valueOf(1, MiB), SECONDS))
+            .withNanoClock(clock::get)
+            .withBurst(valueOf(1, KiB))
+            .build();
+
+        assertThat(instance.acquire(1024), is(0L));
+        assertThat(instance.acquire(valueOf(1, KiB)).toNanos(), is(976563L));
+    }
+
+    @Test
+    public void tryAcquireSmallAmountsAtHighRate() {
+        final ByteRateLimiter instance = byteRateLimiter(ByteRate.valueOf(4_000_000_000L, SECONDS))
+            .withNanoClock(clock::get)
+            .withBurst(valueOf(1000))
+            .build();
+
+        assertThat(acquiredOf(instance, 1), is(1000));
+        clock.addAndGet(250);
+        assertThat(acquiredOf(instance, 3), is(333));
+    }
+
+    @Test
+    public void tryAcquireAfterBeingIdleForDays() {
+        final ByteRateLimiter instance = limiterOf(valueOf(200, MiB).longValue(), valueOf(200, MiB).longValue());
+
+        for (final long idleHours : new long[]{38, 40, 48, 60, 72, 80, 24 * 30}) {
+            assertThat(instance.tryAcquire(valueOf(200, MiB)), is(true));
+            assertThat(instance.tryAcquire(valueOf(1, KiB)), is(false));
+            clock.addAndGet(HOURS.toNanos(idleHours));
+            assertThat(instance.available(), is(valueOf(200, MiB)));
+            assertThat(instance.tryAcquire(valueOf(1, KiB)), is(true));
+            clock.addAndGet(SECONDS.toNanos(1));
+        }
+    }
+
+    @Test
+    public void acquireMoreThanCouldBePaidOff() {
+        final ByteRateLimiter instance = limiterOf(1, 1);
+
+        assertThat(instance.tryAcquire(valueOf(1, MiB)), is(false));
+        assertThat(() -> instance.acquire(valueOf(1, MiB)), throwsException(IllegalArgumentException.class));
+        assertThat(instance.available(), is(valueOf(1)));
+    }
+
+    @Test
+    public void acquireWithNegativeBytes() {
+        final ByteRateLimiter instance = limiterOf(1000, 100);
+
+        assertThat(() -> instance.acquire(-1), throwsException(IllegalArgumentException.class, "Given bytes value is negative: -1"));
+        assertThat(() -> instance.tryAcquire(-1), throwsException(IllegalArgumentException.class, "Given bytes value is negative: -1"));
+    }
+
+    @Test
+    public void charge() throws InterruptedIOException {
+        final ByteRateLimiter instance = byteRateLimiter(ByteRate.valueOf(1000, SECONDS))
+            .withNanoClock(clock::get)
+            .withBatchSize(valueOf(10))
+            .build();
+
+        assertThat(instance.charge(0, 4), is(4L));
+        assertThat(instance.charge(4, 5), is(9L));
+        assertThat(instance.available(), is(valueOf(1000)));
+        assertThat(instance.charge(9, 1), is(0L));
+        assertThat(instance.available(), is(valueOf(990)));
+    }
+
+    @Test
+    public void defaults() {
+        final ByteRateLimiter instance = byteRateLimiter(ByteRate.valueOf("200MiB")).build();
+
+        assertThat(instance.rate(), is(ByteRate.valueOf(valueOf(200, MiB), SECONDS)));
+        assertThat(instance.burst(), is(valueOf(200, MiB)));
+        assertThat(instance.batchSize(), is(valueOf(64, KiB)));
+        assertThat(instance.available(), is(valueOf(200, MiB)));
+    }
+
+    @Test
+    public void batchSizeIsLimitedByBurst() {
+        final ByteRateLimiter instance = limiterOf(1000, 100);
+
+        assertThat(instance.batchSize(), is(valueOf(100)));
+        assertThat(instance.chunkOf(1000), is(100));
+        assertThat(instance.chunkOf(50), is(50));
+    }
+
+    @Test
+    public void invalidConfigurations() {
+        assertThat(() -> byteRateLimiter(ByteRate.valueOf(0, SECONDS)), throwsException(IllegalArgumentException.class));
+        assertThat(() -> byteRateLimiter(ByteRate.valueOf(1, SECONDS)).withBurst(valueOf(0)), throwsException(IllegalArgumentException.class));
+        assertThat(() -> byteRateLimiter(ByteRate.valueOf(1, SECONDS)).withBatchSize(valueOf(0)), throwsException(IllegalArgumentException.class));
+        assertThat(() -> byteRateLimiter(ByteRate.valueOf(1, SECONDS)).withBurst(valueOf(1, MiB)).build(), throwsException(IllegalArgumentException.class));
+    }
+
+    private static int acquiredOf(ByteRateLimiter instance, long bytes) {
+        int result = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (instance.tryAcquire(bytes)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    private ByteRateLimiter limiterOf(long bytesPerSecond, long burst) {
+        return byteRateLimiter(ByteRate.valueOf(bytesPerSecond, SECONDS))
+            .withNanoClock(clock::get)
+            .withBurst(valueOf(burst))
+            .build();
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteRateMeter.byteRateMeter;
+import static org.echocat.units4j.bytes.ByteUnit.MiB;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ByteRateMeterUnitTest {
+
+    private final AtomicLong nanos = new AtomicLong(123L);
+    private final ByteRateMeter meter = byteRateMeter()
+        .withNanoClock(nanos::get)
+        .withBucketDuration(Duration.ofSeconds(1))
+        .withNumberOfBuckets(10)
+        .withAverageWindow(Duration.ofSeconds(5))
+        .build();
+
+    @Test
+    public void slidingWindows() {
+        assertThat(meter.rate(Duration.ofSeconds(1)), is(ByteRate.valueOf(0, SECONDS)));
+
+        meter.record(1000);
+        elapse(1);
+        meter.record(valueOf(3000));
+        elapse(1);
+
+        assertThat(meter.total(), is(valueOf(4000)));
+        assertThat(meter.rate(Duration.ofSeconds(1)), is(ByteRate.valueOf(3000, SECONDS)));
+        assertThat(meter.rate(Duration.ofSeconds(2)), is(ByteRate.valueOf(2000, SECONDS)));
+        // Only two buckets are filled so far.
+        assertThat(meter.rate(Duration.ofSeconds(10)), is(ByteRate.valueOf(2000, SECONDS)));
+
+        elapse(3);
+        assertThat(meter.rate(Duration.ofSeconds(2)), is(ByteRate.valueOf(0, SECONDS)));
+        assertThat(meter.rate(Duration.ofSeconds(5)), is(ByteRate.valueOf(800, SECONDS)));
+
+        meter.record(valueOf(1, MiB));
+        nanos.addAndGet(SECONDS.toNanos(25));
+        // Bytes recorded between two ticks are spread over all elapsed buckets.
+        assertThat(meter.rate(Duration.ofSeconds(10)), is(ByteRate.valueOf(1048576 / 25, SECONDS)));
+        assertThat(meter.total(), is(valueOf(4000).add(valueOf(1, MiB))));
+
+        assertThat(() -> meter.rate(Duration.ofSeconds(11)), throwsException(IllegalArgumentException.class));
+        assertThat(() -> meter.record(valueOf(Long.MAX_VALUE).add(1)), throwsException(ArithmeticException.class));
+        assertThat(() -> meter.rate(Duration.ZERO), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void movingAverage() {
+        for (int i = 0; i < 100; i++) {
+            meter.record(5000);
+            elapse(1);
+        }
+        assertThat(meter.rate(), is(ByteRate.valueOf(5000, SECONDS)));
+
+        elapse(1000);
+        assertThat(meter.rate(), is(ByteRate.valueOf(0, SECONDS)));
+    }
+
+    @Test
+    public void incompleteBucketsAreNotCounted() {
+        meter.record(1000);
+        nanos.addAndGet(999_999_999L);
+        assertThat(meter.rate(Duration.ofSeconds(1)), is(ByteRate.valueOf(0, SECONDS)));
+        nanos.incrementAndGet();
+        assertThat(meter.rate(Duration.ofSeconds(1)), is(ByteRate.valueOf(1000, SECONDS)));
+    }
+
+    private void elapse(long seconds) {
+        for (long i = 0; i < seconds; i++) {
+            nanos.addAndGet(SECONDS.toNanos(1));
+            meter.tick();
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteCountFormat.byteCountFormat;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static java.util.Locale.US;
+
+public class ByteRateUnitTest {
+
+    @Test
+    public void valueOfString() {
+        assertThat(ByteRate.valueOf("200MiB/s"), is(ByteRate.valueOf(valueOf(200, MiB), SECONDS)));
+        assertThat(ByteRate.valueOf("1GB / min"), is(ByteRate.valueOf(valueOf(1, GB), MINUTES)));
+        assertThat(ByteRate.valueOf("5MiB"), is(ByteRate.valueOf(valueOf(5, MiB), SECONDS)));
+        assertThat(ByteRate.valueOf("3kB/us"), is(ByteRate.valueOf(valueOf(3, kB), MICROSECONDS)));
+        assertThat(ByteRate.valueOf((String) null), is(nullValue()));
+        assertThat(() -> ByteRate.valueOf("5MiB/year"), throwsException(IllegalArgumentException.class, "Could not parse: 5MiB/year"));
+    }
+
+    @Test
+    public void valueOfToStringRoundTrips() {
+        assertThat(ByteRate.valueOf("1.5KiB/s"), is(ByteRate.valueOf(1536, SECONDS)));
+        assertRoundTrips(ByteRate.valueOf(1536, SECONDS));
+        assertRoundTrips(ByteRate.valueOf(valueOf(12800, KiB), SECONDS));
+        assertRoundTrips(ByteRate.valueOf(valueOf(2304, KiB), MINUTES));
+        assertRoundTrips(ByteRate.valueOf(valueOf(1792, MiB), HOURS));
+        assertRoundTrips(ByteRate.valueOf(valueOf(1000, MiB), MICROSECONDS));
+        assertRoundTrips(ByteRate.valueOf(valueOf(0), SECONDS));
+    }
+
+    private static void assertRoundTrips(ByteRate rate) {
+        assertThat(ByteRate.valueOf(rate.toString()), is(rate));
+    }
+
+    @Test
+    public void conversions() {
+        final ByteRate rate = ByteRate.valueOf(valueOf(60, MiB), MINUTES);
+
+        assertThat(rate.bytesPerSecond(), is(1048576d));
+        assertThat(rate.to(SECONDS), is(ByteRate.valueOf(valueOf(1, MiB), SECONDS)));
+        assertThat(rate.to(HOURS), is(ByteRate.valueOf(valueOf(3600, MiB), HOURS)));
+        assertThat(rate.over(Duration.ofMillis(1500)), is(valueOf(1536, KiB)));
+        assertThat(ByteRate.between(valueOf(10, MiB), Duration.ofSeconds(4)), is(ByteRate.valueOf(valueOf(2560, KiB), SECONDS)));
+        assertThat(ByteRate.bytesPerSecond(1.6d), is(ByteRate.valueOf(2, SECONDS)));
+        assertThat(() -> ByteRate.between(valueOf(1), Duration.ZERO), throwsException(IllegalArgumentException.class));
+        assertThat(() -> ByteRate.bytesPerSecond(Double.NaN), throwsException(IllegalArgumentException.class));
+    }
+
+    @Test
+    public void format() {
+        assertThat(ByteRate.valueOf(valueOf(12800, KiB), SECONDS).toString(), is("12.5MiB/s"));
+        assertThat(ByteRate.valueOf(valueOf(1, GB), MINUTES).toString(), is("953.67MiB/min"));
+        assertThat(byteCountFormat().withLocale(US).build().format(ByteRate.valueOf(valueOf(5, kB), MILLISECONDS)), is("4KiB 904B/ms"));
+    }
+
+}
@@ -4,9 +4,14 @@ import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
 
-import static org.echocat.units4j.bytes.ByteUnit.B;
-import static org.echocat.units4j.bytes.ByteUnit.KiB;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.echocat.units4j.bytes.ByteUnit.*;
+import static org.echocat.units4j.bytes.ByteUnit.OverflowMode.saturate;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -18,4 +23,150 @@ public class ByteUnitUnitTest {
         assertThat(B.value(1).toDecimal(KiB), is(BigDecimal.valueOf(0.000977d)));
     }
 
+    @Test
+    public void longConversionsMatchBigIntegerConversions() {
+        final long[] values = {0, 1, -1, 999, 1000, 1023, 1024, 123456789, -987654321, 1L << 40, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (final ByteUnit source : values()) {
+            for (final ByteUnit target : values()) {
+                for (final long value : values) {
+                    final BigInteger expected = target.from(BigInteger.valueOf(value), source);
+                    if (expected.bitLength() < Long.SIZE) {
+                        assertThat(source + "->" + target + ": " + value, target.from(value, source), is(expected.longValue()));
+                        assertThat(source + "->" + target + ": " + value, source.to(value, target), is(expected.longValue()));
+                    } else {
+                        assertThat(() -> target.from(value, source), throwsException(ArithmeticException.class));
+                        assertThat(target.from(value, source, saturate), is(expected.signum() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void doubleConversions() {
+        assertThat(KiB.from(1d, B), is(1d / 1024d));
+        assertThat(B.from(1.5d, GiB), is(1.5d * 1024d * 1024d * 1024d));
+        assertThat(kB.from(1d, B), is(0.001d));
+        assertThat(B.from(2.5d, TB), is(2.5e12d));
+        assertThat(GB.to(1d, GiB), is(1e9d / 1073741824d));
+        assertThat(MiB.to(3d, MiB), is(3d));
+    }
+
+    @Test
+    public void conversionsAreExactAndReduced() {
+        for (final ByteUnit source : values()) {
+            for (final ByteUnit target : values()) {
+                final ByteUnit.Conversion conversion = conversionOf(source, target);
+                assertThat(source + "->" + target, BigInteger.valueOf(conversion.multiplier).multiply(target.bigIntegerBase()), is(BigInteger.valueOf(conversion.divisor).multiply(source.bigIntegerBase())));
+                assertThat(source + "->" + target, BigInteger.valueOf(conversion.multiplier).gcd(BigInteger.valueOf(conversion.divisor)), is(BigInteger.ONE));
+            }
+        }
+        assertThat(conversionOf(GiB, KiB).toString(), is("<< 20"));
+        assertThat(conversionOf(B, MiB).toString(), is(">>> 20"));
+        assertThat(conversionOf(B, MB).toString(), is("* 1 / 1000000"));
+        assertThat(conversionOf(KiB, kB).toString(), is("* 128 / 125"));
+        assertThat(conversionOf(EiB, kB).toString(), is("* 144115188075855872 / 125"));
+        assertThat(conversionOf(EB, KiB).toString(), is("* 976562500000000 / 1"));
+    }
+
+    @Test
+    public void crossKindConversions() {
+        assertThat(kB.from(1000L, KiB), is(1024L));
+        assertThat(KiB.from(1999L, kB), is(1952L));
+        assertThat(kB.from(-1000L, KiB), is(-1024L));
+        assertThat(kB.from(100L, EiB), is(115292150460684697L));
+        assertThat(kB.from(1d, KiB), is(1.024d));
+        assertThat(kB.from(BigInteger.valueOf(100L), EiB), is(BigInteger.valueOf(115292150460684697L)));
+        assertThat(kB.from(BigDecimal.valueOf(1000L), KiB), is(BigDecimal.valueOf(1024L)));
+    }
+
+    @Test
+    public void bigDecimalConversions() {
+        assertThat(KiB.to(BigDecimal.ONE, B), is(BigDecimal.valueOf(1024L)));
+        assertThat(B.to(BigDecimal.ONE, KiB), is(new BigDecimal("0.000977")));
+        assertThat(GiB.to(new BigDecimal("1.5"), MiB), is(new BigDecimal("1536.0")));
+        assertThat(MiB.from((BigDecimal) null, GiB), is(BigDecimal.ZERO));
+        for (final ByteUnit source : values()) {
+            for (final ByteUnit target : values()) {
+                assertThat(source + "->" + target, source.to(new BigDecimal("123.45"), target), is(target.from(new BigDecimal("123.45"), source)));
+            }
+        }
+    }
+
+    @Test
+    public void bulkLongConversionsMatchSingleConversions() {
+        final long[] values = {0, 1, -1, 999, 1000, 1023, 1024, -1025, 123456789, -987654321, 1L << 40, -(1L << 40), 1L << 52, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (final ByteUnit source : values()) {
+            for (final ByteUnit target : values()) {
+                final long[] expected = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    expected[i] = target.from(values[i], source, saturate);
+                }
+                final long[] converted = new long[values.length + 2];
+                target.convert(values, 0, converted, 1, values.length, source, saturate);
+                for (int i = 0; i < values.length; i++) {
+                    assertThat(source + "->" + target + ": " + values[i], converted[i + 1], is(expected[i]));
+                }
+
+                final long[] small = {0, 1, -1, 999, -1000, 1023, 1024, 123456};
+                final long[] inPlace = small.clone();
+                target.convert(inPlace, 0, inPlace, 0, inPlace.length, source, saturate);
+                for (int i = 0; i < small.length; i++) {
+                    assertThat(source + "->" + target + ": " + small[i], inPlace[i], is(target.from(small[i], source, saturate)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bulkLongConversionsWithOverflow() {
+        final long[] values = {1, 2, 1L << 60, 3};
+        final long[] target = new long[4];
+
+        assertThat(() -> B.convert(values, 0, target, 0, 4, KiB), throwsException(ArithmeticException.class, "long overflow"));
+        assertThat(target[0], is(1024L));
+        assertThat(target[1], is(2048L));
+
+        B.convert(values, 0, target, 0, 4, KiB, saturate);
+        assertThat(target[2], is(Long.MAX_VALUE));
+        assertThat(target[3], is(3072L));
+
+        final long[] inPlace = {100L, Long.MAX_VALUE / 100L};
+        kB.convert(inPlace, 0, inPlace, 0, 2, EiB, saturate);
+        assertThat(inPlace[0], is(115292150460684697L));
+        assertThat(inPlace[1], is(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void bulkDoubleConversions() {
+        final double[] values = {0d, 1d, -1.5d, 1000d, 1e300d};
+        for (final ByteUnit source : values()) {
+            for (final ByteUnit target : values()) {
+                final double[] converted = new double[values.length];
+                target.convert(values, 0, converted, 0, values.length, source);
+                for (int i = 0; i < values.length; i++) {
+                    assertThat(source + "->" + target + ": " + values[i], converted[i], is(target.from(values[i], source)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bulkConversionsOutOfRange() {
+        assertThat(() -> B.convert(new long[2], 1, new long[2], 0, 2, KiB), throwsException(IndexOutOfBoundsException.class));
+        assertThat(() -> B.convert(new long[2], 0, new long[2], 1, 2, KiB), throwsException(IndexOutOfBoundsException.class));
+        assertThat(() -> B.convert(new double[2], -1, new double[2], 0, 1, KiB), throwsException(IndexOutOfBoundsException.class));
+        assertThat(() -> B.convert(new double[2], 0, new double[2], 0, -1, KiB), throwsException(IndexOutOfBoundsException.class));
+    }
+
+    @Test
+    public void streamConversions() {
+        assertThat(B.convert(LongStream.of(1, 2, 3), KiB).sum(), is(6144L));
+        assertThat(MB.convert(LongStream.of(1500000, 2500000, -3500000), B).boxed().collect(toList()), is(asList(1L, 2L, -3L)));
+        assertThat(B.convert(LongStream.of(1L << 60), KiB, saturate).sum(), is(Long.MAX_VALUE));
+        assertThat(() -> B.convert(LongStream.of(1L << 60), KiB).sum(), throwsException(ArithmeticException.class, "long overflow"));
+        assertThat(kB.convert(DoubleStream.of(1d, 2d), KiB).sum(), is(3.072d));
+        assertThat(KiB.convert(DoubleStream.of(1d, 2d), KiB).sum(), is(3d));
+    }
+
 }
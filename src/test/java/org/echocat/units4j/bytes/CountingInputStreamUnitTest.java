@@ -0,0 +1,78 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CountingInputStreamUnitTest {
+
+    @Test
+    public void read() throws IOException {
+        final ByteCountAdder sink = new ByteCountAdder();
+        try (final CountingInputStream instance = new CountingInputStream(inputOf(100), sink::add)) {
+            assertThat(instance.read(), is(0));
+            assertThat(instance.read(new byte[30]), is(30));
+            assertThat(instance.read(new byte[30], 10, 5), is(5));
+            assertThat(instance.count(), is(36L));
+
+            assertThat(instance.read(new byte[100]), is(64));
+            assertThat(instance.read(new byte[100]), is(-1));
+            assertThat(instance.read(), is(-1));
+            assertThat(instance.count(), is(100L));
+            assertThat(instance.byteCount(), is(valueOf(100)));
+            assertThat(sink.sum(), is(valueOf(100)));
+        }
+    }
+
+    @Test
+    public void skip() throws IOException {
+        final CountingInputStream instance = new CountingInputStream(inputOf(100));
+
+        assertThat(instance.skip(40), is(40L));
+        assertThat(instance.skip(100), is(60L));
+
+        assertThat(instance.count(), is(100L));
+    }
+
+    @Test
+    public void markAndReset() throws IOException {
+        final ByteCountAdder sink = new ByteCountAdder();
+        final CountingInputStream instance = new CountingInputStream(inputOf(100), sink::add);
+        instance.read(new byte[10]);
+
+        instance.mark(50);
+        instance.read(new byte[20]);
+        assertThat(instance.count(), is(30L));
+        instance.reset();
+
+        assertThat(instance.count(), is(10L));
+        assertThat(sink.sum(), is(valueOf(30)));
+    }
+
+    @Test
+    public void resetWithoutMark() {
+        final CountingInputStream instance = new CountingInputStream(inputOf(100));
+
+        assertThat(() -> instance.reset(), throwsException(IOException.class, "Mark not set."));
+    }
+
+    @Test
+    public void toStringCall() throws IOException {
+        final CountingInputStream instance = new CountingInputStream(inputOf(2000));
+        instance.skip(1500);
+
+        assertThat(instance.toString(), is("CountingInputStream{1KiB 476B}"));
+    }
+
+    static InputStream inputOf(int length) {
+        return new ByteArrayInputStream(new byte[length]);
+    }
+
+}
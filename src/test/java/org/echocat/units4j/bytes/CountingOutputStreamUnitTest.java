@@ -0,0 +1,39 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CountingOutputStreamUnitTest {
+
+    @Test
+    public void write() throws IOException {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final ByteCountHistogram sink = new ByteCountHistogram();
+        try (final CountingOutputStream instance = new CountingOutputStream(target, sink::record)) {
+            instance.write(1);
+            instance.write(new byte[30]);
+            instance.write(new byte[30], 10, 5);
+            instance.write(new byte[0]);
+
+            assertThat(instance.count(), is(36L));
+            assertThat(instance.byteCount(), is(valueOf(36)));
+            assertThat(sink.count(), is(3L));
+        }
+        assertThat(target.size(), is(36));
+    }
+
+    @Test
+    public void toStringCall() throws IOException {
+        final CountingOutputStream instance = new CountingOutputStream(new ByteArrayOutputStream());
+        instance.write(new byte[1500]);
+
+        assertThat(instance.toString(), is("CountingOutputStream{1KiB 476B}"));
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.channels.Channels.newChannel;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CountingReadableByteChannelUnitTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void read() throws IOException {
+        final ByteCountAdder sink = new ByteCountAdder();
+        try (final CountingReadableByteChannel instance = new CountingReadableByteChannel(newChannel(new ByteArrayInputStream(new byte[100])), sink::add)) {
+            assertThat(instance.read(ByteBuffer.allocate(60)), is(60));
+            assertThat(instance.read(ByteBuffer.allocate(60)), is(40));
+            assertThat(instance.read(ByteBuffer.allocate(60)), is(-1));
+
+            assertThat(instance.count(), is(100L));
+            assertThat(sink.sum(), is(valueOf(100)));
+            assertThat(instance.isOpen(), is(true));
+        }
+    }
+
+    @Test
+    public void transferToOfFileChannel() throws IOException {
+        final Path file = fileWith(20000);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final CountingWritableByteChannel target = new CountingWritableByteChannel(newChannel(out));
+        try (final CountingReadableByteChannel instance = new CountingReadableByteChannel(FileChannel.open(file, READ))) {
+            instance.read(ByteBuffer.allocate(1000));
+
+            assertThat(instance.transferTo(15000, target), is(15000L));
+            assertThat(instance.transferTo(15000, target), is(4000L));
+            assertThat(instance.transferTo(15000, target), is(0L));
+
+            assertThat(instance.count(), is(20000L));
+            assertThat(target.count(), is(19000L));
+            assertThat(out.toByteArray()[0], is((byte) (1000 % 127)));
+            assertThat(out.size(), is(19000));
+        }
+    }
+
+    @Test
+    public void transferToOfOtherChannel() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final CountingWritableByteChannel target = new CountingWritableByteChannel(newChannel(out));
+        try (final CountingReadableByteChannel instance = new CountingReadableByteChannel(newChannel(new ByteArrayInputStream(new byte[20000])))) {
+            assertThat(instance.transferTo(15000, target), is(15000L));
+            assertThat(instance.transferTo(15000, target), is(5000L));
+            assertThat(instance.transferTo(15000, target), is(0L));
+            assertThat(instance.transferTo(0, target), is(0L));
+
+            assertThat(instance.count(), is(20000L));
+            assertThat(target.count(), is(20000L));
+            assertThat(out.size(), is(20000));
+        }
+    }
+
+    @Test
+    public void transferToWithNegativeCount() {
+        final CountingReadableByteChannel instance = new CountingReadableByteChannel(newChannel(new ByteArrayInputStream(new byte[1])));
+
+        assertThat(() -> instance.transferTo(-1, newChannel(new ByteArrayOutputStream())), throwsException(IllegalArgumentException.class, "Given count value is negative: -1"));
+    }
+
+    @Test
+    public void toStringCall() throws IOException {
+        final CountingReadableByteChannel instance = new CountingReadableByteChannel(newChannel(new ByteArrayInputStream(new byte[2000])));
+        instance.read(ByteBuffer.allocate(1500));
+
+        assertThat(instance.toString(), is("CountingReadableByteChannel{1KiB 476B}"));
+    }
+
+    private Path fileWith(int length) throws IOException {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i % 127);
+        }
+        return Files.write(temporaryFolder.newFile().toPath(), content);
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.channels.Channels.newChannel;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.unittest.utils.matchers.ThrowsException.throwsException;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CountingWritableByteChannelUnitTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void write() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteCountAdder sink = new ByteCountAdder();
+        try (final CountingWritableByteChannel instance = new CountingWritableByteChannel(newChannel(out), sink::add)) {
+            assertThat(instance.write(ByteBuffer.allocate(60)), is(60));
+            assertThat(instance.write(ByteBuffer.allocate(0)), is(0));
+
+            assertThat(instance.count(), is(60L));
+            assertThat(sink.sum(), is(valueOf(60)));
+            assertThat(instance.isOpen(), is(true));
+        }
+        assertThat(out.size(), is(60));
+    }
+
+    @Test
+    public void transferFromIntoFileChannel() throws IOException {
+        final Path file = temporaryFolder.newFile().toPath();
+        final CountingReadableByteChannel source = new CountingReadableByteChannel(newChannel(new ByteArrayInputStream(new byte[20000])));
+        try (final CountingWritableByteChannel instance = new CountingWritableByteChannel(FileChannel.open(file, WRITE))) {
+            instance.write(ByteBuffer.allocate(1000));
+
+            assertThat(instance.transferFrom(source, 15000), is(15000L));
+            assertThat(instance.transferFrom(source, 15000), is(5000L));
+            assertThat(instance.transferFrom(source, 15000), is(0L));
+
+            assertThat(instance.count(), is(21000L));
+            assertThat(source.count(), is(20000L));
+        }
+        assertThat(Files.size(file), is(21000L));
+    }
+
+    @Test
+    public void transferFromIntoOtherChannel() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final CountingReadableByteChannel source = new CountingReadableByteChannel(newChannel(new ByteArrayInputStream(new byte[20000])));
+        try (final CountingWritableByteChannel instance = new CountingWritableByteChannel(newChannel(out))) {
+            assertThat(instance.transferFrom(source, 15000), is(15000L));
+            assertThat(instance.transferFrom(source, 15000), is(5000L));
+
+            assertThat(instance.count(), is(20000L));
+            assertThat(source.count(), is(20000L));
+        }
+        assertThat(out.size(), is(20000));
+    }
+
+    @Test
+    public void transferFromWithNegativeCount() {
+        final CountingWritableByteChannel instance = new CountingWritableByteChannel(newChannel(new ByteArrayOutputStream()));
+
+        assertThat(() -> instance.transferFrom(newChannel(new ByteArrayInputStream(new byte[1])), -1), throwsException(IllegalArgumentException.class, "Given count value is negative: -1"));
+    }
+
+    @Test
+    public void toStringCall() throws IOException {
+        final CountingWritableByteChannel instance = new CountingWritableByteChannel(newChannel(new ByteArrayOutputStream()));
+        instance.write(ByteBuffer.allocate(1500));
+
+        assertThat(instance.toString(), is("CountingWritableByteChannel{1KiB 476B}"));
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteRateLimiter.byteRateLimiter;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ThrottledInputStreamUnitTest {
+
+    private final ByteRateLimiter limiter = byteRateLimiter(ByteRate.valueOf(1000, SECONDS))
+        .withNanoClock(() -> 0L)
+        .withBurst(valueOf(100))
+        .withBatchSize(valueOf(10))
+        .build();
+
+    @Test
+    public void readChunks() throws IOException {
+        final ThrottledInputStream instance = new ThrottledInputStream(new ByteArrayInputStream(new byte[250]), limiter);
+
+        assertThat(instance.read(new byte[1000]), is(100));
+        assertThat(limiter.available(), is(valueOf(0)));
+    }
+
+    @Test
+    public void readSingleBytesInBatches() throws IOException {
+        final ThrottledInputStream instance = new ThrottledInputStream(new ByteArrayInputStream(new byte[250]), limiter);
+
+        for (int i = 0; i < 9; i++) {
+            assertThat(instance.read(), is(0));
+        }
+        assertThat(limiter.available(), is(valueOf(100)));
+
+        assertThat(instance.read(), is(0));
+        assertThat(limiter.available(), is(valueOf(90)));
+    }
+
+    @Test
+    public void skip() throws IOException {
+        final ThrottledInputStream instance = new ThrottledInputStream(new ByteArrayInputStream(new byte[250]), limiter);
+
+        assertThat(instance.skip(80), is(80L));
+        assertThat(limiter.available(), is(valueOf(20)));
+    }
+
+    @Test
+    public void endOfStream() throws IOException {
+        final ThrottledInputStream instance = new ThrottledInputStream(new ByteArrayInputStream(new byte[0]), limiter);
+
+        assertThat(instance.read(), is(-1));
+        assertThat(instance.read(new byte[10]), is(-1));
+        assertThat(limiter.available(), is(valueOf(100)));
+    }
+
+}
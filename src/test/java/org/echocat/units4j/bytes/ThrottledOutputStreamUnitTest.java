@@ -0,0 +1,49 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteRateLimiter.byteRateLimiter;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ThrottledOutputStreamUnitTest {
+
+    private final ByteRateLimiter limiter = byteRateLimiter(ByteRate.valueOf(1000, SECONDS))
+        .withNanoClock(() -> 0L)
+        .withBurst(valueOf(100))
+        .withBatchSize(valueOf(10))
+        .build();
+
+    @Test
+    public void writeSingleBytesInBatches() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ThrottledOutputStream instance = new ThrottledOutputStream(out, limiter);
+
+        for (int i = 0; i < 9; i++) {
+            instance.write(i);
+        }
+        assertThat(limiter.available(), is(valueOf(100)));
+
+        instance.write(9);
+        assertThat(limiter.available(), is(valueOf(90)));
+        assertThat(out.size(), is(10));
+    }
+
+    @Test
+    public void writeInChunks() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ThrottledOutputStream instance = new ThrottledOutputStream(out, limiter);
+
+        instance.write(new byte[110]);
+
+        assertThat(out.size(), is(110));
+        assertThat(limiter.reserve(0, Long.MAX_VALUE), is(MILLISECONDS.toNanos(10)));
+    }
+
+}
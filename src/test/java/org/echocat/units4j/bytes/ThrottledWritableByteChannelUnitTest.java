@@ -0,0 +1,49 @@
+package org.echocat.units4j.bytes;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static java.nio.channels.Channels.newChannel;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.echocat.units4j.bytes.ByteCount.valueOf;
+import static org.echocat.units4j.bytes.ByteRateLimiter.byteRateLimiter;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ThrottledWritableByteChannelUnitTest {
+
+    private final ByteRateLimiter limiter = byteRateLimiter(ByteRate.valueOf(1000, SECONDS))
+        .withNanoClock(() -> 0L)
+        .withBurst(valueOf(100))
+        .withBatchSize(valueOf(10))
+        .build();
+
+    @Test
+    public void write() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final ThrottledWritableByteChannel instance = new ThrottledWritableByteChannel(newChannel(out), limiter)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(1000);
+
+            assertThat(instance.write(buffer), is(100));
+            assertThat(buffer.position(), is(100));
+            assertThat(buffer.limit(), is(1000));
+            assertThat(limiter.available(), is(valueOf(0)));
+            assertThat(instance.isOpen(), is(true));
+        }
+        assertThat(out.size(), is(100));
+    }
+
+    @Test
+    public void writeInBatches() throws IOException {
+        final ThrottledWritableByteChannel instance = new ThrottledWritableByteChannel(newChannel(new ByteArrayOutputStream()), limiter);
+
+        assertThat(instance.write(ByteBuffer.allocate(5)), is(5));
+        assertThat(limiter.available(), is(valueOf(100)));
+        assertThat(instance.write(ByteBuffer.allocate(5)), is(5));
+        assertThat(limiter.available(), is(valueOf(90)));
+    }
+
+}